@@ -0,0 +1,181 @@
+package inference.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * JMH 벤치마크를 스레드 수별로 돌리고 ops/s와 bytes/op(GC profiler의 gc.alloc.rate.norm)를 CSV로 남긴다.
+ * baseline CSV를 주면 같은 행끼리 비교해서 회귀가 있으면 exit 1 (CI 게이트용).
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="include=Store threads=1,4,16,64 baseline=bench/baseline.csv"
+ * </pre>
+ *
+ * 인자(key=value, 모두 선택):
+ * - include: 벤치마크 이름 정규식 (기본 전체)
+ * - threads: 스레드 수 목록 (기본 1,4,16,64)
+ * - forks / warmup / iterations / time: JMH 반복 설정 (기본 1 / 3 / 5 / 1s)
+ * - out: 결과 디렉터리 (기본 target/jmh). summary.csv와 스레드 수별 JMH JSON을 쓴다
+ * - baseline: 비교할 이전 summary.csv
+ * - maxThroughputDrop / maxAllocGrowth: 허용 회귀 비율 (기본 0.10 / 0.10)
+ */
+public final class BenchmarkRunner {
+
+  private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+  private static final String CSV_HEADER = "benchmark,params,threads,opsPerSec,bytesPerOp";
+
+  private BenchmarkRunner() {}
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> opts = parseArgs(args);
+    String include = opts.getOrDefault("include", "inference\\.bench\\..*");
+    int[] threadCounts = Stream.of(opts.getOrDefault("threads", "1,4,16,64").split(","))
+        .map(String::trim)
+        .mapToInt(Integer::parseInt)
+        .toArray();
+    Path out = Path.of(opts.getOrDefault("out", "target/jmh"));
+    Files.createDirectories(out);
+
+    List<Row> rows = new ArrayList<>();
+    for (int threads : threadCounts) {
+      ChainedOptionsBuilder builder = new OptionsBuilder()
+          .include(include)
+          .threads(threads)
+          .forks(Integer.parseInt(opts.getOrDefault("forks", "1")))
+          .warmupIterations(Integer.parseInt(opts.getOrDefault("warmup", "3")))
+          .measurementIterations(Integer.parseInt(opts.getOrDefault("iterations", "5")))
+          .warmupTime(TimeValue.fromString(opts.getOrDefault("time", "1s")))
+          .measurementTime(TimeValue.fromString(opts.getOrDefault("time", "1s")))
+          .addProfiler(GCProfiler.class)
+          .jvmArgsAppend("-Dlogback.configurationFile=jmh-logback.xml")
+          .resultFormat(ResultFormatType.JSON)
+          .result(out.resolve("result-t" + threads + ".json").toString());
+      Collection<RunResult> results = new Runner(builder.build()).run();
+      for (RunResult result : results) {
+        rows.add(Row.of(result, threads));
+      }
+    }
+
+    Path summary = out.resolve("summary.csv");
+    List<String> lines = new ArrayList<>();
+    lines.add(CSV_HEADER);
+    rows.forEach(r -> lines.add(r.toCsv()));
+    Files.write(summary, lines);
+    System.out.println("summary: " + summary.toAbsolutePath());
+
+    String baseline = opts.get("baseline");
+    if (baseline != null) {
+      double maxDrop = Double.parseDouble(opts.getOrDefault("maxThroughputDrop", "0.10"));
+      double maxGrowth = Double.parseDouble(opts.getOrDefault("maxAllocGrowth", "0.10"));
+      List<String> regressions = compare(readCsv(Path.of(baseline)), rows, maxDrop, maxGrowth);
+      if (!regressions.isEmpty()) {
+        regressions.forEach(r -> System.out.println("REGRESSION " + r));
+        System.exit(1);
+      }
+      System.out.println("no regression against " + baseline);
+    }
+  }
+
+  /**
+   * 같은 (benchmark, params, threads) 행끼리 비교한다. baseline에만 있는 행은 무시한다.
+   * bytes/op는 0 근처에서 비율이 의미가 없으므로 16바이트 미만 증가는 허용한다.
+   */
+  static List<String> compare(Map<String, Row> baseline, List<Row> current, double maxDrop, double maxGrowth) {
+    List<String> regressions = new ArrayList<>();
+    for (Row now : current) {
+      Row before = baseline.get(now.key());
+      if (before == null) {
+        continue;
+      }
+      if (now.opsPerSec() < before.opsPerSec() * (1 - maxDrop)) {
+        regressions.add(String.format(Locale.ROOT, "%s throughput %.0f -> %.0f ops/s",
+            now.key(), before.opsPerSec(), now.opsPerSec()));
+      }
+      if (now.bytesPerOp() > before.bytesPerOp() * (1 + maxGrowth) && now.bytesPerOp() - before.bytesPerOp() >= 16) {
+        regressions.add(String.format(Locale.ROOT, "%s allocation %.1f -> %.1f bytes/op",
+            now.key(), before.bytesPerOp(), now.bytesPerOp()));
+      }
+    }
+    return regressions;
+  }
+
+  private static Map<String, Row> readCsv(Path path) {
+    try (Stream<String> lines = Files.lines(path)) {
+      Map<String, Row> rows = new HashMap<>();
+      lines.skip(1).filter(l -> !l.isBlank()).map(Row::parse).forEach(r -> rows.put(r.key(), r));
+      return rows;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Map<String, String> parseArgs(String[] args) {
+    Map<String, String> opts = new LinkedHashMap<>();
+    for (String arg : args) {
+      // exec:exec는 jmh.args를 한 인자로 넘길 수 있으므로 공백으로 다시 나눈다
+      for (String token : arg.trim().split("\\s+")) {
+        if (token.isEmpty()) {
+          continue;
+        }
+        int eq = token.indexOf('=');
+        if (eq <= 0) {
+          throw new IllegalArgumentException("expected key=value: " + token);
+        }
+        opts.put(token.substring(0, eq), token.substring(eq + 1));
+      }
+    }
+    return opts;
+  }
+
+  record Row(String benchmark, String params, int threads, double opsPerSec, double bytesPerOp) {
+
+    static Row of(RunResult result, int threads) {
+      var params = result.getParams();
+      StringBuilder p = new StringBuilder();
+      for (String key : params.getParamsKeys()) {
+        if (!p.isEmpty()) {
+          p.append(';');
+        }
+        p.append(key).append('=').append(params.getParam(key));
+      }
+      Result<?> alloc = result.getSecondaryResults().get(ALLOC_NORM);
+      return new Row(
+          params.getBenchmark(),
+          p.toString(),
+          threads,
+          result.getPrimaryResult().getScore(),
+          alloc == null ? Double.NaN : alloc.getScore());
+    }
+
+    static Row parse(String line) {
+      String[] f = line.split(",", -1);
+      return new Row(f[0], f[1], Integer.parseInt(f[2]), Double.parseDouble(f[3]), Double.parseDouble(f[4]));
+    }
+
+    String key() {
+      return benchmark + "[" + params + "]@" + threads;
+    }
+
+    String toCsv() {
+      return String.format(Locale.ROOT, "%s,%s,%d,%.1f,%.1f", benchmark, params, threads, opsPerSec, bytesPerOp);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package inference.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.backend.BackendRequest;
+import inference.backend.HttpInferenceBackend;
+import inference.backend.InferenceBackend;
+import inference.backend.SimulatedInferenceBackend;
+import inference.backend.StubModelServer;
+import inference.config.BatchingConfig.InferenceBatchingProperties;
+import inference.config.ConcurrencyConfig.InferenceProcessingProperties;
+import inference.model.InferenceRequest;
+import inference.tokenizer.TokenEstimate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 백엔드 호출 한 번의 dispatch 오버헤드: 요청 JSON 인코딩 → (연결 풀/HTTP/2 stream) → 로컬 stub 모델 서버 → 응답 파싱.
+ *
+ * <p>
+ * - stub은 지연 0으로 바로 응답하므로 모델 시간은 빼고 게이트웨이 쪽 비용(+ loopback 왕복)만 남는다.
+ * - simulated(지연 0)는 기준선: 백엔드 SPI 호출 자체의 비용이다.
+ * - http2는 연결 하나에 stream을 다중화, http1은 스레드 수만큼 keep-alive 연결을 쓴다.
+ *   maxConcurrentRequests는 64 threads보다 크게 둬서 상한 대기는 재지 않는다.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HttpBackendBenchmark {
+
+  private static final InferenceBackend.OutputListener DISCARD = (index, output, from, to) -> {};
+
+  @Param({"simulated", "http2", "http1"})
+  public String backend;
+
+  private StubModelServer server;
+  private InferenceBackend target;
+  private BackendRequest request;
+
+  @Setup
+  public void setUp() throws Exception {
+    if (backend.equals("simulated")) {
+      target = new SimulatedInferenceBackend(
+          new InferenceProcessingProperties(1500, 0, 0, false, 50, 0, 0),
+          new InferenceBatchingProperties(false, 8, 10, 0.15));
+    } else {
+      server = StubModelServer.start(0, 0, 0);
+      target = new HttpInferenceBackend(
+          server.uri(),
+          backend.equals("http2") ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1,
+          256,
+          Duration.ofSeconds(1),
+          Duration.ofSeconds(10),
+          new ObjectMapper(),
+          new SimpleMeterRegistry());
+    }
+    InferenceRequest prompt = new InferenceRequest();
+    prompt.setModel("dummy");
+    prompt.setPrompt("Summarize the incident timeline for the on-call handoff in three bullet points.");
+    request = new BackendRequest("bench", prompt, new TokenEstimate(16, 256), 0);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    if (target instanceof HttpInferenceBackend http) {
+      http.destroy();
+    }
+    if (server != null) {
+      server.close();
+    }
+  }
+
+  @Benchmark
+  public String generate() throws Exception {
+    return target.generate(request, DISCARD);
+  }
+}
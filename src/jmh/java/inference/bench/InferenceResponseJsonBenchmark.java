@@ -0,0 +1,69 @@
+package inference.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * 응답 본문 직렬화(POST 202, GET 조회, SSE 이벤트마다) 와 역직렬화(builder 경로).
+ * ObjectMapper는 Boot 자동 설정과 같은 builder 기본값 + ISO-8601 날짜로 만든다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InferenceResponseJsonBenchmark {
+
+  /** queued: 접수 응답(필드 대부분 null), succeeded: 완료 응답(output/latency 포함) */
+  @Param({"queued", "succeeded"})
+  public String status;
+
+  private ObjectMapper mapper;
+  private InferenceResponse response;
+  private byte[] json;
+
+  @Setup
+  public void setUp() throws Exception {
+    mapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+    Instant receivedAt = Instant.parse("2024-01-01T00:00:00Z");
+    InferenceResponse queued = InferenceResponse.queued("bench-request-id-0000", receivedAt, receivedAt.plusMillis(1500));
+    response = switch (status) {
+      case "queued" -> queued;
+      case "succeeded" -> queued.toBuilder()
+          .status(Status.SUCCEEDED)
+          .version(queued.getVersion() + 2)
+          .startedAt(receivedAt.plusMillis(12))
+          .completedAt(receivedAt.plusMillis(412))
+          .latencyMs(412L)
+          .output("ok: Summarize the incident timeline for the on-call handoff in three bullet points.")
+          .cached(false)
+          .prefixHitRatio(0.0)
+          .build();
+      default -> throw new IllegalArgumentException("unknown status: " + status);
+    };
+    json = mapper.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws Exception {
+    return mapper.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public InferenceResponse deserialize() throws Exception {
+    return mapper.readValue(json, InferenceResponse.class);
+  }
+}
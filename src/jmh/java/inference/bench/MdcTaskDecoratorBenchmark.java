@@ -0,0 +1,60 @@
+package inference.bench;
+
+import inference.concurrency.SchedulableTask;
+import inference.config.ConcurrencyConfig;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * executor에 넘기는 작업마다 도는 MDC 데코레이터: 제출 스레드에서 MDC 복사 + 워커에서 설정/복원.
+ * 운영 경로처럼 {@link SchedulableTask}를 감싸는 경우(본문만 교체)도 함께 잰다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MdcTaskDecoratorBenchmark {
+
+  /** empty: 제출 스레드 MDC 없음, populated: 요청 처리 스레드처럼 requestId/tenant가 있음 */
+  @Param({"empty", "populated"})
+  public String mdc;
+
+  @Param({"plain", "schedulable"})
+  public String task;
+
+  private final TaskDecorator decorator = new ConcurrencyConfig().mdcTaskDecorator();
+  private Runnable body;
+  private volatile String sink;
+
+  @Setup
+  public void setUp() {
+    MDC.clear();
+    if ("populated".equals(mdc)) {
+      MDC.put("requestId", "bench-request-id-0000");
+      MDC.put("tenant", "tenant-a");
+    }
+    Runnable work = () -> sink = MDC.get("requestId");
+    body = "schedulable".equals(task)
+        ? new SchedulableTask("tenant-a", 0, System.currentTimeMillis() + 1500, "bench-request-id-0000", work)
+        : work;
+  }
+
+  @TearDown
+  public void tearDown() {
+    MDC.clear();
+  }
+
+  @Benchmark
+  public void decorateAndRun() {
+    decorator.decorate(body).run();
+  }
+}
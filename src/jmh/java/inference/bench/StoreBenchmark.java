@@ -0,0 +1,74 @@
+package inference.bench;
+
+import inference.model.InferenceResponse;
+import inference.store.BoundedInferenceStore;
+import inference.store.InMemoryInferenceStore;
+import inference.store.InferenceStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * store 단건 save/find. 키 공간을 고정해(덮어쓰기) 측정 중 엔트리 수가 늘지 않게 한다.
+ * 스레드마다 시작 위치를 달리해 같은 키에 몰리지 않게 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StoreBenchmark {
+
+  private static final int KEYS = 1 << 16;
+
+  @Param({"memory", "bounded"})
+  public String store;
+
+  private InferenceStore target;
+  private InferenceResponse[] snapshots;
+
+  @Setup
+  public void setUp() {
+    Clock clock = Clock.systemUTC();
+    target = switch (store) {
+      case "memory" -> new InMemoryInferenceStore();
+      case "bounded" -> new BoundedInferenceStore(
+          clock, new SimpleMeterRegistry(), KEYS * 2, 256L * 1024 * 1024, 600_000, 600_000, 600_000, 60_000);
+      default -> throw new IllegalArgumentException("unknown store: " + store);
+    };
+    Instant now = Instant.now(clock);
+    snapshots = new InferenceResponse[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      snapshots[i] = InferenceResponse.queued("bench-" + i, now, now.plusMillis(1500));
+      target.save(snapshots[i]);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next = ThreadLocalRandom.current().nextInt(KEYS);
+
+    int next() {
+      return next++ & (KEYS - 1);
+    }
+  }
+
+  @Benchmark
+  public void save(Cursor cursor) {
+    target.save(snapshots[cursor.next()]);
+  }
+
+  @Benchmark
+  public Optional<InferenceResponse> find(Cursor cursor) {
+    return target.find(snapshots[cursor.next()].getRequestId());
+  }
+}
@@ -0,0 +1,138 @@
+package inference.bench;
+
+import inference.backend.SimulatedInferenceBackend;
+import inference.cache.PrefixIndex;
+import inference.cache.ResponseCache;
+import inference.concurrency.ConcurrencyLimiter;
+import inference.concurrency.FixedConcurrencyLimiter;
+import inference.concurrency.HashedWheelTimer;
+import inference.concurrency.InferenceLoad;
+import inference.concurrency.TokenBudget;
+import inference.concurrency.WaitEstimator;
+import inference.config.BatchingConfig.InferenceBatchingProperties;
+import inference.config.ConcurrencyConfig;
+import inference.config.ConcurrencyConfig.ExecutionMode;
+import inference.config.ConcurrencyConfig.InferenceAdmissionProperties;
+import inference.config.ConcurrencyConfig.InferenceConcurrencyProperties;
+import inference.config.ConcurrencyConfig.InferenceProcessingProperties;
+import inference.config.StoreConfig.InferenceStoreProperties;
+import inference.model.InferenceRequest;
+import inference.model.InferenceResponse;
+import inference.model.SubmitOptions;
+import inference.service.InferenceEventBus;
+import inference.service.InferenceService;
+import inference.service.RequestCoalescer;
+import inference.store.BoundedInferenceStore;
+import inference.store.InferenceStore;
+import inference.tokenizer.ApproximateBpeTokenizer;
+import inference.tokenizer.TokenEstimator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * 접수부터 완료까지 서비스 자체 오버헤드: submit → (MDC 데코레이터) → dispatch → permit → runInference → 완료 전이.
+ *
+ * <p>
+ * - 작업 시간(simulatedMin/MaxMs)은 0이고 executor는 호출 스레드에서 바로 실행한다. 큐 대기/모델 시간은 빼고
+ *   store 전이, 이벤트 발행, timeout 등록/해제, 메트릭 기록 같은 요청당 고정 비용만 잰다.
+ * - store는 운영 기본값인 bounded(상한 10만)라서 측정 중에는 eviction이 계속 일어나는 정상 상태다.
+ * - 캐시/prefix 인덱스/코얼레싱/배칭은 꺼 둔다 (운영 기본값과 같다). token budget은 켜 두되 64 threads에서도 모자라지 않게 크게 둔다.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SubmitBenchmark {
+
+  /** 0이면 멱등 윈도우를 끄고 saveIfAbsent 대신 save로 접수한다 */
+  @Param({"600000", "0"})
+  public long idempotencyWindowMs;
+
+  private final AtomicInteger threadIds = new AtomicInteger();
+  private HashedWheelTimer timeoutTimer;
+  private RequestCoalescer coalescer;
+  private InferenceService service;
+  private InferenceRequest request;
+
+  @Setup
+  public void setUp() {
+    Clock clock = Clock.systemUTC();
+    MeterRegistry registry = new SimpleMeterRegistry();
+    // 64 threads에서도 permit 대기가 없게 한다
+    ConcurrencyLimiter limiter = new FixedConcurrencyLimiter(128);
+    TaskDecorator decorator = new ConcurrencyConfig().mdcTaskDecorator();
+    TaskExecutor inline = task -> decorator.decorate(task).run();
+    InferenceStore store = new BoundedInferenceStore(
+        clock, registry, 100_000, 64L * 1024 * 1024, 600_000, 600_000, 600_000, 60_000);
+    InferenceEventBus eventBus = new InferenceEventBus();
+    coalescer = new RequestCoalescer(false, 500, clock, store, eventBus, registry);
+    InferenceProcessingProperties processing = new InferenceProcessingProperties(1500, 0, 0, false, 50, 0.16, 0);
+    InferenceBatchingProperties batching = new InferenceBatchingProperties(false, 8, 10, 0.15);
+    timeoutTimer = new HashedWheelTimer("bench-timeout-timer", 10, 512);
+    service = new InferenceService(
+        clock,
+        limiter,
+        inline,
+        new InferenceConcurrencyProperties(ExecutionMode.PLATFORM, 128, 128, 200, 50, 30),
+        processing,
+        store,
+        new InferenceStoreProperties(100_000, 64L * 1024 * 1024, 600_000, 600_000, 600_000, 60_000, idempotencyWindowMs),
+        eventBus,
+        batching,
+        new ResponseCache(clock, registry, 0, 0, 0),
+        new PrefixIndex(64, 0, registry),
+        coalescer,
+        new WaitEstimator(new InferenceLoad(() -> 0, () -> 0, limiter, 200), 0.2, 5),
+        new InferenceAdmissionProperties(false, 0.2, 5),
+        timeoutTimer,
+        new TokenEstimator(new ApproximateBpeTokenizer(), 256, 4096),
+        new TokenBudget(1 << 20),
+        new SimulatedInferenceBackend(processing, batching),
+        registry
+    );
+    request = new InferenceRequest();
+    request.setModel("dummy");
+    request.setPrompt("Summarize the incident timeline for the on-call handoff in three bullet points.");
+  }
+
+  @TearDown
+  public void tearDown() {
+    coalescer.destroy();
+    timeoutTimer.destroy();
+  }
+
+  /** 스레드마다 겹치지 않는 requestId (운영처럼 매 요청 새 id) */
+  @State(Scope.Thread)
+  public static class Ids {
+    private String prefix;
+    private long seq;
+
+    @Setup
+    public void setUp(SubmitBenchmark bench) {
+      prefix = "bench-" + bench.threadIds.getAndIncrement() + "-";
+    }
+
+    String next() {
+      return prefix + seq++;
+    }
+  }
+
+  @Benchmark
+  public InferenceResponse submit(Ids ids) {
+    return service.submit(ids.next(), request, SubmitOptions.NONE);
+  }
+}
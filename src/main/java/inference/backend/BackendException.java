@@ -0,0 +1,15 @@
+package inference.backend;
+
+/**
+ * 백엔드가 출력을 만들지 못했다 (연결 실패, 2xx가 아닌 응답, 알 수 없는 응답 형식 등). 취소/timeout은 여기에 해당하지 않는다.
+ */
+public class BackendException extends Exception {
+
+  public BackendException(String message) {
+    super(message);
+  }
+
+  public BackendException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
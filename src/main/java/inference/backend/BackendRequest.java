@@ -0,0 +1,16 @@
+package inference.backend;
+
+import inference.model.InferenceRequest;
+import inference.tokenizer.TokenEstimate;
+
+/**
+ * 백엔드에 넘기는 작업 한 건.
+ *
+ * @param cachedPrefixChars prefix 인덱스에서 이미 prefill된 것으로 본 prompt 앞부분 길이 (인덱스가 꺼져 있으면 0)
+ */
+public record BackendRequest(
+    String requestId,
+    InferenceRequest request,
+    TokenEstimate tokens,
+    int cachedPrefixChars
+) {}
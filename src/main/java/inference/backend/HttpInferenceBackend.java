@@ -0,0 +1,230 @@
+package inference.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * 원격 모델 서버에 작업을 넘기는 백엔드.
+ *
+ * <p>
+ * - 프로토콜: {@code POST {baseUri}/v1/generate}, 본문 {@code {"requestId","model","prompt","maxTokens","parameters"}},
+ *   200 응답 {@code {"output": "..."}}. requestId는 {@code X-Request-Id} 헤더로도 넘긴다.
+ * - 백엔드마다 JDK {@link HttpClient} 하나(연결 풀 + selector 스레드 하나의 non-blocking I/O). HTTP/2면 연결 하나에
+ *   stream을 다중화하고(h2c upgrade), 서버가 HTTP/2를 모르면 HTTP/1.1 keep-alive 풀로 내려간다.
+ * - maxConcurrentRequests: 이 백엔드로 동시에 나가는 요청(HTTP/2 stream 또는 HTTP/1.1 연결) 상한. fair Semaphore로 건다.
+ *   서비스의 permit보다 작으면 모자란 만큼 워커가 여기서 기다린다(permit을 쥔 채로).
+ * - interrupt(취소/timeout)되면 요청 future를 cancel해서 stream/연결을 끊는다. 서버도 그 작업을 멈출 수 있다.
+ * - requestTimeoutMs는 응답이 오지 않는 서버에 대한 마지막 안전장치다. 작업 deadline은 서비스의 timeout(interrupt)이 건다.
+ * </p>
+ */
+public class HttpInferenceBackend implements InferenceBackend, DisposableBean {
+  private static final Logger log = LoggerFactory.getLogger(HttpInferenceBackend.class);
+
+  private final URI generateUri;
+  private final HttpClient client;
+  private final ObjectMapper mapper;
+  private final Duration requestTimeout;
+  private final int maxConcurrentRequests;
+  private final Semaphore streams;
+  private final Timer succeeded;
+  private final Timer failed;
+  private final Timer cancelled;
+
+  public HttpInferenceBackend(
+      URI baseUri,
+      HttpClient.Version version,
+      int maxConcurrentRequests,
+      Duration connectTimeout,
+      Duration requestTimeout,
+      ObjectMapper mapper,
+      MeterRegistry registry
+  ) {
+    if (maxConcurrentRequests <= 0) {
+      throw new IllegalArgumentException("maxConcurrentRequests must be positive");
+    }
+    this.generateUri = generateUri(baseUri);
+    this.client = HttpClient.newBuilder()
+        .version(version)
+        .connectTimeout(connectTimeout)
+        .build();
+    this.mapper = mapper;
+    this.requestTimeout = requestTimeout;
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    this.streams = new Semaphore(maxConcurrentRequests, true);
+    this.succeeded = requestTimer(registry, "success");
+    this.failed = requestTimer(registry, "error");
+    this.cancelled = requestTimer(registry, "cancelled");
+    Gauge.builder("inference.backend.inflight", this, HttpInferenceBackend::inFlight)
+        .tag("backend", name())
+        .description("Requests currently in flight to the model server")
+        .register(registry);
+    Gauge.builder("inference.backend.limit", this, b -> b.maxConcurrentRequests).tag("backend", name()).register(registry);
+  }
+
+  /**
+   * {@code {baseUri}/v1/generate}. baseUri의 경로(예: 게이트웨이의 {@code /models/llama})를 살리려고
+   * 끝에 '/'를 붙인 뒤 상대 경로로 resolve한다 (절대 경로 "/v1/generate"로 resolve하면 경로가 버려진다).
+   */
+  static URI generateUri(URI baseUri) {
+    String base = baseUri.toString();
+    return URI.create(base.endsWith("/") ? base : base + "/").resolve("v1/generate");
+  }
+
+  private Timer requestTimer(MeterRegistry registry, String outcome) {
+    return Timer.builder("inference.backend.requests")
+        .tag("backend", name())
+        .tag("outcome", outcome)
+        .register(registry);
+  }
+
+  @Override
+  public String name() {
+    return "http";
+  }
+
+  /** 지금 나가 있는 요청 수 */
+  public int inFlight() {
+    return maxConcurrentRequests - streams.availablePermits();
+  }
+
+  @Override
+  public String generate(BackendRequest request, OutputListener listener) throws InterruptedException, BackendException {
+    HttpRequest httpRequest = toHttpRequest(request);
+    streams.acquire();
+    try {
+      long startNanos = System.nanoTime();
+      String output = await(send(httpRequest), startNanos);
+      listener.onOutput(0, output, 0, output.length());
+      return output;
+    } finally {
+      streams.release();
+    }
+  }
+
+  /**
+   * 배치의 항목을 한꺼번에 보낸다(HTTP/2면 같은 연결의 stream들). 배치가 maxConcurrentRequests보다 크면 상한만큼만 잡는다:
+   * 배치 하나가 혼자서 상한을 넘을 수는 있어도, 다른 요청과 합쳐 더 넘지는 않는다.
+   */
+  @Override
+  public List<String> generateBatch(List<BackendRequest> requests, OutputListener listener)
+      throws InterruptedException, BackendException {
+    List<HttpRequest> httpRequests = new ArrayList<>(requests.size());
+    for (BackendRequest request : requests) {
+      httpRequests.add(toHttpRequest(request));
+    }
+    int weight = Math.min(maxConcurrentRequests, requests.size());
+    streams.acquire(weight);
+    List<CompletableFuture<HttpResponse<byte[]>>> futures = new ArrayList<>(requests.size());
+    try {
+      long startNanos = System.nanoTime();
+      for (HttpRequest httpRequest : httpRequests) {
+        futures.add(send(httpRequest));
+      }
+      List<String> outputs = new ArrayList<>(requests.size());
+      for (int i = 0; i < futures.size(); i++) {
+        String output = await(futures.get(i), startNanos);
+        listener.onOutput(i, output, 0, output.length());
+        outputs.add(output);
+      }
+      return outputs;
+    } finally {
+      // 실패/interrupt로 빠져나오면 남은 요청도 끊는다 (이미 끝난 future에는 영향 없음)
+      futures.forEach(f -> f.cancel(true));
+      streams.release(weight);
+    }
+  }
+
+  private CompletableFuture<HttpResponse<byte[]>> send(HttpRequest httpRequest) {
+    return client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+  }
+
+  /** 응답을 기다린다. interrupt되면 요청을 cancel하고 그대로 던진다. */
+  private String await(CompletableFuture<HttpResponse<byte[]>> future, long startNanos)
+      throws InterruptedException, BackendException {
+    HttpResponse<byte[]> response;
+    try {
+      response = future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      cancelled.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+      throw e;
+    } catch (ExecutionException | CancellationException e) {
+      failed.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+      Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+      throw new BackendException("request to " + generateUri + " failed: " + cause, cause);
+    }
+    try {
+      String output = parse(response);
+      succeeded.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+      return output;
+    } catch (BackendException e) {
+      failed.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+      throw e;
+    }
+  }
+
+  private String parse(HttpResponse<byte[]> response) throws BackendException {
+    if (response.statusCode() / 100 != 2) {
+      throw new BackendException("model server returned " + response.statusCode());
+    }
+    JsonNode output;
+    try {
+      output = mapper.readTree(response.body()).get("output");
+    } catch (IOException e) {
+      throw new BackendException("malformed model server response", e);
+    }
+    if (output == null || !output.isTextual()) {
+      throw new BackendException("model server response has no output");
+    }
+    return output.asText();
+  }
+
+  private HttpRequest toHttpRequest(BackendRequest request) throws BackendException {
+    ObjectNode body = mapper.createObjectNode();
+    body.put("requestId", request.requestId());
+    body.put("model", request.request().getModel());
+    body.put("prompt", request.request().getPrompt());
+    body.put("maxTokens", request.tokens().maxOutputTokens());
+    if (request.request().getParameters() != null) {
+      body.set("parameters", mapper.valueToTree(request.request().getParameters()));
+    }
+    byte[] bytes;
+    try {
+      bytes = mapper.writeValueAsBytes(body);
+    } catch (IOException e) {
+      throw new BackendException("cannot encode request", e);
+    }
+    return HttpRequest.newBuilder(generateUri)
+        .timeout(requestTimeout)
+        .header("Content-Type", "application/json")
+        .header("X-Request-Id", request.requestId())
+        .POST(HttpRequest.BodyPublishers.ofByteArray(bytes))
+        .build();
+  }
+
+  @Override
+  public void destroy() {
+    log.info("event=backend.shutdown backend={} uri={} inFlight={}", name(), generateUri, inFlight());
+    client.shutdownNow();
+  }
+}
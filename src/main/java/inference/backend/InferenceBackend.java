@@ -0,0 +1,44 @@
+package inference.backend;
+
+import java.util.List;
+
+/**
+ * 실제로 출력을 만드는 쪽. 서비스는 큐/permit/토큰/timeout/상태 전이만 맡고, 그 안의 작업은 이 SPI로 넘긴다.
+ *
+ * <p>
+ * - 호출은 워커 스레드에서 permit을 쥔 채로 블로킹한다(끝날 때까지 돌아오지 않는다). permit 보유 시간이 곧 서비스 시간이다.
+ * - 취소/timeout은 워커 interrupt로 온다. interrupt되면 진행 중인 작업(원격 요청 포함)을 멈추고
+ *   {@link InterruptedException}을 던져야 한다. 어느 쪽인지는 서비스가 가른다.
+ * - 그 밖의 실패는 {@link BackendException}. 작업은 FAILED가 된다.
+ * </p>
+ */
+public interface InferenceBackend {
+
+  /** 로그/메트릭 tag용 이름 */
+  String name();
+
+  String generate(BackendRequest request, OutputListener listener) throws InterruptedException, BackendException;
+
+  /**
+   * 배치 하나(같은 model). permit 1개 안에서 실행된다.
+   *
+   * @return requests와 같은 순서의 출력
+   */
+  List<String> generateBatch(List<BackendRequest> requests, OutputListener listener)
+      throws InterruptedException, BackendException;
+
+  /**
+   * 출력이 만들어지는 대로 호출된다 (SSE chunk용). 한 번에 다 받는 백엔드는 끝에 한 번만 부른다.
+   * 구독자가 없으면 호출자가 substring을 만들지 않도록 조각 대신 범위를 넘긴다.
+   */
+  @FunctionalInterface
+  interface OutputListener {
+    /**
+     * @param index  배치 안의 위치 (단건이면 0)
+     * @param output 전체 출력
+     * @param from   새로 만들어진 구간의 시작 (포함)
+     * @param to     끝 (제외)
+     */
+    void onOutput(int index, String output, int from, int to);
+  }
+}
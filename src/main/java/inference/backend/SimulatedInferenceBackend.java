@@ -0,0 +1,149 @@
+package inference.backend;
+
+import inference.config.BatchingConfig.InferenceBatchingProperties;
+import inference.config.ConcurrencyConfig.InferenceProcessingProperties;
+import inference.model.InferenceRequest;
+import inference.tokenizer.TokenEstimate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 모델 서버 없이 토큰 수에 비례하는 지연만 흉내 내는 백엔드 (기본값). 출력은 {@code "ok: " + prompt 요약}.
+ *
+ * <p>
+ * - 지연 = simulatedMinMs + prefill 토큰 x prefillMsPerToken + 최대 출력 토큰 x decodeMsPerToken (min~max로 자르고 +-20% 지터).
+ * - sleep 또는 cpuBurn을 chunk 단위로 나눠 돌고, 조각마다 진행률만큼의 출력을 listener에 흘린다.
+ * - timeout/취소는 deadline을 polling하지 않고 interrupt로 끝낸다 (sleep은 바로 깨고, cpuBurn은 조각 안에서도 interrupt를 확인한다).
+ * </p>
+ */
+public class SimulatedInferenceBackend implements InferenceBackend {
+  private static final Logger log = LoggerFactory.getLogger(SimulatedInferenceBackend.class);
+  private static volatile long CPU_SINK = 0L;
+
+  private final InferenceProcessingProperties processing;
+  private final InferenceBatchingProperties batching;
+
+  public SimulatedInferenceBackend(InferenceProcessingProperties processing, InferenceBatchingProperties batching) {
+    this.processing = processing;
+    this.batching = batching;
+  }
+
+  @Override
+  public String name() {
+    return "simulated";
+  }
+
+  @Override
+  public String generate(BackendRequest request, OutputListener listener) throws InterruptedException {
+    int plannedMs = computeLatencyMs(request);
+    log.debug("event=backend.simulated requestId={} plannedLatencyMs={}", request.requestId(), plannedMs);
+    String output = renderOutput(request.request());
+    simulateWork(plannedMs, (fromMs, toMs) -> emit(listener, 0, output, fromMs, toMs, plannedMs));
+    return output;
+  }
+
+  @Override
+  public List<String> generateBatch(List<BackendRequest> requests, OutputListener listener) throws InterruptedException {
+    int plannedMs = computeBatchLatencyMs(requests);
+    log.debug("event=backend.simulated batchSize={} plannedLatencyMs={}", requests.size(), plannedMs);
+    List<String> outputs = requests.stream().map(r -> renderOutput(r.request())).toList();
+    simulateWork(plannedMs, (fromMs, toMs) -> {
+      for (int i = 0; i < outputs.size(); i++) {
+        emit(listener, i, outputs.get(i), fromMs, toMs, plannedMs);
+      }
+    });
+    return outputs;
+  }
+
+  private int computeLatencyMs(BackendRequest call) {
+    InferenceRequest request = call.request();
+    TokenEstimate tokens = call.tokens();
+    int promptChars = request.getPrompt() == null ? 0 : request.getPrompt().length();
+    // 토큰 수에 비례하는 지연 모사 + 약간의 지터: prefill(prompt 토큰) + decode(최대 출력 토큰).
+    // prefill은 캐시된 prefix만큼 건너뛴다 (prefix의 토큰 수는 문자 비율로 어림)
+    long prefillTokens = promptChars == 0
+        ? 0
+        : (long) tokens.promptTokens() * Math.max(0, promptChars - call.cachedPrefixChars()) / promptChars;
+    long base = processing.simulatedMinMs() + Math.round(
+        prefillTokens * processing.prefillMsPerToken() + tokens.maxOutputTokens() * processing.decodeMsPerToken());
+    int clamped = (int) Math.min(processing.simulatedMaxMs(), Math.max(processing.simulatedMinMs(), base));
+    int jitter = (int) Math.round(clamped * 0.20); // +-20%
+    int lo = Math.max(processing.simulatedMinMs(), clamped - jitter);
+    int hi = Math.min(processing.simulatedMaxMs(), clamped + jitter);
+    return ThreadLocalRandom.current().nextInt(lo, hi + 1);
+  }
+
+  /**
+   * 배치 지연은 배치 크기에 sublinear: 가장 긴 단건 지연 * (1 + latencyGrowth * log2(batchSize)).
+   * (실제 LLM 서버에서 배치 처리량이 늘어나는 형태를 모사)
+   */
+  private int computeBatchLatencyMs(List<BackendRequest> requests) {
+    int longest = 0;
+    for (BackendRequest request : requests) {
+      longest = Math.max(longest, computeLatencyMs(request));
+    }
+    double growth = 1.0 + batching.latencyGrowth() * (Math.log(requests.size()) / Math.log(2));
+    return (int) Math.round(longest * growth);
+  }
+
+  private void simulateWork(int plannedMs, Progress progress) throws InterruptedException {
+    int remaining = plannedMs;
+    while (remaining > 0) {
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      int chunk = Math.min(
+          Math.max(1, processing.cpuBurnChunkMs()),
+          remaining
+      );
+      if (processing.cpuBurnEnabled()) {
+        burnCpuMs(chunk);
+      } else {
+        Thread.sleep(chunk);
+      }
+      int done = plannedMs - remaining;
+      remaining -= chunk;
+      progress.advanced(done, done + chunk);
+    }
+  }
+
+  /** 진행률(경과 ms / 계획 ms)에 비례하는 output 구간 */
+  private static void emit(OutputListener listener, int index, String output, int fromMs, int toMs, int plannedMs) {
+    int from = (int) ((long) output.length() * fromMs / plannedMs);
+    int to = (int) ((long) output.length() * toMs / plannedMs);
+    if (to > from) {
+      listener.onOutput(index, output, from, to);
+    }
+  }
+
+  /** interrupt되면 조각이 끝나기 전에 돌아온다 (호출자가 interrupt 상태를 확인). */
+  private static void burnCpuMs(int ms) {
+    long end = System.nanoTime() + (ms * 1_000_000L);
+    long x = 0L;
+    Thread current = Thread.currentThread();
+    while (System.nanoTime() < end && !current.isInterrupted()) {
+      x ^= System.nanoTime();
+    }
+    CPU_SINK = x;
+  }
+
+  private static String renderOutput(InferenceRequest request) {
+    return "ok: " + summarize(request.getPrompt());
+  }
+
+  private static String summarize(String prompt) {
+    String p = prompt == null ? "" : prompt.trim();
+    if (p.length() <= 80) return p;
+    return p.substring(0, 77) + "...";
+  }
+
+  /**
+   * 시뮬레이션 작업이 한 조각(cpuBurnChunkMs) 진행될 때마다 호출된다.
+   */
+  @FunctionalInterface
+  private interface Progress {
+    void advanced(int fromMs, int toMs);
+  }
+}
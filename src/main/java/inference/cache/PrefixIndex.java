@@ -0,0 +1,118 @@
+package inference.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 최근 처리한 prompt의 prefix 인덱스 (서버의 KV cache 재사용을 모사).
+ *
+ * <p>
+ * - prompt를 {@code chunkChars} 단위로 자르고, 앞 chunk까지의 해시에 현재 chunk를 이어 붙인 rolling hash를 키로 둔다.
+ *   그래서 i번째 키가 있으면 0..i 전체 prefix가 같았던 prompt가 있었다는 뜻이다(해시 충돌은 무시).
+ * - model이 다르면 KV cache도 다르므로 seed에 model을 섞는다.
+ * - 키 수는 {@code maxEntries}로 제한하고 LRU로 축출한다. 키 하나가 chunk 하나이므로 메모리는 chunk 수에 비례한다.
+ * - 마지막 불완전 chunk는 인덱싱하지 않는다(실제 서버도 block 단위로만 재사용).
+ * - maxEntries가 0이면 꺼진 인덱스: 항상 0을 반환.
+ * </p>
+ */
+public class PrefixIndex {
+
+  /** LinkedHashMap 노드 + boxed Long 키를 대략 반영한 키당 비용. */
+  private static final int BYTES_PER_ENTRY = 64;
+
+  private final int chunkChars;
+  private final int maxEntries;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LinkedHashMap<Long, Boolean> chunks = new LinkedHashMap<>(16, 0.75f, true);
+
+  private final Counter hits;
+  private final Counter misses;
+  private final DistributionSummary hitRatio;
+
+  public PrefixIndex(int chunkChars, int maxEntries, MeterRegistry registry) {
+    this.chunkChars = Math.max(1, chunkChars);
+    this.maxEntries = Math.max(0, maxEntries);
+    this.hits = Counter.builder("inference.prefix_cache.lookups").tag("result", "hit").register(registry);
+    this.misses = Counter.builder("inference.prefix_cache.lookups").tag("result", "miss").register(registry);
+    this.hitRatio = DistributionSummary.builder("inference.prefix_cache.hit_ratio")
+        .description("cached prefix chars / prompt chars")
+        .register(registry);
+    Gauge.builder("inference.prefix_cache.entries", this, PrefixIndex::size).register(registry);
+    Gauge.builder("inference.prefix_cache.bytes", this, i -> (double) i.size() * BYTES_PER_ENTRY).register(registry);
+  }
+
+  public boolean isEnabled() {
+    return maxEntries > 0;
+  }
+
+  /**
+   * 이미 인덱스에 있는 가장 긴 prefix 길이(문자 수)를 돌려주고, 이 prompt의 chunk들을 인덱스에 넣는다.
+   * (prefill이 끝나면 그 prompt의 KV가 캐시에 남는 것과 같다)
+   */
+  public int matchAndRecord(String model, String prompt) {
+    if (!isEnabled() || prompt == null) {
+      return 0;
+    }
+    int fullChunks = prompt.length() / chunkChars;
+    if (fullChunks == 0) {
+      misses.increment();
+      hitRatio.record(0.0);
+      return 0;
+    }
+
+    long[] keys = new long[fullChunks];
+    long h = model == null ? 0L : model.hashCode() * 0x9E3779B97F4A7C15L;
+    for (int c = 0; c < fullChunks; c++) {
+      int from = c * chunkChars;
+      for (int i = from; i < from + chunkChars; i++) {
+        h = h * 31 + prompt.charAt(i);
+      }
+      keys[c] = mix(h);
+    }
+
+    int matched = 0;
+    lock.lock();
+    try {
+      boolean matching = true;
+      for (long key : keys) {
+        if (matching && chunks.get(key) != null) {
+          matched++;
+        } else {
+          matching = false;
+          chunks.put(key, Boolean.TRUE);
+        }
+      }
+      while (chunks.size() > maxEntries) {
+        chunks.pollFirstEntry();
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    int cachedChars = matched * chunkChars;
+    (matched > 0 ? hits : misses).increment();
+    hitRatio.record((double) cachedChars / prompt.length());
+    return cachedChars;
+  }
+
+  public int size() {
+    lock.lock();
+    try {
+      return chunks.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** 누적 해시의 하위 비트가 고르게 퍼지도록 섞는다 (splitmix64 finalizer). */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
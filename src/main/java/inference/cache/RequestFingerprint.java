@@ -0,0 +1,101 @@
+package inference.cache;
+
+import inference.model.InferenceRequest;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 같은 결과를 내는 요청끼리 같은 값이 되도록 만든 요청 지문 (SHA-256 hex).
+ *
+ * <p>
+ * - model + 정규화한 prompt(앞뒤 공백 제거, 연속 공백은 한 칸) + 키 정렬한 parameters
+ * - 스케줄링/캐시 제어용 parameters(tenant, priority, cache)는 결과에 영향이 없으므로 제외
+ * </p>
+ */
+public final class RequestFingerprint {
+
+  /** 결과에 영향을 주지 않는 parameters 키 */
+  private static final Set<String> IGNORED_PARAMETERS = Set.of("tenant", "priority", "cache");
+
+  private RequestFingerprint() {}
+
+  public static String of(InferenceRequest request) {
+    StringBuilder sb = new StringBuilder(64 + (request.getPrompt() == null ? 0 : request.getPrompt().length()));
+    sb.append(request.getModel() == null ? "" : request.getModel().trim()).append('\u0000');
+    sb.append(normalizePrompt(request.getPrompt())).append('\u0000');
+    Map<String, Object> params = request.getParameters();
+    if (params != null) {
+      TreeMap<String, Object> sorted = new TreeMap<>(params);
+      IGNORED_PARAMETERS.forEach(sorted::remove);
+      appendCanonical(sb, sorted);
+    }
+    return sha256(sb.toString());
+  }
+
+  static String normalizePrompt(String prompt) {
+    if (prompt == null) {
+      return "";
+    }
+    StringBuilder sb = new StringBuilder(prompt.length());
+    boolean pendingSpace = false;
+    for (int i = 0; i < prompt.length(); i++) {
+      char c = prompt.charAt(i);
+      if (Character.isWhitespace(c)) {
+        pendingSpace = sb.length() > 0;
+        continue;
+      }
+      if (pendingSpace) {
+        sb.append(' ');
+        pendingSpace = false;
+      }
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+
+  /** 중첩 map은 키 정렬, 숫자는 값 기준(1 == 1.0)으로 직렬화한다. */
+  private static void appendCanonical(StringBuilder sb, Object value) {
+    if (value instanceof Map<?, ?> map) {
+      TreeMap<String, Object> sorted = new TreeMap<>();
+      map.forEach((k, v) -> sorted.put(String.valueOf(k), v));
+      sb.append('{');
+      sorted.forEach((k, v) -> {
+        sb.append(k).append('=');
+        appendCanonical(sb, v);
+        sb.append(';');
+      });
+      sb.append('}');
+    } else if (value instanceof Collection<?> list) {
+      sb.append('[');
+      for (Object v : list) {
+        appendCanonical(sb, v);
+        sb.append(',');
+      }
+      sb.append(']');
+    } else if (value instanceof Number n) {
+      sb.append('#').append(new BigDecimal(n.toString()).stripTrailingZeros().toPlainString());
+    } else if (value instanceof Boolean b) {
+      sb.append('!').append(b);
+    } else if (value == null) {
+      sb.append("null");
+    } else {
+      sb.append('"').append(value).append('"');
+    }
+  }
+
+  private static String sha256(String s) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(s.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
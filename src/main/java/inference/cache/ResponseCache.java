@@ -0,0 +1,141 @@
+package inference.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 완전 일치 응답 캐시 (key = {@link RequestFingerprint}, value = output).
+ *
+ * <p>
+ * - 엔트리 수/추정 바이트 상한을 넘으면 가장 오래 안 쓰인 엔트리부터 축출한다(LRU).
+ * - TTL은 put 시점 기준. 만료된 엔트리는 get에서 보이지 않고 그 자리에서 제거된다.
+ * - 값이 작은 문자열이고 임계 구역이 짧아서 lock 하나로 충분하다.
+ * - maxEntries가 0이면 꺼진 캐시: get은 항상 miss, put은 무시(메트릭도 남기지 않음).
+ * </p>
+ */
+public class ResponseCache {
+
+  /** 엔트리/노드/문자열 헤더를 대략 반영한 엔트리당 고정 비용. */
+  private static final int BASE_ENTRY_BYTES = 128;
+
+  private final Clock clock;
+  private final int maxEntries;
+  private final long maxBytes;
+  private final long ttlMs;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long totalBytes;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictionsSize;
+  private final Counter evictionsExpired;
+
+  public ResponseCache(Clock clock, MeterRegistry registry, int maxEntries, long maxBytes, long ttlMs) {
+    this.clock = clock;
+    this.maxEntries = Math.max(0, maxEntries);
+    this.maxBytes = maxBytes > 0 ? maxBytes : Long.MAX_VALUE;
+    this.ttlMs = ttlMs;
+    this.hits = Counter.builder("inference.cache.requests").tag("result", "hit").register(registry);
+    this.misses = Counter.builder("inference.cache.requests").tag("result", "miss").register(registry);
+    this.evictionsSize = Counter.builder("inference.cache.evictions").tag("reason", "size").register(registry);
+    this.evictionsExpired = Counter.builder("inference.cache.evictions").tag("reason", "expired").register(registry);
+    Gauge.builder("inference.cache.entries", this, ResponseCache::size).register(registry);
+    Gauge.builder("inference.cache.bytes", this, ResponseCache::estimatedBytes).register(registry);
+  }
+
+  public boolean isEnabled() {
+    return maxEntries > 0;
+  }
+
+  public Optional<String> get(String key) {
+    if (!isEnabled()) {
+      return Optional.empty();
+    }
+    long now = clock.millis();
+    lock.lock();
+    try {
+      Entry e = entries.get(key);
+      if (e == null) {
+        misses.increment();
+        return Optional.empty();
+      }
+      if (e.expiresAtMs <= now) {
+        removeEntry(key, e);
+        evictionsExpired.increment();
+        misses.increment();
+        return Optional.empty();
+      }
+      hits.increment();
+      return Optional.of(e.output);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void put(String key, String output) {
+    if (!isEnabled() || output == null) {
+      return;
+    }
+    int bytes = BASE_ENTRY_BYTES + 2 * (key.length() + output.length());
+    if (bytes > maxBytes) {
+      return;
+    }
+    Entry entry = new Entry(output, clock.millis() + ttlMs, bytes);
+    lock.lock();
+    try {
+      Entry previous = entries.put(key, entry);
+      if (previous != null) {
+        totalBytes -= previous.bytes;
+      }
+      totalBytes += bytes;
+      evictOverflow();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long estimatedBytes() {
+    lock.lock();
+    try {
+      return totalBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** lock을 잡은 상태에서 호출한다. access order이므로 iterator head가 LRU. */
+  private void evictOverflow() {
+    Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+    while ((entries.size() > maxEntries || totalBytes > maxBytes) && it.hasNext()) {
+      Entry e = it.next().getValue();
+      it.remove();
+      totalBytes -= e.bytes;
+      evictionsSize.increment();
+    }
+  }
+
+  private void removeEntry(String key, Entry e) {
+    entries.remove(key);
+    totalBytes -= e.bytes;
+  }
+
+  private record Entry(String output, long expiresAtMs, int bytes) {}
+}
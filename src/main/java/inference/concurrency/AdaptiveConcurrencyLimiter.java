@@ -0,0 +1,138 @@
+package inference.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 관측한 실행 시간/timeout으로 limit을 조정하는 limiter ({@code limiter.type=aimd|gradient}).
+ *
+ * <p>
+ * - permit 대기는 fair lock + condition으로 FIFO에 가깝게 처리한다.
+ * - limit이 줄어들어도 이미 실행 중인 작업은 끝까지 두고, 새 획득만 막는다.
+ * - limit 증감은 {@code inference.limiter.limit_changes{direction}}로 export 된다.
+ * </p>
+ */
+public class AdaptiveConcurrencyLimiter implements ConcurrencyLimiter {
+
+  private final LimitAlgorithm algorithm;
+  private final int minLimit;
+  private final int maxLimit;
+  private final ReentrantLock lock = new ReentrantLock(true);
+  private final Condition permitAvailable = lock.newCondition();
+  private final Counter limitIncreases;
+  private final Counter limitDecreases;
+
+  private volatile int limit;
+  private volatile int inFlight;
+
+  public AdaptiveConcurrencyLimiter(
+      LimitAlgorithm algorithm,
+      int initialLimit,
+      int minLimit,
+      int maxLimit,
+      MeterRegistry registry
+  ) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException("require 1 <= minLimit <= maxLimit");
+    }
+    this.algorithm = algorithm;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = clamp(initialLimit);
+    this.limitIncreases = Counter.builder("inference.limiter.limit_changes")
+        .tag("direction", "up")
+        .register(registry);
+    this.limitDecreases = Counter.builder("inference.limiter.limit_changes")
+        .tag("direction", "down")
+        .register(registry);
+  }
+
+  @Override
+  public Permit tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+    long remaining = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (inFlight >= limit) {
+        if (remaining <= 0) {
+          return null;
+        }
+        remaining = permitAvailable.awaitNanos(remaining);
+      }
+      inFlight++;
+    } finally {
+      lock.unlock();
+    }
+    return new AdaptivePermit(System.nanoTime());
+  }
+
+  @Override
+  public int getLimit() {
+    return limit;
+  }
+
+  @Override
+  public int getInFlight() {
+    return inFlight;
+  }
+
+  private void onSample(long rttNanos, boolean dropped, boolean measured) {
+    lock.lock();
+    try {
+      int observedInFlight = inFlight;
+      inFlight--;
+      if (measured) {
+        int previous = limit;
+        int next = clamp(algorithm.update(previous, rttNanos, observedInFlight, dropped));
+        if (next != previous) {
+          limit = next;
+          (next > previous ? limitIncreases : limitDecreases).increment();
+        }
+      }
+      if (inFlight < limit) {
+        permitAvailable.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int clamp(int value) {
+    return Math.max(minLimit, Math.min(maxLimit, value));
+  }
+
+  private final class AdaptivePermit implements Permit {
+    private final long acquiredAtNanos;
+    private boolean done;
+
+    private AdaptivePermit(long acquiredAtNanos) {
+      this.acquiredAtNanos = acquiredAtNanos;
+    }
+
+    @Override
+    public void success() {
+      finish(false, true);
+    }
+
+    @Override
+    public void dropped() {
+      finish(true, true);
+    }
+
+    @Override
+    public void release() {
+      finish(false, false);
+    }
+
+    private void finish(boolean dropped, boolean measured) {
+      // permit은 획득한 작업 스레드 하나만 다룬다
+      if (done) {
+        return;
+      }
+      done = true;
+      onSample(System.nanoTime() - acquiredAtNanos, dropped, measured);
+    }
+  }
+}
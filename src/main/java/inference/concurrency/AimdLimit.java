@@ -0,0 +1,37 @@
+package inference.concurrency;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AIMD(additive increase / multiplicative decrease).
+ *
+ * <p>
+ * - timeout이거나 실행 시간이 {@code latencyThresholdMs}를 넘으면: limit * backoffRatio
+ * - 그 외 성공이면서 limit의 절반 이상을 쓰고 있으면: limit + 1
+ *   (여유가 많은데 limit만 계속 올라가는 것을 막는다)
+ * </p>
+ */
+public class AimdLimit implements LimitAlgorithm {
+
+  private final double backoffRatio;
+  private final long latencyThresholdNanos;
+
+  public AimdLimit(double backoffRatio, long latencyThresholdMs) {
+    if (backoffRatio <= 0 || backoffRatio >= 1) {
+      throw new IllegalArgumentException("backoffRatio must be in (0, 1)");
+    }
+    this.backoffRatio = backoffRatio;
+    this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+  }
+
+  @Override
+  public int update(int currentLimit, long rttNanos, int inFlight, boolean dropped) {
+    if (dropped || rttNanos > latencyThresholdNanos) {
+      return (int) Math.floor(currentLimit * backoffRatio);
+    }
+    if (inFlight * 2 >= currentLimit) {
+      return currentLimit + 1;
+    }
+    return currentLimit;
+  }
+}
@@ -0,0 +1,36 @@
+package inference.concurrency;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시 실행 permit을 관리하는 limiter. 기존 {@code Semaphore.tryAcquire(acquireTimeoutMs)} 자리에 그대로 쓴다.
+ *
+ * <p>
+ * 획득한 {@link Permit}은 결과에 따라 정확히 한 번 {@link Permit#success()} / {@link Permit#dropped()} /
+ * {@link Permit#release()} 중 하나로 반납한다. adaptive 구현은 이 신호(실행 시간, timeout 여부)로 limit을 조정한다.
+ * </p>
+ */
+public interface ConcurrencyLimiter {
+
+  /**
+   * @return 획득하면 permit, timeout 안에 못 얻으면 {@code null}
+   */
+  Permit tryAcquire(long timeout, TimeUnit unit) throws InterruptedException;
+
+  /** 현재 동시 실행 상한 */
+  int getLimit();
+
+  /** 현재 실행 중(permit 보유) 수 */
+  int getInFlight();
+
+  interface Permit {
+    /** 정상 완료: 획득 시점부터의 실행 시간을 latency 샘플로 반영하고 반납한다. */
+    void success();
+
+    /** timeout 등 과부하 신호: limit을 줄이는 방향으로 반영하고 반납한다. */
+    void dropped();
+
+    /** 샘플 없이 반납한다. success/dropped 이후 호출되면 아무 것도 하지 않는다. */
+    void release();
+  }
+}
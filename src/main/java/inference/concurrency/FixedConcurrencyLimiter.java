@@ -0,0 +1,57 @@
+package inference.concurrency;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 고정 permit 수의 limiter ({@code inference.concurrency.limiter.type=fixed}, 기본).
+ * fair Semaphore 기반이라 기존 동작과 같다.
+ */
+public class FixedConcurrencyLimiter implements ConcurrencyLimiter {
+
+  private final int limit;
+  private final Semaphore semaphore;
+
+  public FixedConcurrencyLimiter(int limit) {
+    this.limit = limit;
+    // fair=true: 대기열 기반으로 공정하게 permit 분배 (폭주 시 starvation 완화)
+    this.semaphore = new Semaphore(limit, true);
+  }
+
+  @Override
+  public Permit tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+    if (!semaphore.tryAcquire(timeout, unit)) {
+      return null;
+    }
+    AtomicBoolean released = new AtomicBoolean();
+    return new Permit() {
+      @Override
+      public void success() {
+        release();
+      }
+
+      @Override
+      public void dropped() {
+        release();
+      }
+
+      @Override
+      public void release() {
+        if (released.compareAndSet(false, true)) {
+          semaphore.release();
+        }
+      }
+    };
+  }
+
+  @Override
+  public int getLimit() {
+    return limit;
+  }
+
+  @Override
+  public int getInFlight() {
+    return Math.max(0, limit - semaphore.availablePermits());
+  }
+}
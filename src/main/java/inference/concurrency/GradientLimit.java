@@ -0,0 +1,57 @@
+package inference.concurrency;
+
+/**
+ * 지연 기울기 기반(Vegas/Gradient 계열) limit.
+ *
+ * <p>
+ * - 장기 평균 실행 시간(longRtt, 느린 EMA)을 "부하 없는 기준선"으로, 최근 실행 시간(shortRtt, 빠른 EMA)과 비교한다.
+ * - gradient = clamp(longRtt / shortRtt, 0.5, 1.0): 최근 지연이 기준선보다 커질수록(큐잉 발생) limit을 줄인다.
+ * - 새 limit = limit * gradient + sqrt(limit) (큐잉 여유분), 급변을 막기 위해 smoothing으로 섞는다.
+ * - timeout은 gradient 0.5로 취급한다.
+ * - limit의 절반도 쓰지 않고 있으면 늘리지 않는다(줄이는 것은 그대로): {@link AimdLimit}와 같은 이유로,
+ *   한가할 때 sqrt(limit)만큼씩 maxLimit까지 올라가 버려 다음 burst에 반응하지 못하는 것을 막는다.
+ * </p>
+ */
+public class GradientLimit implements LimitAlgorithm {
+
+  private static final double LONG_WINDOW_ALPHA = 2.0 / (600 + 1);
+  private static final double SHORT_WINDOW_ALPHA = 2.0 / (10 + 1);
+
+  private final double smoothing;
+  private double longRttNanos = -1;
+  private double shortRttNanos = -1;
+
+  public GradientLimit(double smoothing) {
+    if (smoothing <= 0 || smoothing > 1) {
+      throw new IllegalArgumentException("smoothing must be in (0, 1]");
+    }
+    this.smoothing = smoothing;
+  }
+
+  @Override
+  public int update(int currentLimit, long rttNanos, int inFlight, boolean dropped) {
+    double gradient;
+    if (dropped) {
+      gradient = 0.5;
+    } else {
+      if (longRttNanos < 0) {
+        longRttNanos = rttNanos;
+        shortRttNanos = rttNanos;
+      } else {
+        longRttNanos += LONG_WINDOW_ALPHA * (rttNanos - longRttNanos);
+        shortRttNanos += SHORT_WINDOW_ALPHA * (rttNanos - shortRttNanos);
+      }
+      // 앱이 idle하면 longRtt가 과도하게 커지지 않도록 기준선을 최근 값 쪽으로 당긴다
+      if (longRttNanos / shortRttNanos > 2) {
+        longRttNanos = shortRttNanos * 2;
+      }
+      gradient = Math.max(0.5, Math.min(1.0, longRttNanos / shortRttNanos));
+    }
+    double target = currentLimit * gradient + Math.sqrt(currentLimit);
+    int next = (int) Math.round(currentLimit * (1 - smoothing) + target * smoothing);
+    if (inFlight * 2 < currentLimit) {
+      return Math.min(currentLimit, next);
+    }
+    return next;
+  }
+}
@@ -0,0 +1,251 @@
+package inference.concurrency;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * 작업별 timeout을 한 스레드로 처리하는 hashed wheel timer (Varghese &amp; Lauck).
+ *
+ * <p>
+ * - 등록/취소는 O(1): 호출 스레드는 lock-free 큐에 넣기만 하고, bucket 연결 리스트는 timer 스레드만 만진다.
+ * - tick마다 bucket 하나만 본다. 만료 시각이 wheel 한 바퀴보다 멀면 remainingRounds로 바퀴 수를 센다.
+ * - 정밀도: 만료 시각보다 일찍 실행되지 않고, 늦어도 대략 tickMs 안에 실행된다.
+ * - task는 timer 스레드에서 바로 실행되므로 짧아야 한다(예: 워커 interrupt). 무거운 일은 다른 executor로 넘긴다.
+ * - ScheduledThreadPoolExecutor(힙, O(log n))와 달리 수만 개의 대기 timeout에서도 등록/취소 비용이 일정하다.
+ * </p>
+ */
+public class HashedWheelTimer implements DisposableBean {
+  private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+  private static final int INIT = 0;
+  private static final int CANCELLED = 1;
+  private static final int EXPIRED = 2;
+
+  private final long tickNanos;
+  private final Bucket[] wheel;
+  private final int mask;
+  private final ConcurrentLinkedQueue<Timeout> pendingAdds = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<Timeout> pendingCancels = new ConcurrentLinkedQueue<>();
+  private final AtomicLong pending = new AtomicLong();
+  private final Thread worker;
+  private final long startNanos;
+  private volatile boolean stopped;
+
+  public HashedWheelTimer(String threadName, long tickMs, int wheelSize) {
+    if (tickMs <= 0) {
+      throw new IllegalArgumentException("tickMs must be positive");
+    }
+    if (wheelSize <= 0) {
+      throw new IllegalArgumentException("wheelSize must be positive");
+    }
+    this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+    int size = Integer.highestOneBit(wheelSize - 1) << 1;
+    size = Math.max(1, size);
+    this.wheel = new Bucket[size];
+    for (int i = 0; i < size; i++) {
+      wheel[i] = new Bucket();
+    }
+    this.mask = size - 1;
+    this.startNanos = System.nanoTime();
+    this.worker = new Thread(this::run, threadName);
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * delay 뒤에 task를 timer 스레드에서 실행한다.
+   *
+   * @throws IllegalStateException timer가 멈췄을 때
+   */
+  public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+    if (stopped) {
+      throw new IllegalStateException("timer stopped");
+    }
+    long deadline = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+    Timeout timeout = new Timeout(this, task, deadline);
+    pending.incrementAndGet();
+    pendingAdds.add(timeout);
+    return timeout;
+  }
+
+  /** 아직 실행/취소되지 않은 timeout 수 */
+  public long pendingTimeouts() {
+    return pending.get();
+  }
+
+  @Override
+  public void destroy() {
+    stopped = true;
+    worker.interrupt();
+    try {
+      worker.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run() {
+    long tick = 0;
+    while (!stopped) {
+      if (!waitForNextTick(tick)) {
+        continue;
+      }
+      processCancels();
+      transferAdds(tick);
+      wheel[(int) (tick & mask)].expireAll();
+      tick++;
+    }
+  }
+
+  /** tick 구간이 끝날 때까지 기다린다. 뒤처져 있으면 바로 돌아온다. @return 멈추는 중이면 false */
+  private boolean waitForNextTick(long tick) {
+    long target = tickNanos * (tick + 1);
+    while (true) {
+      long sleepNanos = target - (System.nanoTime() - startNanos);
+      if (sleepNanos <= 0) {
+        return true;
+      }
+      if (stopped) {
+        return false;
+      }
+      LockSupport.parkNanos(this, sleepNanos);
+    }
+  }
+
+  private void transferAdds(long tick) {
+    // 한 tick에 너무 오래 붙잡히지 않도록 상한을 둔다 (나머지는 다음 tick)
+    for (int i = 0; i < 100_000; i++) {
+      Timeout timeout = pendingAdds.poll();
+      if (timeout == null) {
+        return;
+      }
+      if (timeout.state.get() == CANCELLED) {
+        continue;
+      }
+      long calculated = timeout.deadline / tickNanos;
+      timeout.remainingRounds = (calculated - tick) / wheel.length;
+      // 이미 지난 만료 시각은 지금 bucket에 넣어 이번 tick에 실행한다
+      long ticks = Math.max(calculated, tick);
+      wheel[(int) (ticks & mask)].add(timeout);
+    }
+  }
+
+  private void processCancels() {
+    Timeout timeout;
+    while ((timeout = pendingCancels.poll()) != null) {
+      if (timeout.bucket != null) {
+        timeout.bucket.remove(timeout);
+      }
+    }
+  }
+
+  /** 등록된 timeout 한 건. {@link #cancel()}은 어느 스레드에서나 O(1)이다. */
+  public static final class Timeout {
+    private final HashedWheelTimer timer;
+    private final Runnable task;
+    private final long deadline;
+    private final AtomicInteger state = new AtomicInteger(INIT);
+    // 아래는 timer 스레드만 읽고 쓴다
+    private long remainingRounds;
+    private Bucket bucket;
+    private Timeout prev;
+    private Timeout next;
+
+    private Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+      this.timer = timer;
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /** @return 실행 전에 취소했으면 true, 이미 실행됐거나 취소됐으면 false */
+    public boolean cancel() {
+      if (!state.compareAndSet(INIT, CANCELLED)) {
+        return false;
+      }
+      timer.pending.decrementAndGet();
+      timer.pendingCancels.add(this);
+      return true;
+    }
+
+    public boolean isExpired() {
+      return state.get() == EXPIRED;
+    }
+
+    public boolean isCancelled() {
+      return state.get() == CANCELLED;
+    }
+
+    private void expire() {
+      if (!state.compareAndSet(INIT, EXPIRED)) {
+        return;
+      }
+      timer.pending.decrementAndGet();
+      try {
+        task.run();
+      } catch (Throwable t) {
+        log.warn("event=timer.task_failed exceptionType={}", t.getClass().getName(), t);
+      }
+    }
+  }
+
+  /** 이중 연결 리스트: O(1) 추가/삭제. timer 스레드 전용 */
+  private static final class Bucket {
+    private Timeout head;
+    private Timeout tail;
+
+    void add(Timeout timeout) {
+      timeout.bucket = this;
+      if (head == null) {
+        head = tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.prev = tail;
+        tail = timeout;
+      }
+    }
+
+    void expireAll() {
+      Timeout timeout = head;
+      while (timeout != null) {
+        Timeout next = timeout.next;
+        if (timeout.remainingRounds <= 0) {
+          // bucket = floor(deadline / tick)이고 tick은 그 구간이 끝난 뒤에 돌므로 deadline은 이미 지났다
+          remove(timeout);
+          timeout.expire();
+        } else if (timeout.isCancelled()) {
+          remove(timeout);
+        } else {
+          timeout.remainingRounds--;
+        }
+        timeout = next;
+      }
+    }
+
+    void remove(Timeout timeout) {
+      if (timeout.bucket != this) {
+        return;
+      }
+      if (timeout.prev != null) {
+        timeout.prev.next = timeout.next;
+      }
+      if (timeout.next != null) {
+        timeout.next.prev = timeout.prev;
+      }
+      if (timeout == head) {
+        head = timeout.next;
+      }
+      if (timeout == tail) {
+        tail = timeout.prev;
+      }
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.bucket = null;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package inference.concurrency;
+
+import java.util.function.IntSupplier;
+
+/**
+ * 실행 계층의 현재 부하 (큐 대기 + 실행 중)를 한 곳에서 읽는다. gauge/readiness/HPA 지표가 같은 정의를 쓰게 한다.
+ *
+ * <p>
+ * - saturation = (queueDepth + inFlight) / (queueCapacity + limit). 1.0이면 큐와 permit이 모두 찬 상태다.
+ * - limit은 adaptive limiter면 계속 바뀌므로 매번 limiter에서 읽는다.
+ * - queueDepth 정의는 실행 모드별로 다르다: platform은 워커 큐 길이, virtual은 permit을 기다리는 작업 수.
+ * </p>
+ */
+public class InferenceLoad {
+
+  private final IntSupplier queueDepth;
+  private final IntSupplier activeWorkers;
+  private final ConcurrencyLimiter limiter;
+  private final int queueCapacity;
+
+  public InferenceLoad(IntSupplier queueDepth, IntSupplier activeWorkers, ConcurrencyLimiter limiter, int queueCapacity) {
+    this.queueDepth = queueDepth;
+    this.activeWorkers = activeWorkers;
+    this.limiter = limiter;
+    this.queueCapacity = Math.max(0, queueCapacity);
+  }
+
+  public int queueDepth() {
+    return Math.max(0, queueDepth.getAsInt());
+  }
+
+  public int activeWorkers() {
+    return Math.max(0, activeWorkers.getAsInt());
+  }
+
+  public int inFlight() {
+    return limiter.getInFlight();
+  }
+
+  /** 현재 동시 실행 상한 (adaptive limiter면 계속 바뀐다) */
+  public int limit() {
+    return limiter.getLimit();
+  }
+
+  public int capacity() {
+    return queueCapacity + limit();
+  }
+
+  public double saturation() {
+    int capacity = capacity();
+    return capacity <= 0 ? 0.0 : (double) (queueDepth() + inFlight()) / capacity;
+  }
+}
@@ -0,0 +1,17 @@
+package inference.concurrency;
+
+/**
+ * 관측값(실행 시간, timeout 여부, 실행 중 수)으로 새 limit을 계산한다.
+ * {@link AdaptiveConcurrencyLimiter}의 lock 안에서 호출되므로 구현은 thread-safe일 필요가 없다.
+ */
+public interface LimitAlgorithm {
+
+  /**
+   * @param currentLimit 현재 limit
+   * @param rttNanos     실행 시간 (dropped이면 참고값)
+   * @param inFlight     샘플 반납 직전의 실행 중 수
+   * @param dropped      timeout 등 과부하 신호
+   * @return 새 limit ([minLimit, maxLimit] 범위 보정은 limiter가 한다)
+   */
+  int update(int currentLimit, long rttNanos, int inFlight, boolean dropped);
+}
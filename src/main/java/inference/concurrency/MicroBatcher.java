@@ -0,0 +1,110 @@
+package inference.concurrency;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 key(모델)로 들어온 작업을 최대 {@code maxBatchSize}개 또는 최대 {@code maxWaitMs}까지 모으는 dynamic micro-batcher.
+ *
+ * <p>
+ * - 배치를 연 첫 작업(leader)의 스레드가 배치가 찰 때까지(또는 maxWait까지) 기다렸다가 배치 전체를 반환받아 실행한다.
+ * - 나머지 작업(follower)은 배치에 합류만 하고 즉시 반환({@code null})해서 워커를 바로 돌려준다.
+ * - 배치 크기/대기 시간은 histogram으로 export 된다.
+ * </p>
+ */
+public class MicroBatcher<T> {
+
+  private final int maxBatchSize;
+  private final long maxWaitNanos;
+  private final ConcurrentHashMap<String, Batch<T>> open = new ConcurrentHashMap<>();
+  private final DistributionSummary batchSize;
+  private final Timer batchWait;
+
+  public MicroBatcher(int maxBatchSize, long maxWaitMs, MeterRegistry registry) {
+    if (maxBatchSize <= 0) {
+      throw new IllegalArgumentException("maxBatchSize must be positive");
+    }
+    this.maxBatchSize = maxBatchSize;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMs));
+    this.batchSize = DistributionSummary.builder("inference.batch.size")
+        .description("Number of requests executed as one batch")
+        .publishPercentileHistogram()
+        .register(registry);
+    this.batchWait = Timer.builder("inference.batch.wait")
+        .description("Time a batch stayed open collecting requests")
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  /**
+   * 배치에 합류한다.
+   *
+   * @return 호출자가 leader이면 닫힌 배치(실행 책임은 호출자), follower이면 {@code null}
+   */
+  public List<T> join(String key, T item) {
+    while (true) {
+      Batch<T> batch = open.computeIfAbsent(key, k -> new Batch<>(System.nanoTime()));
+      boolean leader;
+      synchronized (batch) {
+        if (batch.closed) {
+          // 닫히는 순간과 경합: 새 배치로 다시 시도
+          continue;
+        }
+        batch.items.add(item);
+        leader = batch.items.size() == 1;
+        if (batch.items.size() >= maxBatchSize) {
+          close(key, batch);
+        }
+      }
+      if (!leader) {
+        return null;
+      }
+      return awaitClose(key, batch);
+    }
+  }
+
+  private List<T> awaitClose(String key, Batch<T> batch) {
+    synchronized (batch) {
+      long deadline = batch.openedAtNanos + maxWaitNanos;
+      try {
+        while (!batch.closed) {
+          long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            close(key, batch);
+            break;
+          }
+          TimeUnit.NANOSECONDS.timedWait(batch, remaining);
+        }
+      } catch (InterruptedException ie) {
+        // follower들이 이미 합류했으므로 배치는 닫아서 반환하고, 인터럽트는 실행 단계에서 처리되게 한다
+        Thread.currentThread().interrupt();
+        close(key, batch);
+      }
+      batchSize.record(batch.items.size());
+      batchWait.record(System.nanoTime() - batch.openedAtNanos, TimeUnit.NANOSECONDS);
+      return List.copyOf(batch.items);
+    }
+  }
+
+  /** batch 모니터를 잡은 상태에서 호출한다. */
+  private void close(String key, Batch<T> batch) {
+    batch.closed = true;
+    open.remove(key, batch);
+    batch.notifyAll();
+  }
+
+  private static final class Batch<T> {
+    private final long openedAtNanos;
+    private final List<T> items = new ArrayList<>();
+    private boolean closed;
+
+    private Batch(long openedAtNanos) {
+      this.openedAtNanos = openedAtNanos;
+    }
+  }
+}
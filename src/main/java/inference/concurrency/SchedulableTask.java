@@ -0,0 +1,77 @@
+package inference.concurrency;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 스케줄링 속성(tenant, priority, deadline)을 가진 executor 작업.
+ *
+ * <p>
+ * {@link TenantFairQueue}는 이 속성으로 순서를 정한다. TaskDecorator가 작업을 감싸도 속성이 유지되도록
+ * 데코레이터는 {@link #withBody(Runnable)}로 본문만 교체해야 한다.
+ * {@link #key()}는 큐에 들어간(감싸진) 작업을 나중에 찾아 빼낼 때(취소) 쓴다.
+ * </p>
+ */
+public final class SchedulableTask implements Runnable {
+  private static final AtomicLong SEQUENCE = new AtomicLong();
+
+  private final String tenant;
+  private final int priority;
+  private final long deadlineEpochMs;
+  private final long sequence;
+  private final String key;
+  private final Runnable body;
+
+  public SchedulableTask(String tenant, int priority, Runnable body) {
+    this(tenant, priority, Long.MAX_VALUE, body);
+  }
+
+  public SchedulableTask(String tenant, int priority, long deadlineEpochMs, Runnable body) {
+    this(tenant, priority, deadlineEpochMs, null, body);
+  }
+
+  public SchedulableTask(String tenant, int priority, long deadlineEpochMs, String key, Runnable body) {
+    this(tenant, priority, deadlineEpochMs, SEQUENCE.incrementAndGet(), key, body);
+  }
+
+  private SchedulableTask(String tenant, int priority, long deadlineEpochMs, long sequence, String key, Runnable body) {
+    this.tenant = tenant;
+    this.priority = priority;
+    this.deadlineEpochMs = deadlineEpochMs;
+    this.sequence = sequence;
+    this.key = key;
+    this.body = body;
+  }
+
+  public SchedulableTask withBody(Runnable newBody) {
+    return new SchedulableTask(tenant, priority, deadlineEpochMs, sequence, key, newBody);
+  }
+
+  public String tenant() {
+    return tenant;
+  }
+
+  /** 클수록 같은 tenant 안에서 먼저 나간다. */
+  public int priority() {
+    return priority;
+  }
+
+  /** end-to-end deadline (epoch ms). 없으면 Long.MAX_VALUE. 같은 priority 안에서 빠른 것이 먼저 나간다 (EDF). */
+  public long deadlineEpochMs() {
+    return deadlineEpochMs;
+  }
+
+  /** 제출 순서 (같은 priority, 같은 deadline 안에서 FIFO) */
+  public long sequence() {
+    return sequence;
+  }
+
+  /** 작업 식별자 (예: requestId). 없으면 null */
+  public String key() {
+    return key;
+  }
+
+  @Override
+  public void run() {
+    body.run();
+  }
+}
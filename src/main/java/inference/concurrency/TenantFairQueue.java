@@ -0,0 +1,321 @@
+package inference.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * tenant별 가중치 공정 큐 (Deficit Round Robin). ThreadPoolExecutor의 work queue로 쓴다.
+ *
+ * <p>
+ * - tenant마다 별도 큐를 두고, 라운드마다 weight만큼 credit을 줘서 credit만큼 꺼낸다.
+ *   한 tenant가 폭주해도 다른 tenant의 몫은 weight 비율로 보장된다.
+ * - tenant 안에서는 priority가 높은 작업이 먼저, 같은 priority면 deadline이 빠른 작업이 먼저(EDF), 그 다음 FIFO.
+ * - {@link #edf}로 만들면 tenant 구분 없이 큐 하나로 동작한다(순수 EDF 큐).
+ * - 전체 용량과 tenant별 용량을 넘으면 {@link #offer}가 즉시 false → executor가 거절(queue_full).
+ * - tenant 수는 {@code maxTenants}로 제한하고, 넘치는 tenant는 기본 tenant 큐를 함께 쓴다(메모리/메트릭 cardinality 보호).
+ * </p>
+ */
+public class TenantFairQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+  public static final String DEFAULT_TENANT = "default";
+
+  private static final Comparator<SchedulableTask> PRIORITY_THEN_EDF =
+      Comparator.comparingInt(SchedulableTask::priority).reversed()
+          .thenComparingLong(SchedulableTask::deadlineEpochMs)
+          .thenComparingLong(SchedulableTask::sequence);
+
+  private final int capacity;
+  private final int tenantCapacity;
+  private final int maxTenants;
+  private final boolean tenantAware;
+  private final Map<String, Integer> weights;
+  private final MeterRegistry registry;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Map<String, TenantQueue> tenants = new HashMap<>();
+  /** 대기 작업이 있는 tenant들의 라운드 로빈 순서 */
+  private final ArrayDeque<TenantQueue> active = new ArrayDeque<>();
+  private int count;
+
+  public TenantFairQueue(
+      int capacity,
+      int tenantCapacity,
+      int maxTenants,
+      Map<String, Integer> weights,
+      MeterRegistry registry
+  ) {
+    this(capacity, tenantCapacity, maxTenants, true, weights, registry);
+  }
+
+  private TenantFairQueue(
+      int capacity,
+      int tenantCapacity,
+      int maxTenants,
+      boolean tenantAware,
+      Map<String, Integer> weights,
+      MeterRegistry registry
+  ) {
+    this.capacity = capacity;
+    this.tenantCapacity = tenantCapacity > 0 ? tenantCapacity : capacity;
+    this.maxTenants = Math.max(1, maxTenants);
+    this.tenantAware = tenantAware;
+    this.weights = Map.copyOf(weights);
+    this.registry = registry;
+  }
+
+  /** tenant를 무시하고 priority → deadline → 제출 순서로만 꺼내는 단일 큐. */
+  public static TenantFairQueue edf(int capacity, MeterRegistry registry) {
+    return new TenantFairQueue(capacity, 0, 1, false, Map.of(), registry);
+  }
+
+  @Override
+  public boolean offer(Runnable r) {
+    SchedulableTask task = asTask(r);
+    lock.lock();
+    try {
+      TenantQueue tq = tenantFor(task.tenant());
+      if (count >= capacity || tq.items.size() >= tenantCapacity) {
+        tq.rejected.increment();
+        return false;
+      }
+      if (tq.items.isEmpty()) {
+        active.addLast(tq);
+      }
+      tq.items.add(task);
+      count++;
+      notEmpty.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable poll() {
+    lock.lock();
+    try {
+      return dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (count == 0) {
+        notEmpty.await();
+      }
+      return dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (count == 0) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      return dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** lock을 잡은 상태에서 호출한다. DRR: credit이 부족한 tenant는 weight만큼 충전하고 뒤로 보낸다. */
+  private Runnable dequeue() {
+    while (!active.isEmpty()) {
+      TenantQueue tq = active.peekFirst();
+      if (tq.deficit < 1) {
+        tq.deficit += tq.weight;
+        active.addLast(active.pollFirst());
+        continue;
+      }
+      SchedulableTask task = tq.items.poll();
+      tq.deficit -= 1;
+      count--;
+      if (tq.items.isEmpty()) {
+        tq.deficit = 0;
+        active.pollFirst();
+      }
+      return task;
+    }
+    return null;
+  }
+
+  @Override
+  public Runnable peek() {
+    lock.lock();
+    try {
+      TenantQueue tq = active.peekFirst();
+      return tq == null ? null : tq.items.peek();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    if (!(o instanceof SchedulableTask task)) {
+      return false;
+    }
+    lock.lock();
+    try {
+      TenantQueue tq = tenants.get(task.tenant());
+      if (tq == null || !tq.items.remove(task)) {
+        tq = tenants.get(DEFAULT_TENANT);
+        if (tq == null || !tq.items.remove(task)) {
+          return false;
+        }
+      }
+      count--;
+      if (tq.items.isEmpty()) {
+        tq.deficit = 0;
+        active.remove(tq);
+      }
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void put(Runnable r) throws InterruptedException {
+    // executor는 offer만 쓴다. 블로킹 put은 거절 의미를 흐리므로 지원하지 않는다.
+    if (!offer(r)) {
+      throw new IllegalStateException("queue full");
+    }
+  }
+
+  @Override
+  public boolean offer(Runnable r, long timeout, TimeUnit unit) {
+    return offer(r);
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int remainingCapacity() {
+    lock.lock();
+    try {
+      return capacity - count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int drainTo(Collection<? super Runnable> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(Collection<? super Runnable> c, int maxElements) {
+    lock.lock();
+    try {
+      int n = 0;
+      Runnable r;
+      while (n < maxElements && (r = dequeue()) != null) {
+        c.add(r);
+        n++;
+      }
+      return n;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** 스냅샷 iterator (remove 미지원). */
+  @Override
+  public Iterator<Runnable> iterator() {
+    lock.lock();
+    try {
+      List<Runnable> snapshot = new ArrayList<>(count);
+      for (TenantQueue tq : active) {
+        snapshot.addAll(tq.items);
+      }
+      return Collections.unmodifiableList(snapshot).iterator();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** tenant별 현재 대기 수 */
+  public int depth(String tenant) {
+    lock.lock();
+    try {
+      TenantQueue tq = tenants.get(tenant);
+      return tq == null ? 0 : tq.items.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private TenantQueue tenantFor(String tenant) {
+    String key = !tenantAware || tenant == null || tenant.isBlank() ? DEFAULT_TENANT : tenant;
+    TenantQueue tq = tenants.get(key);
+    if (tq != null) {
+      return tq;
+    }
+    if (tenants.size() >= maxTenants && !key.equals(DEFAULT_TENANT)) {
+      return tenantFor(DEFAULT_TENANT);
+    }
+    tq = new TenantQueue(key, Math.max(1, weights.getOrDefault(key, 1)));
+    tenants.put(key, tq);
+    return tq;
+  }
+
+  private static SchedulableTask asTask(Runnable r) {
+    return r instanceof SchedulableTask t ? t : new SchedulableTask(DEFAULT_TENANT, 0, r);
+  }
+
+  private final class TenantQueue {
+    private final PriorityQueue<SchedulableTask> items = new PriorityQueue<>(PRIORITY_THEN_EDF);
+    private final int weight;
+    private final Counter rejected;
+    private int deficit;
+
+    private TenantQueue(String tenant, int weight) {
+      this.weight = weight;
+      this.rejected = Counter.builder("inference.scheduler.rejected")
+          .tag("tenant", tenant)
+          .register(registry);
+      Gauge.builder("inference.scheduler.queue_depth", TenantFairQueue.this, q -> q.depth(tenant))
+          .tag("tenant", tenant)
+          .register(registry);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package inference.concurrency;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 동시에 실행 중인 작업들의 추정 토큰 합(prompt + 최대 출력)에 거는 상한. {@link ConcurrencyLimiter}와 함께 쓴다:
+ * 요청 수 permit은 그대로 두고, 긴 prompt 몇 개가 백엔드(KV cache)를 다 차지하지 않도록 요청 비용만큼 토큰을 잡는다.
+ *
+ * <p>
+ * - fair Semaphore라서 큰 요청이 작은 요청들에 계속 밀리지 않는다(대신 앞의 큰 요청이 토큰을 모을 때까지 뒤도 기다린다).
+ * - 요청 하나의 비용이 상한보다 크면 상한만큼만 잡는다: 혼자서는 항상 실행될 수 있다.
+ * - capacity가 0 이하이면 꺼짐: 항상 바로 허가한다.
+ * </p>
+ */
+public class TokenBudget {
+
+  private static final Grant UNLIMITED = () -> {};
+
+  private final int capacity;
+  private final Semaphore semaphore;
+
+  public TokenBudget(int capacity) {
+    this.capacity = Math.max(0, capacity);
+    this.semaphore = this.capacity > 0 ? new Semaphore(this.capacity, true) : null;
+  }
+
+  public boolean isEnabled() {
+    return semaphore != null;
+  }
+
+  /**
+   * @return 획득하면 grant(정확히 한 번 {@link Grant#release()}), timeout 안에 못 얻으면 {@code null}
+   */
+  public Grant tryAcquire(int tokens, long timeout, TimeUnit unit) throws InterruptedException {
+    if (semaphore == null) {
+      return UNLIMITED;
+    }
+    int weight = Math.max(1, Math.min(capacity, tokens));
+    if (!semaphore.tryAcquire(weight, timeout, unit)) {
+      return null;
+    }
+    AtomicBoolean released = new AtomicBoolean();
+    return () -> {
+      if (released.compareAndSet(false, true)) {
+        semaphore.release(weight);
+      }
+    };
+  }
+
+  /** 상한 (꺼져 있으면 0) */
+  public int capacity() {
+    return capacity;
+  }
+
+  /** 실행 중인 작업들이 잡고 있는 토큰 합 */
+  public int inFlight() {
+    return semaphore == null ? 0 : capacity - semaphore.availablePermits();
+  }
+
+  @FunctionalInterface
+  public interface Grant {
+    /** 잡은 토큰을 돌려준다. 두 번째 호출부터는 아무 것도 하지 않는다. */
+    void release();
+  }
+}
@@ -0,0 +1,83 @@
+package inference.concurrency;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * 작업마다 virtual thread 하나를 띄우는 executor ({@code inference.concurrency.mode=virtual}).
+ *
+ * <p>
+ * - 워커 풀이 없으므로 permit 대기(ConcurrencyLimiter)가 곧 "큐 대기"가 된다.
+ * - 대신 미완료 작업 수(permit 대기 + 실행 중)를 {@code capacity}로 제한해서,
+ *   platform 모드의 유한 큐와 같은 즉시 거절(RejectedExecutionException → queue_full) 의미를 유지한다.
+ * - MDC 전파는 platform 모드와 같은 {@link TaskDecorator}를 그대로 적용한다.
+ * </p>
+ */
+public class VirtualThreadTaskExecutor implements TaskExecutor, DisposableBean {
+
+  private final int capacity;
+  private final int shutdownAwaitSeconds;
+  private final TaskDecorator taskDecorator;
+  private final AtomicInteger outstanding = new AtomicInteger();
+  private final ExecutorService delegate;
+
+  public VirtualThreadTaskExecutor(
+      String threadNamePrefix,
+      int capacity,
+      int shutdownAwaitSeconds,
+      TaskDecorator taskDecorator
+  ) {
+    this.capacity = capacity;
+    this.shutdownAwaitSeconds = shutdownAwaitSeconds;
+    this.taskDecorator = taskDecorator;
+    this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 1).factory());
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    if (outstanding.incrementAndGet() > capacity) {
+      outstanding.decrementAndGet();
+      throw new RejectedExecutionException("virtual executor capacity reached: " + capacity);
+    }
+    Runnable decorated = taskDecorator.decorate(task);
+    try {
+      delegate.execute(() -> {
+        try {
+          decorated.run();
+        } finally {
+          outstanding.decrementAndGet();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // 종료 중인 경우
+      outstanding.decrementAndGet();
+      throw e;
+    }
+  }
+
+  /**
+   * 아직 끝나지 않은 작업 수 (permit 대기 + 실행 중).
+   */
+  public int getOutstanding() {
+    return outstanding.get();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Graceful shutdown: 새 작업은 거절하고 in-flight 작업은 끝까지 기다린다.
+   */
+  @Override
+  public void destroy() throws InterruptedException {
+    delegate.shutdown();
+    delegate.awaitTermination(shutdownAwaitSeconds, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,67 @@
+package inference.concurrency;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 지금 접수한 작업이 permit을 받기까지 기다릴 시간을 추정한다 (접수 단계 load shedding용).
+ *
+ * <p>
+ * - 서비스 시간은 permit 보유 시간(획득 → 반납)의 EWMA다. 배치는 permit 1개를 쓰므로 배치 전체가 한 샘플이다.
+ * - 추정 대기 = 앞선 작업(queueDepth + inFlight) 중 limit을 넘는 만큼이 limit개 슬롯에서 빠지는 시간
+ *   = (ahead - limit + 1) / limit * serviceTime. 슬롯이 남아 있으면 0.
+ * - FIFO 기준 추정이다. EDF/priority 큐에서는 뒤에 온 작업이 먼저 나갈 수 있어 실제 대기보다 길게 나온다(보수적).
+ * - 샘플이 minSamples개 모이기 전(기동 직후)에는 추정하지 않고 0을 돌려준다.
+ * </p>
+ */
+public class WaitEstimator {
+
+  private final InferenceLoad load;
+  private final double smoothing;
+  private final int minSamples;
+  /** EWMA 서비스 시간(ms)의 double bits */
+  private final AtomicLong serviceTimeMsBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+  private final AtomicLong samples = new AtomicLong();
+
+  public WaitEstimator(InferenceLoad load, double smoothing, int minSamples) {
+    if (smoothing <= 0 || smoothing > 1) {
+      throw new IllegalArgumentException("smoothing must be in (0, 1]");
+    }
+    this.load = load;
+    this.smoothing = smoothing;
+    this.minSamples = Math.max(1, minSamples);
+  }
+
+  /** permit을 반납할 때 보유 시간을 반영한다. */
+  public void recordServiceTime(long nanos) {
+    double sampleMs = nanos / 1_000_000.0;
+    boolean first = samples.getAndIncrement() == 0;
+    long prev;
+    double next;
+    do {
+      prev = serviceTimeMsBits.get();
+      next = first ? sampleMs : Double.longBitsToDouble(prev) + smoothing * (sampleMs - Double.longBitsToDouble(prev));
+    } while (!serviceTimeMsBits.compareAndSet(prev, Double.doubleToRawLongBits(next)));
+  }
+
+  /** 서비스 시간 EWMA(ms). 샘플이 없으면 0 */
+  public double serviceTimeMs() {
+    return Double.longBitsToDouble(serviceTimeMsBits.get());
+  }
+
+  public boolean isWarm() {
+    return samples.get() >= minSamples;
+  }
+
+  /** 지금 접수하면 permit을 받기까지의 추정 대기(ms). 워밍업 전이거나 슬롯이 남아 있으면 0 */
+  public long estimatedWaitMs() {
+    if (!isWarm()) {
+      return 0;
+    }
+    int limit = Math.max(1, load.limit());
+    int ahead = load.queueDepth() + load.inFlight();
+    if (ahead < limit) {
+      return 0;
+    }
+    return (long) Math.ceil((double) (ahead - limit + 1) / limit * serviceTimeMs());
+  }
+}
@@ -0,0 +1,66 @@
+package inference.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.backend.HttpInferenceBackend;
+import inference.backend.InferenceBackend;
+import inference.backend.SimulatedInferenceBackend;
+import inference.config.BatchingConfig.InferenceBatchingProperties;
+import inference.config.ConcurrencyConfig.InferenceProcessingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BackendConfig {
+
+  /**
+   * 기본 백엔드: 모델 서버 없이 토큰 수에 비례하는 지연만 흉내 낸다 (processing.simulated* 설정).
+   */
+  @Bean
+  @ConditionalOnProperty(name = "inference.backend.type", havingValue = "simulated", matchIfMissing = true)
+  public InferenceBackend simulatedInferenceBackend(
+      InferenceProcessingProperties processing,
+      InferenceBatchingProperties batching
+  ) {
+    return new SimulatedInferenceBackend(processing, batching);
+  }
+
+  /**
+   * 원격 모델 서버 (POST {baseUrl}/v1/generate).
+   *
+   * @param version               http2(기본, 서버가 모르면 HTTP/1.1로 내려간다) | http1
+   * @param maxConcurrentRequests 이 모델 서버로 동시에 나가는 요청 상한. 서버의 동시 처리 한도에 맞춘다
+   */
+  @Bean
+  @ConditionalOnProperty(name = "inference.backend.type", havingValue = "http")
+  public InferenceBackend httpInferenceBackend(
+      @Value("${inference.backend.http.baseUrl}") String baseUrl,
+      @Value("${inference.backend.http.version:http2}") String version,
+      @Value("${inference.backend.http.maxConcurrentRequests:64}") int maxConcurrentRequests,
+      @Value("${inference.backend.http.connectTimeoutMs:1000}") long connectTimeoutMs,
+      @Value("${inference.backend.http.requestTimeoutMs:60000}") long requestTimeoutMs,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry
+  ) {
+    HttpClient.Version httpVersion = switch (version.trim().toLowerCase(Locale.ROOT)) {
+      case "http2" -> HttpClient.Version.HTTP_2;
+      case "http1" -> HttpClient.Version.HTTP_1_1;
+      default -> throw new IllegalArgumentException("inference.backend.http.version must be http2 or http1: " + version);
+    };
+    return new HttpInferenceBackend(
+        URI.create(baseUrl),
+        httpVersion,
+        maxConcurrentRequests,
+        Duration.ofMillis(connectTimeoutMs),
+        Duration.ofMillis(requestTimeoutMs),
+        objectMapper,
+        meterRegistry
+    );
+  }
+}
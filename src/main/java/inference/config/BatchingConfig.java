@@ -0,0 +1,30 @@
+package inference.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BatchingConfig {
+
+  @Bean
+  public InferenceBatchingProperties inferenceBatchingProperties(
+      @Value("${inference.batching.enabled:false}") boolean enabled,
+      @Value("${inference.batching.maxBatchSize:8}") int maxBatchSize,
+      @Value("${inference.batching.maxWaitMs:10}") long maxWaitMs,
+      @Value("${inference.batching.latencyGrowth:0.15}") double latencyGrowth
+  ) {
+    return new InferenceBatchingProperties(enabled, maxBatchSize, maxWaitMs, latencyGrowth);
+  }
+
+  /**
+   * @param latencyGrowth 배치 크기가 2배가 될 때마다 늘어나는 지연 비율.
+   *                      배치 지연 = 가장 긴 단건 지연 * (1 + latencyGrowth * log2(batchSize))
+   */
+  public record InferenceBatchingProperties(
+      boolean enabled,
+      int maxBatchSize,
+      long maxWaitMs,
+      double latencyGrowth
+  ) {}
+}
@@ -0,0 +1,41 @@
+package inference.config;
+
+import inference.cache.PrefixIndex;
+import inference.cache.ResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+  /**
+   * 꺼져 있으면(enabled=false) 용량 0의 캐시를 만든다: 서비스 코드는 분기 없이 같은 경로를 탄다.
+   */
+  @Bean
+  public ResponseCache responseCache(
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${inference.cache.enabled:false}") boolean enabled,
+      @Value("${inference.cache.maxEntries:10000}") int maxEntries,
+      @Value("${inference.cache.maxBytes:16777216}") long maxBytes,
+      @Value("${inference.cache.ttlMs:300000}") long ttlMs
+  ) {
+    return new ResponseCache(clock, meterRegistry, enabled ? maxEntries : 0, maxBytes, ttlMs);
+  }
+
+  /**
+   * prompt prefix 인덱스(KV cache 재사용 모사). 꺼져 있으면 용량 0: 시뮬레이션 지연은 기존과 같다.
+   */
+  @Bean
+  public PrefixIndex prefixIndex(
+      MeterRegistry meterRegistry,
+      @Value("${inference.prefixCache.enabled:false}") boolean enabled,
+      @Value("${inference.prefixCache.chunkChars:64}") int chunkChars,
+      @Value("${inference.prefixCache.maxEntries:100000}") int maxEntries
+  ) {
+    return new PrefixIndex(chunkChars, enabled ? maxEntries : 0, meterRegistry);
+  }
+}
@@ -1,12 +1,34 @@
 package inference.config;
 
+import inference.concurrency.AdaptiveConcurrencyLimiter;
+import inference.concurrency.AimdLimit;
+import inference.concurrency.ConcurrencyLimiter;
+import inference.concurrency.FixedConcurrencyLimiter;
+import inference.concurrency.HashedWheelTimer;
+import inference.concurrency.InferenceLoad;
+import inference.concurrency.GradientLimit;
+import inference.concurrency.SchedulableTask;
+import inference.concurrency.TenantFairQueue;
+import inference.concurrency.TokenBudget;
+import inference.concurrency.VirtualThreadTaskExecutor;
+import inference.concurrency.WaitEstimator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
 import java.time.Clock;
-import java.util.concurrent.Semaphore;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
@@ -23,9 +45,11 @@ public class ConcurrencyConfig {
       @Value("${inference.concurrency.workerThreads:8}") int workerThreads,
       @Value("${inference.concurrency.queueCapacity:200}") int queueCapacity,
       @Value("${inference.concurrency.acquireTimeoutMs:50}") long acquireTimeoutMs,
-      @Value("${inference.concurrency.shutdownAwaitSeconds:30}") int shutdownAwaitSeconds
+      @Value("${inference.concurrency.shutdownAwaitSeconds:30}") int shutdownAwaitSeconds,
+      @Value("${inference.concurrency.mode:platform}") String mode
   ) {
     return new InferenceConcurrencyProperties(
+        ExecutionMode.valueOf(mode.trim().toUpperCase(Locale.ROOT)),
         maxConcurrent,
         workerThreads,
         queueCapacity,
@@ -40,20 +64,152 @@ public class ConcurrencyConfig {
       @Value("${inference.processing.simulatedMinMs:80}") int simulatedMinMs,
       @Value("${inference.processing.simulatedMaxMs:2200}") int simulatedMaxMs,
       @Value("${inference.processing.cpuBurn.enabled:false}") boolean cpuBurnEnabled,
-      @Value("${inference.processing.cpuBurn.chunkMs:50}") int cpuBurnChunkMs
+      @Value("${inference.processing.cpuBurn.chunkMs:50}") int cpuBurnChunkMs,
+      @Value("${inference.processing.prefillMsPerToken:0.16}") double prefillMsPerToken,
+      @Value("${inference.processing.decodeMsPerToken:0}") double decodeMsPerToken
   ) {
-    return new InferenceProcessingProperties(timeoutMs, simulatedMinMs, simulatedMaxMs, cpuBurnEnabled, cpuBurnChunkMs);
+    return new InferenceProcessingProperties(
+        timeoutMs, simulatedMinMs, simulatedMaxMs, cpuBurnEnabled, cpuBurnChunkMs, prefillMsPerToken, decodeMsPerToken);
   }
 
   @Bean
-  public Semaphore inferenceSemaphore(InferenceConcurrencyProperties props) {
-    // fair=true: 대기열 기반으로 공정하게 permit 분배 (폭주 시 starvation 완화)
-    return new Semaphore(props.maxConcurrent(), true);
+  public InferenceLimiterProperties inferenceLimiterProperties(
+      @Value("${inference.concurrency.limiter.type:fixed}") String type,
+      @Value("${inference.concurrency.limiter.minLimit:1}") int minLimit,
+      @Value("${inference.concurrency.limiter.maxLimit:64}") int maxLimit,
+      @Value("${inference.concurrency.limiter.aimd.backoffRatio:0.9}") double aimdBackoffRatio,
+      @Value("${inference.concurrency.limiter.aimd.latencyThresholdMs:0}") long aimdLatencyThresholdMs,
+      @Value("${inference.concurrency.limiter.gradient.smoothing:0.2}") double gradientSmoothing
+  ) {
+    return new InferenceLimiterProperties(
+        LimiterType.valueOf(type.trim().toUpperCase(Locale.ROOT)),
+        minLimit,
+        maxLimit,
+        aimdBackoffRatio,
+        aimdLatencyThresholdMs,
+        gradientSmoothing
+    );
+  }
+
+  /**
+   * 동시 실행 상한. 초기 limit은 maxConcurrent이고, aimd/gradient는 관측된 실행 시간/timeout으로 조정한다.
+   */
+  @Bean
+  public ConcurrencyLimiter inferenceLimiter(
+      InferenceConcurrencyProperties props,
+      InferenceProcessingProperties processing,
+      InferenceLimiterProperties limiter,
+      MeterRegistry meterRegistry
+  ) {
+    ConcurrencyLimiter l = switch (limiter.type()) {
+      case FIXED -> new FixedConcurrencyLimiter(props.maxConcurrent());
+      case AIMD -> new AdaptiveConcurrencyLimiter(
+          new AimdLimit(
+              limiter.aimdBackoffRatio(),
+              // 기본값: 처리 timeout을 넘는 실행은 과부하로 본다
+              limiter.aimdLatencyThresholdMs() > 0 ? limiter.aimdLatencyThresholdMs() : processing.timeoutMs()),
+          props.maxConcurrent(),
+          limiter.minLimit(),
+          limiter.maxLimit(),
+          meterRegistry);
+      case GRADIENT -> new AdaptiveConcurrencyLimiter(
+          new GradientLimit(limiter.gradientSmoothing()),
+          props.maxConcurrent(),
+          limiter.minLimit(),
+          limiter.maxLimit(),
+          meterRegistry);
+    };
+    Gauge.builder("inference.limiter.limit", l, ConcurrencyLimiter::getLimit).register(meterRegistry);
+    Gauge.builder("inference.limiter.inflight", l, ConcurrencyLimiter::getInFlight).register(meterRegistry);
+    Gauge.builder("inference.limiter.available", l, c -> Math.max(0, c.getLimit() - c.getInFlight()))
+        .description("Concurrency permits currently available")
+        .register(meterRegistry);
+    return l;
+  }
+
+  /**
+   * 동시 실행 중인 작업들의 추정 토큰 합 상한(요청 수 permit과 함께 건다). 0이면 끔.
+   */
+  @Bean
+  public TokenBudget inferenceTokenBudget(
+      @Value("${inference.concurrency.tokenBudget:32768}") int tokenBudget,
+      MeterRegistry meterRegistry
+  ) {
+    TokenBudget budget = new TokenBudget(tokenBudget);
+    Gauge.builder("inference.tokens.budget", budget, TokenBudget::capacity).register(meterRegistry);
+    Gauge.builder("inference.tokens.inflight", budget, TokenBudget::inFlight)
+        .description("Estimated tokens (prompt + max output) held by running requests")
+        .register(meterRegistry);
+    return budget;
+  }
+
+  /**
+   * policy 기본값 auto: platform 모드면 EDF(deadline이 큐 순서를 정한다), virtual 모드면 FIFO(워커 큐가 없어 순서를 정할 지점이 없다).
+   * deadline이 모두 같은 예산이면 EDF 순서는 제출 순서와 같으므로 헤더를 쓰지 않는 요청에는 FIFO와 다르지 않다.
+   */
+  @Bean
+  public InferenceSchedulingProperties inferenceSchedulingProperties(
+      InferenceConcurrencyProperties concurrency,
+      @Value("${inference.scheduling.policy:auto}") String policy,
+      @Value("${inference.scheduling.tenantQueueCapacity:0}") int tenantQueueCapacity,
+      @Value("${inference.scheduling.maxTenants:100}") int maxTenants,
+      @Value("${inference.scheduling.weights:}") String weights
+  ) {
+    String name = policy.trim().toUpperCase(Locale.ROOT);
+    SchedulingPolicy resolved = name.equals("AUTO")
+        ? concurrency.mode() == ExecutionMode.VIRTUAL ? SchedulingPolicy.FIFO : SchedulingPolicy.EDF
+        : SchedulingPolicy.valueOf(name);
+    return new InferenceSchedulingProperties(
+        resolved,
+        tenantQueueCapacity,
+        maxTenants,
+        parseWeights(weights)
+    );
   }
 
   @Bean(name = "inferenceExecutor")
-  public ThreadPoolTaskExecutor inferenceExecutor(InferenceConcurrencyProperties props) {
-    ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+  public TaskExecutor inferenceExecutor(
+      InferenceConcurrencyProperties props,
+      InferenceSchedulingProperties scheduling,
+      MeterRegistry meterRegistry
+  ) {
+    if (scheduling.policy() != SchedulingPolicy.FIFO && props.mode() == ExecutionMode.VIRTUAL) {
+      // virtual 모드에는 워커 큐가 없어서 큐 순서를 정할 지점이 없다
+      throw new IllegalStateException("inference.scheduling.policy=" + scheduling.policy().name().toLowerCase(Locale.ROOT)
+          + " requires inference.concurrency.mode=platform");
+    }
+    if (props.mode() == ExecutionMode.VIRTUAL) {
+      // 워커 스레드 상한 없음: permit 대기 + 실행 중 작업 수를 maxConcurrent + queueCapacity로 제한
+      return new VirtualThreadTaskExecutor(
+          "inference-vt-",
+          props.maxConcurrent() + props.queueCapacity(),
+          props.shutdownAwaitSeconds(),
+          mdcTaskDecorator()
+      );
+    }
+
+    ThreadPoolTaskExecutor exec = switch (scheduling.policy()) {
+      case FIFO -> new ThreadPoolTaskExecutor();
+      case FAIR -> new ThreadPoolTaskExecutor() {
+        @Override
+        protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+          // tenant별 가중치 공정 큐(DRR). 용량 초과 시 offer=false → AbortPolicy로 즉시 거절
+          return new TenantFairQueue(
+              queueCapacity,
+              scheduling.tenantQueueCapacity(),
+              scheduling.maxTenants(),
+              scheduling.weights(),
+              meterRegistry);
+        }
+      };
+      case EDF -> new ThreadPoolTaskExecutor() {
+        @Override
+        protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+          // deadline이 가장 빠른 작업부터 꺼내는 단일 큐 (priority가 있으면 priority가 먼저)
+          return TenantFairQueue.edf(queueCapacity, meterRegistry);
+        }
+      };
+    };
     exec.setThreadNamePrefix("inference-");
     exec.setCorePoolSize(props.workerThreads());
     exec.setMaxPoolSize(props.workerThreads());
@@ -68,11 +224,95 @@ public class ConcurrencyConfig {
     return exec;
   }
 
+  /**
+   * 실행 계층 부하 지표와 gauge: {@code inference.executor.queue_depth}(실행을 기다리는 작업),
+   * {@code inference.executor.active}(실행 중 워커), {@code inference.saturation}(HPA custom metric용).
+   * virtual 모드에는 워커 큐가 없으므로 permit 대기 중인 작업을 queue depth로, permit 보유 작업을 active로 본다.
+   */
+  @Bean
+  public InferenceLoad inferenceLoad(
+      TaskExecutor inferenceExecutor,
+      ConcurrencyLimiter inferenceLimiter,
+      InferenceConcurrencyProperties props,
+      MeterRegistry meterRegistry
+  ) {
+    InferenceLoad load = switch (inferenceExecutor) {
+      case VirtualThreadTaskExecutor v -> new InferenceLoad(
+          () -> v.getOutstanding() - inferenceLimiter.getInFlight(),
+          inferenceLimiter::getInFlight,
+          inferenceLimiter,
+          props.queueCapacity());
+      case ThreadPoolTaskExecutor t -> new InferenceLoad(
+          t::getQueueSize,
+          t::getActiveCount,
+          inferenceLimiter,
+          props.queueCapacity());
+      default -> throw new IllegalStateException("unsupported inference executor: " + inferenceExecutor.getClass());
+    };
+    Gauge.builder("inference.executor.queue_depth", load, InferenceLoad::queueDepth).register(meterRegistry);
+    Gauge.builder("inference.executor.active", load, InferenceLoad::activeWorkers).register(meterRegistry);
+    Gauge.builder("inference.saturation", load, InferenceLoad::saturation)
+        .description("(queue depth + in-flight) / (queue capacity + concurrency limit)")
+        .register(meterRegistry);
+    return load;
+  }
+
+  /**
+   * 실행 timeout 공유 timer: 작업마다 deadline에 timeout 하나를 걸고, 만료되면 워커를 interrupt한다.
+   * 정밀도는 tickMs(늦게 실행되는 쪽으로만 오차).
+   */
+  @Bean
+  public HashedWheelTimer inferenceTimeoutTimer(
+      @Value("${inference.processing.timeoutTickMs:10}") long tickMs,
+      @Value("${inference.processing.timeoutWheelSize:512}") int wheelSize,
+      MeterRegistry meterRegistry
+  ) {
+    HashedWheelTimer timer = new HashedWheelTimer("inference-timeout-timer", tickMs, wheelSize);
+    Gauge.builder("inference.timeouts.pending", timer, HashedWheelTimer::pendingTimeouts)
+        .description("Execution timeouts scheduled and not yet fired or cancelled")
+        .register(meterRegistry);
+    return timer;
+  }
+
+  @Bean
+  public InferenceAdmissionProperties inferenceAdmissionProperties(
+      @Value("${inference.admission.shedding.enabled:true}") boolean sheddingEnabled,
+      @Value("${inference.admission.shedding.smoothing:0.2}") double smoothing,
+      @Value("${inference.admission.shedding.minSamples:5}") int minSamples
+  ) {
+    return new InferenceAdmissionProperties(sheddingEnabled, smoothing, minSamples);
+  }
+
+  /**
+   * 접수 단계 load shedding용 대기 시간 추정. gauge {@code inference.queue.estimated_wait}로도 export한다.
+   */
+  @Bean
+  public WaitEstimator inferenceWaitEstimator(
+      InferenceLoad inferenceLoad,
+      InferenceAdmissionProperties admission,
+      MeterRegistry meterRegistry
+  ) {
+    WaitEstimator estimator = new WaitEstimator(inferenceLoad, admission.smoothing(), admission.minSamples());
+    TimeGauge.builder("inference.queue.estimated_wait", estimator, TimeUnit.MILLISECONDS, WaitEstimator::estimatedWaitMs)
+        .description("Estimated wait for a concurrency permit if a request were accepted now")
+        .register(meterRegistry);
+    return estimator;
+  }
+
+  /**
+   * SSE 전송 전용 executor. 이벤트는 워커(permit 보유)에서 발행되므로 소켓 쓰기는 여기로 넘긴다.
+   * 느린 클라이언트의 블로킹 쓰기가 스레드를 오래 잡을 수 있어 virtual thread를 쓴다 (스트림마다 한 번에 한 작업).
+   */
+  @Bean(destroyMethod = "shutdownNow")
+  public ExecutorService inferenceStreamExecutor() {
+    return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("inference-sse-", 1).factory());
+  }
+
   @Bean
   public TaskDecorator mdcTaskDecorator() {
     return runnable -> {
       var captured = MDC.getCopyOfContextMap();
-      return () -> {
+      Runnable decorated = () -> {
         var previous = MDC.getCopyOfContextMap();
         try {
           if (captured != null) {
@@ -89,10 +329,72 @@ public class ConcurrencyConfig {
           }
         }
       };
+      // 스케줄링 속성(tenant/priority)은 큐가 봐야 하므로 본문만 교체한다
+      return runnable instanceof SchedulableTask task ? task.withBody(decorated) : decorated;
     };
   }
 
+  /**
+   * "tenantA=3,tenantB=1" → {tenantA: 3, tenantB: 1}
+   */
+  private static Map<String, Integer> parseWeights(String weights) {
+    Map<String, Integer> parsed = new LinkedHashMap<>();
+    if (weights == null || weights.isBlank()) {
+      return parsed;
+    }
+    for (String pair : weights.split(",")) {
+      String[] kv = pair.split("=", 2);
+      if (kv.length == 2 && !kv[0].isBlank()) {
+        parsed.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+      }
+    }
+    return parsed;
+  }
+
+  /**
+   * PLATFORM: 고정 크기 워커 풀 + 유한 큐 (기본)
+   * VIRTUAL: 작업마다 virtual thread, limiter(permit)가 유일한 동시 실행 상한
+   */
+  public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL
+  }
+
+  /**
+   * FIFO: executor 기본 큐 (LinkedBlockingQueue)
+   * FAIR: tenant별 가중치 공정 큐 (DRR) + tenant 안에서 priority 순
+   */
+  public enum SchedulingPolicy {
+    FIFO,
+    FAIR,
+    /** Earliest Deadline First: tenant 구분 없이 end-to-end deadline이 빠른 작업부터 */
+    EDF
+  }
+
+  public record InferenceSchedulingProperties(
+      SchedulingPolicy policy,
+      int tenantQueueCapacity,
+      int maxTenants,
+      Map<String, Integer> weights
+  ) {}
+
+  public enum LimiterType {
+    FIXED,
+    AIMD,
+    GRADIENT
+  }
+
+  public record InferenceLimiterProperties(
+      LimiterType type,
+      int minLimit,
+      int maxLimit,
+      double aimdBackoffRatio,
+      long aimdLatencyThresholdMs,
+      double gradientSmoothing
+  ) {}
+
   public record InferenceConcurrencyProperties(
+      ExecutionMode mode,
       int maxConcurrent,
       int workerThreads,
       int queueCapacity,
@@ -100,12 +402,29 @@ public class ConcurrencyConfig {
       int shutdownAwaitSeconds
   ) {}
 
+  /**
+   * @param sheddingEnabled 추정 대기가 요청의 시간 예산을 넘으면 store에 쓰기 전에 503 + Retry-After로 거절
+   * @param smoothing       서비스 시간 EWMA 가중치 (0, 1]
+   * @param minSamples      이만큼 샘플이 모이기 전에는 shedding하지 않는다
+   */
+  public record InferenceAdmissionProperties(
+      boolean sheddingEnabled,
+      double smoothing,
+      int minSamples
+  ) {}
+
+  /**
+   * @param prefillMsPerToken 시뮬레이션 지연: prompt 토큰(캐시된 prefix 제외)당 prefill 시간
+   * @param decodeMsPerToken  시뮬레이션 지연: 최대 출력 토큰당 decode 시간 (기본 0: 예전 지연 분포 유지)
+   */
   public record InferenceProcessingProperties(
       long timeoutMs,
       int simulatedMinMs,
       int simulatedMaxMs,
       boolean cpuBurnEnabled,
-      int cpuBurnChunkMs
+      int cpuBurnChunkMs,
+      double prefillMsPerToken,
+      double decodeMsPerToken
   ) {}
 }
 
@@ -0,0 +1,115 @@
+package inference.config;
+
+import inference.store.BoundedInferenceStore;
+import inference.store.InMemoryInferenceStore;
+import inference.store.InferenceStore;
+import inference.store.SegmentLogInferenceStore;
+import inference.store.SegmentLogInferenceStore.SyncMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StoreConfig {
+
+  @Bean
+  public InferenceStoreProperties inferenceStoreProperties(
+      @Value("${inference.store.maxEntries:100000}") int maxEntries,
+      @Value("${inference.store.maxBytes:67108864}") long maxBytes,
+      @Value("${inference.store.ttl.inFlightMs:600000}") long inFlightTtlMs,
+      @Value("${inference.store.ttl.succeededMs:600000}") long succeededTtlMs,
+      @Value("${inference.store.ttl.failedMs:600000}") long failedTtlMs,
+      @Value("${inference.store.ttl.rejectedMs:60000}") long rejectedTtlMs,
+      @Value("${inference.idempotency.windowMs:600000}") long idempotencyWindowMs
+  ) {
+    return new InferenceStoreProperties(
+        maxEntries,
+        maxBytes,
+        inFlightTtlMs,
+        succeededTtlMs,
+        failedTtlMs,
+        rejectedTtlMs,
+        idempotencyWindowMs
+    );
+  }
+
+  /**
+   * 기본 저장소: 상한 + 상태별 TTL. 장시간 트래픽에도 힙이 무한히 늘지 않는다.
+   */
+  @Bean
+  @ConditionalOnProperty(name = "inference.store.type", havingValue = "bounded", matchIfMissing = true)
+  public InferenceStore boundedInferenceStore(Clock clock, MeterRegistry meterRegistry, InferenceStoreProperties props) {
+    return new BoundedInferenceStore(
+        clock,
+        meterRegistry,
+        props.maxEntries(),
+        props.maxBytes(),
+        props.inFlightTtlMs(),
+        props.succeededTtlMs(),
+        props.failedTtlMs(),
+        props.rejectedTtlMs()
+    );
+  }
+
+  /**
+   * 상한/TTL 없는 단순 맵 (로컬 디버깅용).
+   */
+  @Bean
+  @ConditionalOnProperty(name = "inference.store.type", havingValue = "memory")
+  public InferenceStore inMemoryInferenceStore() {
+    return new InMemoryInferenceStore();
+  }
+
+  /**
+   * 영속 저장소: memory-mapped append-only segment 로그. 재시작 후에도 작업 상태가 남는다.
+   * 상태별 TTL은 bounded와 같은 {@code inference.store.ttl.*}를 쓴다 (maxEntries/maxBytes는 적용하지 않는다).
+   * (컨테이너에서는 dir을 PersistentVolume에 마운트해야 의미가 있다)
+   */
+  @Bean
+  @ConditionalOnProperty(name = "inference.store.type", havingValue = "log")
+  public InferenceStore segmentLogInferenceStore(
+      Clock clock,
+      MeterRegistry meterRegistry,
+      InferenceStoreProperties props,
+      @Value("${inference.store.log.dir:data/inference-store}") String dir,
+      @Value("${inference.store.log.segmentBytes:67108864}") int segmentBytes,
+      @Value("${inference.store.log.syncMode:group}") String syncMode,
+      @Value("${inference.store.log.fsyncIntervalMs:10}") long fsyncIntervalMs,
+      @Value("${inference.store.log.compactionIntervalMs:30000}") long compactionIntervalMs,
+      @Value("${inference.store.log.compactionLiveRatio:0.5}") double compactionLiveRatio
+  ) {
+    return new SegmentLogInferenceStore(
+        Path.of(dir),
+        segmentBytes,
+        SyncMode.valueOf(syncMode.trim().toUpperCase(Locale.ROOT)),
+        fsyncIntervalMs,
+        compactionIntervalMs,
+        compactionLiveRatio,
+        props.inFlightTtlMs(),
+        props.succeededTtlMs(),
+        props.failedTtlMs(),
+        props.rejectedTtlMs(),
+        clock,
+        meterRegistry
+    );
+  }
+
+  /**
+   * @param idempotencyWindowMs 같은 requestId 재제출을 중복으로 보는 기간(접수 시각 기준). 0이면 멱등 처리 없이 덮어쓴다.
+   *                            store TTL보다 길게 잡아도 이미 만료된 엔트리는 중복으로 보지 않는다.
+   */
+  public record InferenceStoreProperties(
+      int maxEntries,
+      long maxBytes,
+      long inFlightTtlMs,
+      long succeededTtlMs,
+      long failedTtlMs,
+      long rejectedTtlMs,
+      long idempotencyWindowMs
+  ) {}
+}
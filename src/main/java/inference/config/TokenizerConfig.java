@@ -0,0 +1,31 @@
+package inference.config;
+
+import inference.tokenizer.ApproximateBpeTokenizer;
+import inference.tokenizer.TokenEstimator;
+import inference.tokenizer.Tokenizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TokenizerConfig {
+
+  /**
+   * 기본 tokenizer(어휘 없는 근사). 실제 어휘를 쓰는 {@link Tokenizer} bean(@Component 등)이 있으면 그쪽을 쓴다.
+   */
+  @Bean
+  @ConditionalOnMissingBean(Tokenizer.class)
+  public Tokenizer tokenizer() {
+    return new ApproximateBpeTokenizer();
+  }
+
+  @Bean
+  public TokenEstimator tokenEstimator(
+      Tokenizer tokenizer,
+      @Value("${inference.tokens.defaultMaxOutputTokens:256}") int defaultMaxOutputTokens,
+      @Value("${inference.tokens.maxOutputTokens:4096}") int maxOutputTokens
+  ) {
+    return new TokenEstimator(tokenizer, defaultMaxOutputTokens, maxOutputTokens);
+  }
+}
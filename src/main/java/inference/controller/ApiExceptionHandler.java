@@ -1,12 +1,15 @@
 package inference.controller;
 
+import inference.service.OverloadedException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.ErrorResponseException;
@@ -52,6 +55,24 @@ public class ApiExceptionHandler {
     return pd;
   }
 
+  /**
+   * 접수 단계 load shedding: 503 + Retry-After(초). 작업이 만들어지지 않았으므로 Location은 없다.
+   */
+  @ExceptionHandler(OverloadedException.class)
+  public ResponseEntity<ProblemDetail> handleOverloaded(OverloadedException e) {
+    ProblemDetail pd = ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE);
+    pd.setTitle("overloaded");
+    pd.setDetail("Estimated queue wait exceeds the request time budget");
+    pd.setProperty("requestId", e.getRequestId());
+    pd.setProperty("estimatedWaitMs", e.getEstimatedWaitMs());
+    pd.setProperty("budgetMs", e.getBudgetMs());
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+        .header("X-Request-Id", e.getRequestId())
+        .body(pd);
+  }
+
   @ExceptionHandler(ErrorResponseException.class)
   public ProblemDetail handleSpringErrorResponse(ErrorResponseException e, WebRequest request) {
     // Spring이 이미 ProblemDetail을 만들어주는 경우가 많아서 그대로 보강해서 반환
@@ -0,0 +1,144 @@
+package inference.controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import inference.model.BulkSubmitResponse;
+import inference.model.InferenceRequest;
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import inference.model.SubmitOptions;
+import inference.service.InferenceService;
+import inference.service.OverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 일괄 제출: 수만 건의 prompt를 HTTP 호출 하나로 받는다.
+ *
+ * <p>
+ * - 본문: JSON 배열({@code application/json}) 또는 NDJSON({@code application/x-ndjson})
+ * - 본문을 통째로 메모리에 올리지 않고 항목 단위로 스트리밍 파싱 → 검증 → 제출한다.
+ * - 항목마다 독립적으로 접수/거절이 결정된다: 단건 제출과 같은 load shedding(overloaded) 후 executor 큐(queue_full).
+ * </p>
+ */
+@RestController
+@RequestMapping("/v1/inference")
+public class BulkInferenceController {
+  private static final Logger log = LoggerFactory.getLogger(BulkInferenceController.class);
+  private static final String NDJSON_VALUE = "application/x-ndjson";
+  static final String OVERLOADED_ERROR = "overloaded";
+
+  private final InferenceService inferenceService;
+  private final ObjectMapper objectMapper;
+  private final ObjectReader requestReader;
+  private final Validator validator;
+  private final int maxItems;
+
+  public BulkInferenceController(
+      InferenceService inferenceService,
+      ObjectMapper objectMapper,
+      Validator validator,
+      @Value("${inference.bulk.maxItems:50000}") int maxItems
+  ) {
+    this.inferenceService = inferenceService;
+    this.objectMapper = objectMapper;
+    this.requestReader = objectMapper.readerFor(InferenceRequest.class);
+    this.validator = validator;
+    this.maxItems = maxItems;
+  }
+
+  @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON_VALUE})
+  public ResponseEntity<?> submitBulk(
+      HttpServletRequest httpRequest,
+      @RequestHeader HttpHeaders headers
+  ) throws IOException {
+    // 헤더(tenant/priority)는 모든 항목에 적용, 없으면 항목별 parameters 값
+    SubmitOptions options = InferenceController.submitOptions(headers);
+    List<BulkSubmitResponse.Item> items = new ArrayList<>();
+    int accepted = 0;
+    int rejected = 0;
+    String error = null;
+
+    try (InputStream in = httpRequest.getInputStream(); JsonParser parser = objectMapper.createParser(in)) {
+      JsonToken first = parser.nextToken();
+      boolean array = first == JsonToken.START_ARRAY;
+      JsonToken token = array ? parser.nextToken() : first;
+
+      while (token != null && token != JsonToken.END_ARRAY) {
+        if (items.size() >= maxItems) {
+          error = "too_many_items: max " + maxItems;
+          break;
+        }
+        if (token != JsonToken.START_OBJECT) {
+          error = "malformed_json at item " + items.size();
+          break;
+        }
+        InferenceRequest request = requestReader.readValue(parser);
+        BulkSubmitResponse.Item item = submitOne(items.size(), request, options);
+        items.add(item);
+        if (item.status() == Status.REJECTED) {
+          rejected++;
+        } else {
+          accepted++;
+        }
+        token = parser.nextToken();
+      }
+    } catch (JsonProcessingException e) {
+      if (items.isEmpty()) {
+        ProblemDetail pd = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
+        pd.setTitle("malformed_json");
+        pd.setDetail("Malformed JSON request body");
+        log.info("event=api.bad_request type=malformed_json endpoint=bulk");
+        return ResponseEntity.badRequest().body(pd);
+      }
+      error = "malformed_json at item " + items.size();
+    }
+
+    log.info("event=inference.bulk_submitted items={} accepted={} rejected={} error={}",
+        items.size(), accepted, rejected, error);
+    return ResponseEntity.ok(new BulkSubmitResponse(accepted, rejected, items, error));
+  }
+
+  private BulkSubmitResponse.Item submitOne(int index, InferenceRequest request, SubmitOptions options) {
+    String rid = InferenceController.normalizeOrGenerateRequestId(null, request.getClientRequestId());
+    Set<ConstraintViolation<InferenceRequest>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      String fields = violations.stream()
+          .map(v -> v.getPropertyPath().toString())
+          .sorted()
+          .collect(Collectors.joining(","));
+      return new BulkSubmitResponse.Item(index, rid, Status.REJECTED, "validation_failed: " + fields);
+    }
+    try (var ignored = MDC.putCloseable("requestId", rid)) {
+      // 단건 제출과 같은 load shedding: 추정 대기가 예산을 넘으면 이 항목만 거절하고 나머지는 계속 판정한다
+      inferenceService.admit(rid, options);
+      InferenceResponse r = inferenceService.submit(rid, request, options);
+      return new BulkSubmitResponse.Item(index, r.getRequestId(), r.getStatus(), r.getError());
+    } catch (OverloadedException e) {
+      return new BulkSubmitResponse.Item(index, rid, Status.REJECTED, OVERLOADED_ERROR);
+    }
+  }
+}
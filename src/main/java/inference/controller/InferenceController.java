@@ -3,69 +3,244 @@ package inference.controller;
 import inference.model.InferenceRequest;
 import inference.model.InferenceResponse;
 import inference.model.InferenceResponse.Status;
+import inference.model.SubmitOptions;
+import inference.service.InferenceEventBus;
 import inference.service.InferenceService;
 import jakarta.validation.Valid;
 import java.net.URI;
 import java.util.UUID;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/v1/inference")
 public class InferenceController {
   private static final String REQUEST_ID_HEADER = "X-Request-Id";
+  private static final String TENANT_HEADER = "X-Tenant-Id";
+  private static final String PRIORITY_HEADER = "X-Priority";
+  private static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+  private static final String PREFER_HEADER = "Prefer";
+  private static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
   private static final Logger log = LoggerFactory.getLogger(InferenceController.class);
 
   private final InferenceService inferenceService;
+  private final long streamTimeoutMs;
+  private final long longPollMaxWaitMs;
+  private final long syncMaxWaitMs;
+  private final ExecutorService streamExecutor;
+  private final int streamMaxBufferedEvents;
 
-  public InferenceController(InferenceService inferenceService) {
+  public InferenceController(
+      InferenceService inferenceService,
+      ExecutorService inferenceStreamExecutor,
+      @Value("${inference.stream.timeoutMs:120000}") long streamTimeoutMs,
+      @Value("${inference.stream.maxBufferedEvents:256}") int streamMaxBufferedEvents,
+      @Value("${inference.longPoll.maxWaitMs:30000}") long longPollMaxWaitMs,
+      @Value("${inference.sync.maxWaitMs:30000}") long syncMaxWaitMs
+  ) {
     this.inferenceService = inferenceService;
+    this.streamTimeoutMs = streamTimeoutMs;
+    this.longPollMaxWaitMs = longPollMaxWaitMs;
+    this.syncMaxWaitMs = syncMaxWaitMs;
+    this.streamExecutor = inferenceStreamExecutor;
+    this.streamMaxBufferedEvents = streamMaxBufferedEvents;
   }
 
   /**
    * 비동기 제출:
    * - 202 Accepted 반환 (QUEUED)
+   * - 추정 대기가 시간 예산을 넘으면 접수 전에 503 + Retry-After
    * - Location: /v1/inference/{requestId}
    * - X-Request-Id 헤더로 추적 가능
    */
   @PostMapping
   public ResponseEntity<InferenceResponse> submit(
       @Valid @RequestBody InferenceRequest request,
-      @RequestHeader(value = REQUEST_ID_HEADER, required = false) String requestId
+      @RequestHeader(value = REQUEST_ID_HEADER, required = false) String requestId,
+      @RequestHeader HttpHeaders headers
   ) {
     String rid = normalizeOrGenerateRequestId(requestId, request.getClientRequestId());
     try (var ignored = MDC.putCloseable("requestId", rid)) {
-      InferenceResponse queued = inferenceService.submit(rid, request);
+      return accept(rid, request, submitOptions(headers));
+    }
+  }
+
+  /**
+   * 동기 제출 ({@code Prefer: wait=<seconds>}, RFC 7240):
+   * - 대기 시간 안에 terminal 상태가 되면 200(REJECTED면 429)으로 결과를 바로 반환
+   * - 시간 안에 못 끝나면 기존과 같은 202 + Location으로 폴백
+   * - 대기는 DeferredResult로 하므로 동기 호출자가 Tomcat 워커를 점유하지 않는다
+   * - Prefer에 wait가 없으면 일반 비동기 제출과 같다
+   */
+  @PostMapping(headers = PREFER_HEADER)
+  public DeferredResult<ResponseEntity<InferenceResponse>> submitPreferWait(
+      @Valid @RequestBody InferenceRequest request,
+      @RequestHeader(value = REQUEST_ID_HEADER, required = false) String requestId,
+      @RequestHeader(PREFER_HEADER) String prefer,
+      @RequestHeader HttpHeaders headers
+  ) {
+    Long preferWaitMs = parsePreferWaitMs(prefer);
+    return submitAndWait(request, requestId, submitOptions(headers), preferWaitMs, preferWaitMs != null);
+  }
+
+  /**
+   * 동기 제출 ({@code ?sync=true}): Prefer wait가 없으면 inference.sync.maxWaitMs까지 기다린다.
+   */
+  @PostMapping(params = "sync=true")
+  public DeferredResult<ResponseEntity<InferenceResponse>> submitSync(
+      @Valid @RequestBody InferenceRequest request,
+      @RequestHeader(value = REQUEST_ID_HEADER, required = false) String requestId,
+      @RequestHeader(value = PREFER_HEADER, required = false) String prefer,
+      @RequestHeader HttpHeaders headers
+  ) {
+    Long preferWaitMs = parsePreferWaitMs(prefer);
+    return submitAndWait(request, requestId, submitOptions(headers),
+        preferWaitMs == null ? syncMaxWaitMs : preferWaitMs, preferWaitMs != null);
+  }
 
-      HttpHeaders headers = new HttpHeaders();
-      headers.set(REQUEST_ID_HEADER, queued.getRequestId());
-      headers.setLocation(URI.create("/v1/inference/" + queued.getRequestId()));
+  /**
+   * @param preferWait Prefer wait를 받았는지. 받았을 때만 Preference-Applied로 실제 적용한 wait(초, 올림)를 돌려준다
+   */
+  private DeferredResult<ResponseEntity<InferenceResponse>> submitAndWait(
+      InferenceRequest request,
+      String requestId,
+      SubmitOptions options,
+      Long waitMs,
+      boolean preferWait
+  ) {
+    String rid = normalizeOrGenerateRequestId(requestId, request.getClientRequestId());
+    try (var ignored = MDC.putCloseable("requestId", rid)) {
+      ResponseEntity<InferenceResponse> accepted = accept(rid, request, options);
+      if (waitMs == null || waitMs <= 0 || accepted.getStatusCode() != HttpStatus.ACCEPTED) {
+        DeferredResult<ResponseEntity<InferenceResponse>> immediate = new DeferredResult<>();
+        immediate.setResult(accepted);
+        return immediate;
+      }
 
-      if (queued.getStatus() == Status.REJECTED) {
-        // 큐 포화 등으로 접수 자체가 거절된 경우 (클라이언트는 백오프 후 재시도)
-        log.warn("event=inference.submit_rejected requestId={} status={} result={} reason={}",
-            rid, queued.getStatus(), "REJECTED", queued.getError());
-        return new ResponseEntity<>(queued, headers, HttpStatus.TOO_MANY_REQUESTS);
+      long boundedWaitMs = Math.min(waitMs, syncMaxWaitMs);
+      DeferredResult<ResponseEntity<InferenceResponse>> deferred = new DeferredResult<>(boundedWaitMs);
+      Optional<CompletableFuture<InferenceResponse>> terminal = inferenceService.whenTerminal(rid);
+      if (terminal.isEmpty()) {
+        // 접수 직후 store에서 사라진 경우(축출 등): 비동기 응답으로 폴백
+        deferred.setResult(accepted);
+        return deferred;
       }
 
-      log.info("event=inference.submit_accepted requestId={} status={} model={} promptChars={}",
-          rid, queued.getStatus(), request.getModel(), request.getPrompt() == null ? 0 : request.getPrompt().length());
-      return new ResponseEntity<>(queued, headers, HttpStatus.ACCEPTED);
+      CompletableFuture<InferenceResponse> future = terminal.get();
+      String preferenceApplied = preferWait ? "wait=" + ((boundedWaitMs + 999) / 1000) : null;
+      future.thenAccept(r -> {
+        HttpHeaders headers = locationHeaders(r.getRequestId());
+        if (preferenceApplied != null) {
+          headers.set(PREFERENCE_APPLIED_HEADER, preferenceApplied);
+        }
+        HttpStatus status = r.getStatus() == Status.REJECTED ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.OK;
+        log.info("event=inference.sync_completed requestId={} status={} latencyMs={}",
+            r.getRequestId(), r.getStatus(), r.getLatencyMs());
+        deferred.setResult(new ResponseEntity<>(r, headers, status));
+      });
+      deferred.onTimeout(() -> {
+        InferenceResponse current = inferenceService.get(rid).orElse(accepted.getBody());
+        log.info("event=inference.sync_fallback requestId={} status={} waitMs={}", rid, current.getStatus(), boundedWaitMs);
+        deferred.setResult(new ResponseEntity<>(current, locationHeaders(rid), HttpStatus.ACCEPTED));
+      });
+      deferred.onCompletion(() -> future.cancel(false));
+      return deferred;
     }
   }
 
+  private ResponseEntity<InferenceResponse> accept(String rid, InferenceRequest request, SubmitOptions options) {
+    // 추정 대기가 시간 예산을 넘으면 여기서 503 + Retry-After (store/큐에 아무 것도 남기지 않음)
+    inferenceService.admit(rid, options);
+    InferenceResponse queued = inferenceService.submit(rid, request, options);
+    HttpHeaders headers = locationHeaders(queued.getRequestId());
+
+    if (queued.getStatus() == Status.REJECTED) {
+      // 큐 포화 등으로 접수 자체가 거절된 경우 (클라이언트는 백오프 후 재시도)
+      log.warn("event=inference.submit_rejected requestId={} status={} result={} reason={}",
+          rid, queued.getStatus(), "REJECTED", queued.getError());
+      return new ResponseEntity<>(queued, headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    log.info("event=inference.submit_accepted requestId={} status={} model={} promptChars={}",
+        rid, queued.getStatus(), request.getModel(), request.getPrompt() == null ? 0 : request.getPrompt().length());
+    return new ResponseEntity<>(queued, headers, HttpStatus.ACCEPTED);
+  }
+
+  private static HttpHeaders locationHeaders(String requestId) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(REQUEST_ID_HEADER, requestId);
+    headers.setLocation(URI.create("/v1/inference/" + requestId));
+    return headers;
+  }
+
+  /**
+   * 스케줄링 헤더(X-Tenant-Id, X-Priority, X-Request-Timeout-Ms)와 캐시 opt-out(Cache-Control). 없으면 본문 parameters의 값을 쓴다.
+   */
+  static SubmitOptions submitOptions(HttpHeaders headers) {
+    String priority = headers.getFirst(PRIORITY_HEADER);
+    Integer parsedPriority = null;
+    if (priority != null && !priority.isBlank()) {
+      try {
+        parsedPriority = Integer.parseInt(priority.trim());
+      } catch (NumberFormatException ignored) {
+        // 잘못된 값은 무시하고 기본 priority
+      }
+    }
+    String timeout = headers.getFirst(REQUEST_TIMEOUT_HEADER);
+    Long parsedTimeoutMs = null;
+    if (timeout != null && !timeout.isBlank()) {
+      try {
+        parsedTimeoutMs = Long.parseLong(timeout.trim());
+      } catch (NumberFormatException ignored) {
+        // 잘못된 값은 무시하고 서버 기본 timeout
+      }
+    }
+    String cacheControl = headers.getCacheControl();
+    boolean noCache = cacheControl != null
+        && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    return new SubmitOptions(headers.getFirst(TENANT_HEADER), parsedPriority, parsedTimeoutMs, noCache);
+  }
+
+  /**
+   * {@code Prefer: respond-async, wait=10} 형태에서 wait(초)를 ms로 꺼낸다. 없거나 잘못된 값이면 null.
+   */
+  static Long parsePreferWaitMs(String prefer) {
+    if (prefer == null) {
+      return null;
+    }
+    for (String token : prefer.split("[,;]")) {
+      String t = token.trim();
+      if (t.regionMatches(true, 0, "wait=", 0, 5)) {
+        try {
+          return Long.parseLong(t.substring(5).trim()) * 1000L;
+        } catch (NumberFormatException e) {
+          return null;
+        }
+      }
+    }
+    return null;
+  }
+
   /**
    * 상태/결과 조회:
    * - 200: 존재함
@@ -87,7 +262,133 @@ public class InferenceController {
     }
   }
 
-  private static String normalizeOrGenerateRequestId(String headerRequestId, String clientRequestId) {
+  /**
+   * 취소:
+   * - 200: CANCELLED로 바뀐 상태 (QUEUED는 큐에서 빠지고, RUNNING은 워커 interrupt + permit 즉시 반납)
+   * - 409: 이미 terminal이라 취소하지 않음 (현재 상태를 본문으로). 이미 CANCELLED면 200
+   * - 404: 모름
+   */
+  @DeleteMapping("/{requestId}")
+  public ResponseEntity<InferenceResponse> cancel(@PathVariable String requestId) {
+    try (var ignored = MDC.putCloseable("requestId", requestId)) {
+      Optional<InferenceResponse> r = inferenceService.cancel(requestId);
+      if (r.isEmpty()) {
+        log.info("event=inference.cancel_not_found requestId={}", requestId);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+      }
+      if (r.get().getStatus() != Status.CANCELLED) {
+        log.info("event=inference.cancel_conflict requestId={} status={}", requestId, r.get().getStatus());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .header(REQUEST_ID_HEADER, requestId)
+            .body(r.get());
+      }
+      return found(r.get());
+    }
+  }
+
+  /**
+   * Long-poll 조회 ({@code ?waitMs=N}):
+   * - terminal 상태가 되면 즉시 200으로 응답, waitMs가 지나면 그 시점의 상태로 200 응답
+   * - 대기는 DeferredResult(servlet async)로 하므로 Tomcat 스레드를 점유하지 않는다
+   * - waitMs는 inference.longPoll.maxWaitMs로 상한을 둔다. 0 이하면 기다리지 않고 현재 상태로 바로 응답한다(일반 GET과 같다)
+   * - {@code cancelOnDisconnect=true}: 대기 중 클라이언트 연결이 끊기면(컨테이너가 async 오류로 알린 경우) 작업을 취소한다.
+   *   waitMs 만료는 연결 종료가 아니므로 취소하지 않는다
+   */
+  @GetMapping(path = "/{requestId}", params = "waitMs")
+  public DeferredResult<ResponseEntity<InferenceResponse>> longPoll(
+      @PathVariable String requestId,
+      @RequestParam long waitMs,
+      @RequestParam(defaultValue = "false") boolean cancelOnDisconnect
+  ) {
+    try (var ignored = MDC.putCloseable("requestId", requestId)) {
+      long boundedWaitMs = Math.max(0, Math.min(waitMs, longPollMaxWaitMs));
+      if (boundedWaitMs <= 0) {
+        // async timeout 0은 "만료 없음"이므로 DeferredResult에 넘기지 않고 현재 상태로 바로 응답한다
+        DeferredResult<ResponseEntity<InferenceResponse>> immediate = new DeferredResult<>();
+        immediate.setResult(get(requestId));
+        return immediate;
+      }
+      DeferredResult<ResponseEntity<InferenceResponse>> deferred = new DeferredResult<>(boundedWaitMs);
+
+      Optional<CompletableFuture<InferenceResponse>> terminal = inferenceService.whenTerminal(requestId);
+      if (terminal.isEmpty()) {
+        log.info("event=inference.get_not_found requestId={} waitMs={}", requestId, boundedWaitMs);
+        deferred.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        return deferred;
+      }
+
+      CompletableFuture<InferenceResponse> future = terminal.get();
+      future.thenAccept(r -> deferred.setResult(found(r)));
+      deferred.onTimeout(() -> deferred.setResult(inferenceService.get(requestId)
+          .map(InferenceController::found)
+          .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build())));
+      if (cancelOnDisconnect) {
+        deferred.onError(e -> cancelOnDisconnect(requestId, "long_poll"));
+      }
+      // timeout/클라이언트 이탈 시 구독 정리
+      deferred.onCompletion(() -> future.cancel(false));
+      return deferred;
+    }
+  }
+
+  /**
+   * SSE 스트림:
+   * - event=status: 상태 전이마다 InferenceResponse(JSON)
+   * - event=chunk: 실행 중 생성되는 output 조각(구독 이후 분량)
+   * - terminal 상태를 보내면 스트림을 닫는다.
+   * 핸들러는 SseEmitter만 등록하고 바로 반환하므로(servlet async) 열린 스트림이 servlet 스레드를 점유하지 않는다.
+   * {@code cancelOnDisconnect=true}: 이벤트 전송이 실패하면(클라이언트 이탈) 작업을 취소한다.
+   * 이탈은 다음 이벤트(실행 중에는 chunk마다)를 보낼 때 드러난다.
+   * 전송은 워커가 아니라 {@link SseStreamRelay}의 스트림별 유한 큐 + executor에서 한다. 느린 클라이언트로 큐가 넘치면 스트림만 닫는다.
+   */
+  @GetMapping(path = "/{requestId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> stream(
+      @PathVariable String requestId,
+      @RequestParam(defaultValue = "false") boolean cancelOnDisconnect
+  ) {
+    try (var ignored = MDC.putCloseable("requestId", requestId)) {
+      if (inferenceService.get(requestId).isEmpty()) {
+        log.info("event=inference.stream_not_found requestId={}", requestId);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+      }
+
+      SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+      Runnable onDisconnect = cancelOnDisconnect ? () -> cancelOnDisconnect(requestId, "stream") : () -> {};
+      SseStreamRelay listener = new SseStreamRelay(requestId, emitter, onDisconnect, streamExecutor, streamMaxBufferedEvents);
+      InferenceEventBus.Subscription subscription = inferenceService.subscribe(requestId, listener);
+      emitter.onCompletion(subscription::close);
+      emitter.onTimeout(() -> {
+        subscription.close();
+        emitter.complete();
+      });
+      emitter.onError(e -> {
+        subscription.close();
+        onDisconnect.run();
+      });
+
+      // 구독 이후에 현재 상태를 보내서, 구독 직전에 일어난 전이(이미 완료된 경우 포함)를 놓치지 않게 한다
+      inferenceService.get(requestId).ifPresentOrElse(listener::onStatus, emitter::complete);
+      log.info("event=inference.stream_opened requestId={}", requestId);
+      return ResponseEntity.ok()
+          .header(REQUEST_ID_HEADER, requestId)
+          .body(emitter);
+    }
+  }
+
+  private void cancelOnDisconnect(String requestId, String channel) {
+    try (var ignored = MDC.putCloseable("requestId", requestId)) {
+      inferenceService.cancel(requestId).ifPresent(r ->
+          log.info("event=inference.client_disconnected requestId={} channel={} status={}", requestId, channel, r.getStatus()));
+    }
+  }
+
+  private static ResponseEntity<InferenceResponse> found(InferenceResponse r) {
+    return ResponseEntity.ok()
+        .header(REQUEST_ID_HEADER, r.getRequestId())
+        .body(r);
+  }
+
+  static String normalizeOrGenerateRequestId(String headerRequestId, String clientRequestId) {
     String candidate = firstNonBlank(headerRequestId, clientRequestId);
     if (candidate != null) {
       return candidate.length() <= 128 ? candidate : candidate.substring(0, 128);
@@ -101,4 +402,3 @@ public class InferenceController {
     return null;
   }
 }
-
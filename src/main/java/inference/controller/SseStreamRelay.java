@@ -0,0 +1,125 @@
+package inference.controller;
+
+import inference.model.InferenceResponse;
+import inference.service.InferenceEventBus;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 이벤트 버스 → SSE 스트림 하나. 리스너 콜백은 발행 스레드(permit/토큰을 쥔 워커)에서 오므로
+ * 소켓에 쓰지 않고 스트림별 유한 큐에 넣기만 한다. 실제 전송은 executor에서 스트림마다 한 번에 하나씩(순서 유지) 한다.
+ *
+ * <p>
+ * - 큐가 넘치면(클라이언트가 읽는 속도보다 이벤트가 빠름) 남은 이벤트를 버리고 스트림을 닫는다.
+ *   작업은 취소하지 않는다: 클라이언트는 GET/다시 stream으로 현재 상태를 받을 수 있다.
+ * - 전송 실패(클라이언트 이탈)는 emitter 오류로 넘겨 구독을 정리하고 onDisconnect를 부른다.
+ * </p>
+ */
+final class SseStreamRelay implements InferenceEventBus.Listener {
+  private static final Logger log = LoggerFactory.getLogger(SseStreamRelay.class);
+  /** 큐가 넘쳤다는 표시. 이것을 꺼낸 drain이 스트림을 닫는다 */
+  private static final Event OVERFLOW = new Event(null, true);
+
+  private final String requestId;
+  private final SseEmitter emitter;
+  private final Runnable onDisconnect;
+  private final Executor executor;
+  private final ArrayBlockingQueue<Event> queue;
+  private final AtomicBoolean draining = new AtomicBoolean();
+  /** 더 받지 않는다 (terminal 상태를 넣었거나 넘침) */
+  private boolean closed;
+
+  SseStreamRelay(String requestId, SseEmitter emitter, Runnable onDisconnect, Executor executor, int maxBufferedEvents) {
+    this.requestId = requestId;
+    this.emitter = emitter;
+    this.onDisconnect = onDisconnect;
+    this.executor = executor;
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, maxBufferedEvents));
+  }
+
+  @Override
+  public void onStatus(InferenceResponse state) {
+    enqueue(SseEmitter.event().name("status").data(state, MediaType.APPLICATION_JSON),
+        InferenceEventBus.isTerminal(state.getStatus()));
+  }
+
+  @Override
+  public void onChunk(String requestId, String chunk) {
+    enqueue(SseEmitter.event().name("chunk").data(chunk, MediaType.TEXT_PLAIN), false);
+  }
+
+  private void enqueue(SseEmitter.SseEventBuilder event, boolean last) {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      if (!queue.offer(new Event(event, last))) {
+        closed = true;
+        // 아직 보내지 않은 이벤트는 버리고 닫기 표시만 남긴다 (clear 직후라 자리가 있다)
+        queue.clear();
+        queue.offer(OVERFLOW);
+      } else if (last) {
+        closed = true;
+      }
+    }
+    schedule();
+  }
+
+  private void schedule() {
+    if (!draining.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      executor.execute(this::drain);
+    } catch (RejectedExecutionException e) {
+      // 종료 중: 보낼 수 없으니 스트림을 닫는다
+      draining.set(false);
+      emitter.complete();
+    }
+  }
+
+  private void drain() {
+    while (true) {
+      Event event = queue.poll();
+      if (event == null) {
+        draining.set(false);
+        // 내려놓은 직후에 들어온 이벤트는 그 enqueue의 schedule이 실패했을 수 있으므로 다시 확인한다
+        if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+          return;
+        }
+        continue;
+      }
+      if (event == OVERFLOW) {
+        log.warn("event=inference.stream_overflow requestId={} maxBufferedEvents={}",
+            requestId, queue.remainingCapacity() + queue.size());
+        queue.clear();
+        emitter.complete();
+        return;
+      }
+      try {
+        emitter.send(event.builder());
+      } catch (IOException | IllegalStateException e) {
+        synchronized (this) {
+          closed = true;
+        }
+        queue.clear();
+        emitter.completeWithError(e);
+        onDisconnect.run();
+        return;
+      }
+      if (event.last()) {
+        emitter.complete();
+        return;
+      }
+    }
+  }
+
+  private record Event(SseEmitter.SseEventBuilder builder, boolean last) {}
+}
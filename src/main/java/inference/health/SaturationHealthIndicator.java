@@ -0,0 +1,69 @@
+package inference.health;
+
+import inference.concurrency.InferenceLoad;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * readiness 그룹에 들어가는 포화도 indicator ({@code inference.saturation.readiness.*}).
+ *
+ * <p>
+ * - 켜져 있으면 saturation이 highWatermark 이상일 때 OUT_OF_SERVICE를 돌려준다. readiness probe가 실패하면
+ *   Service가 이 Pod를 endpoint에서 빼므로 새 요청은 덜 바쁜 replica로 간다(이미 받은 작업은 계속 처리한다).
+ * - 경계에서 들락날락하지 않도록 lowWatermark 이하로 내려와야 다시 UP이 된다(hysteresis).
+ * - 꺼져 있으면 항상 UP이고 현재 값만 details로 보여준다. 그룹 구성은 그대로 두고 동작만 끈다.
+ * - 모든 replica가 동시에 포화되면 endpoint가 0개가 될 수 있다. 그 상황은 HPA(saturation 지표)가 풀어야 한다.
+ * </p>
+ */
+@Component("inferenceSaturation")
+public class SaturationHealthIndicator implements HealthIndicator {
+  private static final Logger log = LoggerFactory.getLogger(SaturationHealthIndicator.class);
+
+  private final InferenceLoad load;
+  private final boolean enabled;
+  private final double highWatermark;
+  private final double lowWatermark;
+  private final AtomicBoolean shedding = new AtomicBoolean();
+
+  public SaturationHealthIndicator(
+      InferenceLoad load,
+      @Value("${inference.saturation.readiness.enabled:false}") boolean enabled,
+      @Value("${inference.saturation.readiness.highWatermark:0.9}") double highWatermark,
+      @Value("${inference.saturation.readiness.lowWatermark:0.7}") double lowWatermark
+  ) {
+    if (lowWatermark > highWatermark) {
+      throw new IllegalArgumentException("lowWatermark must not exceed highWatermark");
+    }
+    this.load = load;
+    this.enabled = enabled;
+    this.highWatermark = highWatermark;
+    this.lowWatermark = lowWatermark;
+  }
+
+  @Override
+  public Health health() {
+    double saturation = load.saturation();
+    boolean out = enabled && updateShedding(saturation);
+    return (out ? Health.outOfService() : Health.up())
+        .withDetail("saturation", saturation)
+        .withDetail("queueDepth", load.queueDepth())
+        .withDetail("inFlight", load.inFlight())
+        .withDetail("capacity", load.capacity())
+        .withDetail("highWatermark", highWatermark)
+        .build();
+  }
+
+  private boolean updateShedding(double saturation) {
+    if (saturation >= highWatermark && shedding.compareAndSet(false, true)) {
+      log.warn("event=inference.readiness_out_of_service saturation={} highWatermark={}", saturation, highWatermark);
+    } else if (saturation <= lowWatermark && shedding.compareAndSet(true, false)) {
+      log.info("event=inference.readiness_restored saturation={} lowWatermark={}", saturation, lowWatermark);
+    }
+    return shedding.get();
+  }
+}
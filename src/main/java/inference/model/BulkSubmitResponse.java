@@ -0,0 +1,27 @@
+package inference.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import inference.model.InferenceResponse.Status;
+import java.util.List;
+
+/**
+ * 일괄 제출 결과. items는 요청 본문 순서(index)와 같다.
+ *
+ * @param error 본문 중간에 JSON 파싱이 실패한 경우에만 채워진다 (그 전까지의 항목은 이미 접수됨)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkSubmitResponse(
+    int accepted,
+    int rejected,
+    List<Item> items,
+    String error
+) {
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record Item(
+      int index,
+      String requestId,
+      Status status,
+      String error
+  ) {}
+}
@@ -1,100 +1,258 @@
 package inference.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 import java.time.Instant;
 
-public class InferenceResponse {
+/**
+ * 작업 상태의 불변 스냅샷.
+ *
+ * <p>
+ * - 상태를 바꿀 때는 {@link #toBuilder()}로 새 스냅샷을 만들고 {@code InferenceStore.transition}으로 교체한다.
+ *   그래서 GET/SSE가 직렬화하는 객체가 도중에 바뀌지 않는다(예: SUCCEEDED인데 completedAt이 없는 상태를 볼 수 없다).
+ * - version은 store가 전이마다 1씩 올린다. 최초 접수 스냅샷이 1이다.
+ * </p>
+ */
+@JsonDeserialize(builder = InferenceResponse.Builder.class)
+public final class InferenceResponse {
   public enum Status {
     QUEUED,
     RUNNING,
     SUCCEEDED,
     FAILED,
-    REJECTED
+    REJECTED,
+    /** 클라이언트 요청(DELETE 또는 연결 종료)으로 취소됨. 저장 포맷이 ordinal을 쓰므로 새 상태는 끝에 붙인다 */
+    CANCELLED;
+
+    /**
+     * 허용되는 상태 전이.
+     * QUEUED → 모든 상태 (QUEUED → QUEUED는 실행 전 메타데이터 갱신, 예: 코얼레싱 leader 지정),
+     * RUNNING → SUCCEEDED/FAILED/CANCELLED, terminal → 없음.
+     */
+    public boolean canTransitionTo(Status next) {
+      if (next == null) {
+        return false;
+      }
+      return switch (this) {
+        case QUEUED -> true;
+        case RUNNING -> next == SUCCEEDED || next == FAILED || next == CANCELLED;
+        default -> false;
+      };
+    }
   }
 
-  private String requestId;
-  private Status status;
+  private final String requestId;
+  private final Status status;
+  private final long version;
 
-  private Instant receivedAt;
-  private Instant startedAt;
-  private Instant completedAt;
-  private Long latencyMs;
+  private final Instant receivedAt;
+  /** receivedAt + 시간 예산. 큐 대기와 실행을 합친 end-to-end deadline */
+  private final Instant deadlineAt;
+  private final Instant startedAt;
+  private final Instant completedAt;
+  private final Long latencyMs;
 
   /**
    * 실제 모델 품질이 목적이 아니므로 output은 단순 문자열로 둔다.
    */
-  private String output;
-  private String error;
+  private final String output;
+  private final String error;
+  /** 응답 캐시에서 바로 완료된 경우 true (그 외 null) */
+  private final Boolean cached;
+  /** prefix 캐시에서 재사용한 prompt 비율(0~1). prefix 캐시가 꺼져 있으면 null */
+  private final Double prefixHitRatio;
+  /** 같은 요청에 follower로 붙은 경우 leader의 requestId (그 외 null) */
+  private final String coalescedWith;
+
+  private InferenceResponse(Builder b) {
+    this.requestId = b.requestId;
+    this.status = b.status;
+    this.version = b.version;
+    this.receivedAt = b.receivedAt;
+    this.deadlineAt = b.deadlineAt;
+    this.startedAt = b.startedAt;
+    this.completedAt = b.completedAt;
+    this.latencyMs = b.latencyMs;
+    this.output = b.output;
+    this.error = b.error;
+    this.cached = b.cached;
+    this.prefixHitRatio = b.prefixHitRatio;
+    this.coalescedWith = b.coalescedWith;
+  }
 
   public static InferenceResponse queued(String requestId, Instant receivedAt) {
-    InferenceResponse r = new InferenceResponse();
-    r.requestId = requestId;
-    r.status = Status.QUEUED;
-    r.receivedAt = receivedAt;
-    return r;
+    return queued(requestId, receivedAt, null);
   }
 
-  public String getRequestId() {
-    return requestId;
+  public static InferenceResponse queued(String requestId, Instant receivedAt, Instant deadlineAt) {
+    return builder()
+        .requestId(requestId)
+        .status(Status.QUEUED)
+        .version(1)
+        .receivedAt(receivedAt)
+        .deadlineAt(deadlineAt)
+        .build();
   }
 
-  public void setRequestId(String requestId) {
-    this.requestId = requestId;
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public Builder toBuilder() {
+    Builder b = new Builder();
+    b.requestId = requestId;
+    b.status = status;
+    b.version = version;
+    b.receivedAt = receivedAt;
+    b.deadlineAt = deadlineAt;
+    b.startedAt = startedAt;
+    b.completedAt = completedAt;
+    b.latencyMs = latencyMs;
+    b.output = output;
+    b.error = error;
+    b.cached = cached;
+    b.prefixHitRatio = prefixHitRatio;
+    b.coalescedWith = coalescedWith;
+    return b;
+  }
+
+  public String getRequestId() {
+    return requestId;
   }
 
   public Status getStatus() {
     return status;
   }
 
-  public void setStatus(Status status) {
-    this.status = status;
+  public long getVersion() {
+    return version;
   }
 
   public Instant getReceivedAt() {
     return receivedAt;
   }
 
-  public void setReceivedAt(Instant receivedAt) {
-    this.receivedAt = receivedAt;
+  public Instant getDeadlineAt() {
+    return deadlineAt;
   }
 
   public Instant getStartedAt() {
     return startedAt;
   }
 
-  public void setStartedAt(Instant startedAt) {
-    this.startedAt = startedAt;
-  }
-
   public Instant getCompletedAt() {
     return completedAt;
   }
 
-  public void setCompletedAt(Instant completedAt) {
-    this.completedAt = completedAt;
-  }
-
   public Long getLatencyMs() {
     return latencyMs;
   }
 
-  public void setLatencyMs(Long latencyMs) {
-    this.latencyMs = latencyMs;
-  }
-
   public String getOutput() {
     return output;
   }
 
-  public void setOutput(String output) {
-    this.output = output;
-  }
-
   public String getError() {
     return error;
   }
 
-  public void setError(String error) {
-    this.error = error;
+  public Boolean getCached() {
+    return cached;
   }
-}
 
+  public Double getPrefixHitRatio() {
+    return prefixHitRatio;
+  }
+
+  public String getCoalescedWith() {
+    return coalescedWith;
+  }
+
+  @JsonPOJOBuilder(withPrefix = "")
+  public static final class Builder {
+    private String requestId;
+    private Status status;
+    private long version;
+    private Instant receivedAt;
+    private Instant deadlineAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    private Long latencyMs;
+    private String output;
+    private String error;
+    private Boolean cached;
+    private Double prefixHitRatio;
+    private String coalescedWith;
+
+    private Builder() {}
+
+    public Builder requestId(String requestId) {
+      this.requestId = requestId;
+      return this;
+    }
+
+    public Builder status(Status status) {
+      this.status = status;
+      return this;
+    }
+
+    public Builder version(long version) {
+      this.version = version;
+      return this;
+    }
+
+    public Builder receivedAt(Instant receivedAt) {
+      this.receivedAt = receivedAt;
+      return this;
+    }
+
+    public Builder deadlineAt(Instant deadlineAt) {
+      this.deadlineAt = deadlineAt;
+      return this;
+    }
+
+    public Builder startedAt(Instant startedAt) {
+      this.startedAt = startedAt;
+      return this;
+    }
+
+    public Builder completedAt(Instant completedAt) {
+      this.completedAt = completedAt;
+      return this;
+    }
+
+    public Builder latencyMs(Long latencyMs) {
+      this.latencyMs = latencyMs;
+      return this;
+    }
+
+    public Builder output(String output) {
+      this.output = output;
+      return this;
+    }
+
+    public Builder error(String error) {
+      this.error = error;
+      return this;
+    }
+
+    public Builder cached(Boolean cached) {
+      this.cached = cached;
+      return this;
+    }
+
+    public Builder prefixHitRatio(Double prefixHitRatio) {
+      this.prefixHitRatio = prefixHitRatio;
+      return this;
+    }
+
+    public Builder coalescedWith(String coalescedWith) {
+      this.coalescedWith = coalescedWith;
+      return this;
+    }
+
+    public InferenceResponse build() {
+      return new InferenceResponse(this);
+    }
+  }
+}
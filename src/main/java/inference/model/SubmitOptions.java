@@ -0,0 +1,60 @@
+package inference.model;
+
+import java.util.Map;
+
+/**
+ * 제출 시 본문 밖(HTTP 헤더 등)에서 들어오는 스케줄링 속성.
+ * 헤더 값이 없으면 {@link InferenceRequest#getParameters()}의 같은 이름 키를 사용한다.
+ *
+ * @param tenant    X-Tenant-Id (또는 parameters.tenant)
+ * @param priority  X-Priority (또는 parameters.priority), 클수록 먼저 처리
+ * @param timeoutMs X-Request-Timeout-Ms, 접수 시점부터의 end-to-end 시간 예산 (서버 timeout보다 길게는 못 늘린다)
+ * @param noCache   Cache-Control: no-cache/no-store (또는 parameters.cache=false), 응답 캐시를 읽지도 쓰지도 않는다
+ */
+public record SubmitOptions(String tenant, Integer priority, Long timeoutMs, boolean noCache) {
+
+  public static final SubmitOptions NONE = new SubmitOptions(null, null, null, false);
+
+  public SubmitOptions(String tenant, Integer priority) {
+    this(tenant, priority, null, false);
+  }
+
+  public boolean cacheable(InferenceRequest request) {
+    if (noCache) {
+      return false;
+    }
+    Object v = parameter(request, "cache");
+    return !(Boolean.FALSE.equals(v) || "false".equals(v));
+  }
+
+  public String effectiveTenant(InferenceRequest request) {
+    if (tenant != null && !tenant.isBlank()) {
+      return tenant;
+    }
+    Object v = parameter(request, "tenant");
+    return v == null ? null : v.toString();
+  }
+
+  public int effectivePriority(InferenceRequest request) {
+    if (priority != null) {
+      return priority;
+    }
+    Object v = parameter(request, "priority");
+    if (v instanceof Number n) {
+      return n.intValue();
+    }
+    if (v instanceof String s) {
+      try {
+        return Integer.parseInt(s.trim());
+      } catch (NumberFormatException ignored) {
+        return 0;
+      }
+    }
+    return 0;
+  }
+
+  private static Object parameter(InferenceRequest request, String key) {
+    Map<String, Object> params = request.getParameters();
+    return params == null ? null : params.get(key);
+  }
+}
@@ -0,0 +1,90 @@
+package inference.service;
+
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * requestId 단위의 작업 이벤트(상태 전이, 출력 chunk) 구독/발행.
+ *
+ * <p>
+ * - 구독자가 없으면 발행 비용은 map 조회 1회다 (hot path).
+ * - terminal 상태(SUCCEEDED/FAILED/REJECTED/CANCELLED, {@link #isTerminal})를 발행하면 해당 requestId의 구독은 모두 정리된다.
+ * - 리스너는 발행 스레드(워커)에서 호출되므로 블로킹하면 안 된다.
+ * </p>
+ */
+@Component
+public class InferenceEventBus {
+  private static final Logger log = LoggerFactory.getLogger(InferenceEventBus.class);
+
+  private final ConcurrentHashMap<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+  /**
+   * @return 구독 해제 핸들 (여러 번 호출해도 안전)
+   */
+  public Subscription subscribe(String requestId, Listener listener) {
+    listeners.computeIfAbsent(requestId, k -> new CopyOnWriteArrayList<>()).add(listener);
+    return () -> listeners.computeIfPresent(requestId, (k, list) -> {
+      list.remove(listener);
+      return list.isEmpty() ? null : list;
+    });
+  }
+
+  public void publishStatus(InferenceResponse state) {
+    List<Listener> subscribers = isTerminal(state.getStatus())
+        ? listeners.remove(state.getRequestId())
+        : listeners.get(state.getRequestId());
+    if (subscribers == null) {
+      return;
+    }
+    for (Listener l : subscribers) {
+      try {
+        l.onStatus(state);
+      } catch (RuntimeException e) {
+        log.warn("event=inference.listener_failed requestId={} kind=status exceptionType={}",
+            state.getRequestId(), e.getClass().getName());
+      }
+    }
+  }
+
+  public void publishChunk(String requestId, String chunk) {
+    List<Listener> subscribers = listeners.get(requestId);
+    if (subscribers == null) {
+      return;
+    }
+    for (Listener l : subscribers) {
+      try {
+        l.onChunk(requestId, chunk);
+      } catch (RuntimeException e) {
+        log.warn("event=inference.listener_failed requestId={} kind=chunk exceptionType={}",
+            requestId, e.getClass().getName());
+      }
+    }
+  }
+
+  public boolean hasSubscribers(String requestId) {
+    return listeners.containsKey(requestId);
+  }
+
+  public static boolean isTerminal(Status status) {
+    return status == Status.SUCCEEDED || status == Status.FAILED || status == Status.REJECTED
+        || status == Status.CANCELLED;
+  }
+
+  public interface Listener {
+    void onStatus(InferenceResponse state);
+
+    default void onChunk(String requestId, String chunk) {}
+  }
+
+  @FunctionalInterface
+  public interface Subscription extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
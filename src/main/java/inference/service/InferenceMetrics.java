@@ -0,0 +1,155 @@
+package inference.service;
+
+import inference.model.InferenceResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 작업 수명 구간별 timer와 거절 사유별 counter.
+ *
+ * <p>
+ * - 구간: queue wait(접수 → 워커가 꺼냄), acquire wait(꺼냄 → permit 획득/포기), run(permit 획득 → 종료),
+ *   end-to-end(접수 → 종료). 모두 종료 시점에 최종 result 태그로 한 번에 기록한다.
+ * - hot path에서 할당하지 않도록 model별 timer 묶음을 처음 한 번만 만들고, result는 배열 인덱스로 고른다.
+ *   시각은 {@link System#nanoTime()} long으로만 다룬다.
+ * - model 태그 카디널리티는 {@link #MAX_MODELS}로 제한하고, 넘치면 {@code other}로 모은다.
+ * </p>
+ */
+final class InferenceMetrics {
+
+  static final int MAX_MODELS = 32;
+  static final String UNKNOWN_MODEL = "unknown";
+  static final String OTHER_MODEL = "other";
+
+  enum Result {
+    SUCCESS,
+    TIMEOUT,
+    REJECTED,
+    FAILED,
+    /** 응답 캐시 hit: 큐/실행 구간 없이 end-to-end만 기록 */
+    CACHED,
+    /** 클라이언트 취소. 실행 중에 취소되면 run도 취소 시점까지 기록 */
+    CANCELLED;
+
+    final String tag = name().toLowerCase(Locale.ROOT);
+  }
+
+  enum Rejection {
+    QUEUE_FULL,
+    CONCURRENCY_LIMIT_REACHED,
+    DEADLINE_EXCEEDED,
+    TIMEOUT,
+    /** 접수 단계 load shedding (store/큐에 쓰기 전) */
+    OVERLOADED,
+    /** 실행 중 작업들의 추정 토큰 합이 상한이라 제때 토큰을 못 얻음 */
+    TOKEN_BUDGET_EXHAUSTED;
+
+    final String tag = name().toLowerCase(Locale.ROOT);
+  }
+
+  private final MeterRegistry registry;
+  private final ConcurrentHashMap<String, ModelTimers> byModel = new ConcurrentHashMap<>();
+  private final Counter[] rejections = new Counter[Rejection.values().length];
+  private final Counter cancelledQueued;
+  private final Counter cancelledRunning;
+
+  InferenceMetrics(MeterRegistry registry) {
+    this.registry = registry;
+    for (Rejection r : Rejection.values()) {
+      rejections[r.ordinal()] = Counter.builder("inference.rejections")
+          .description("Requests that did not produce a result, by reason")
+          .tag("reason", r.tag)
+          .register(registry);
+    }
+    cancelledQueued = cancellations(registry, "queued");
+    cancelledRunning = cancellations(registry, "running");
+  }
+
+  private static Counter cancellations(MeterRegistry registry, String from) {
+    return Counter.builder("inference.cancellations")
+        .description("Jobs cancelled by clients, by the state they were in")
+        .tag("from", from)
+        .register(registry);
+  }
+
+  /** 접수 시점에 한 번 호출해서 작업에 들고 다닌다. */
+  ModelTimers forModel(String model) {
+    String key = model == null || model.isBlank() ? UNKNOWN_MODEL : model;
+    ModelTimers timers = byModel.get(key);
+    if (timers != null) {
+      return timers;
+    }
+    if (byModel.size() >= MAX_MODELS) {
+      return byModel.computeIfAbsent(OTHER_MODEL, this::newTimers);
+    }
+    return byModel.computeIfAbsent(key, this::newTimers);
+  }
+
+  void rejected(Rejection reason) {
+    rejections[reason.ordinal()].increment();
+  }
+
+  void cancelled(InferenceResponse.Status from) {
+    (from == InferenceResponse.Status.RUNNING ? cancelledRunning : cancelledQueued).increment();
+  }
+
+  private ModelTimers newTimers(String model) {
+    return new ModelTimers(
+        timers("inference.queue.wait", "Time from submit until a worker picked the job up", model),
+        timers("inference.permit.wait", "Time a worker waited for a concurrency permit", model),
+        timers("inference.run", "Execution time while holding a permit", model),
+        timers("inference.e2e", "Time from submit until the job reached a terminal state", model));
+  }
+
+  private Timer[] timers(String name, String description, String model) {
+    Timer[] byResult = new Timer[Result.values().length];
+    for (Result r : Result.values()) {
+      byResult[r.ordinal()] = Timer.builder(name)
+          .description(description)
+          .tag("model", model)
+          .tag("result", r.tag)
+          .publishPercentileHistogram()
+          .minimumExpectedValue(Duration.ofMillis(1))
+          .maximumExpectedValue(Duration.ofSeconds(60))
+          .register(registry);
+    }
+    return byResult;
+  }
+
+  static final class ModelTimers {
+    private final Timer[] queueWait;
+    private final Timer[] permitWait;
+    private final Timer[] run;
+    private final Timer[] e2e;
+
+    private ModelTimers(Timer[] queueWait, Timer[] permitWait, Timer[] run, Timer[] e2e) {
+      this.queueWait = queueWait;
+      this.permitWait = permitWait;
+      this.run = run;
+      this.e2e = e2e;
+    }
+
+    /**
+     * 각 시각은 {@link System#nanoTime()} 값이고, 도달하지 못한 구간은 0이다.
+     * run은 permit을 얻고 실행에 들어간 작업(SUCCESS/TIMEOUT/FAILED)만 기록한다.
+     */
+    void record(Result result, long receivedNanos, long dequeuedNanos, long acquiredNanos, long endNanos) {
+      int i = result.ordinal();
+      if (dequeuedNanos != 0) {
+        queueWait[i].record(dequeuedNanos - receivedNanos, TimeUnit.NANOSECONDS);
+        if (acquiredNanos != 0) {
+          permitWait[i].record(acquiredNanos - dequeuedNanos, TimeUnit.NANOSECONDS);
+          if (result != Result.REJECTED) {
+            run[i].record(endNanos - acquiredNanos, TimeUnit.NANOSECONDS);
+          }
+        }
+      }
+      e2e[i].record(endNanos - receivedNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -1,82 +1,225 @@
 package inference.service;
 
+import inference.backend.BackendException;
+import inference.backend.BackendRequest;
+import inference.backend.InferenceBackend;
+import inference.cache.PrefixIndex;
+import inference.cache.RequestFingerprint;
+import inference.cache.ResponseCache;
+import inference.concurrency.ConcurrencyLimiter;
+import inference.concurrency.HashedWheelTimer;
+import inference.concurrency.MicroBatcher;
+import inference.concurrency.SchedulableTask;
+import inference.concurrency.TokenBudget;
+import inference.concurrency.WaitEstimator;
+import inference.config.BatchingConfig.InferenceBatchingProperties;
+import inference.config.ConcurrencyConfig.InferenceAdmissionProperties;
+import inference.config.ConcurrencyConfig.ExecutionMode;
 import inference.config.ConcurrencyConfig.InferenceConcurrencyProperties;
 import inference.config.ConcurrencyConfig.InferenceProcessingProperties;
+import inference.config.StoreConfig.InferenceStoreProperties;
 import inference.model.InferenceRequest;
 import inference.model.InferenceResponse;
 import inference.model.InferenceResponse.Status;
+import inference.model.SubmitOptions;
+import inference.service.InferenceMetrics.Rejection;
+import inference.service.InferenceMetrics.Result;
 import inference.store.InferenceStore;
+import inference.tokenizer.TokenEstimate;
+import inference.tokenizer.TokenEstimator;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 @Service
 public class InferenceService {
   private static final Logger log = LoggerFactory.getLogger(InferenceService.class);
-  private static volatile long CPU_SINK = 0L;
 
   private final Clock clock;
-  private final Semaphore semaphore;
-  private final ThreadPoolTaskExecutor executor;
+  private final ConcurrencyLimiter limiter;
+  private final TaskExecutor executor;
   private final InferenceConcurrencyProperties props;
   private final InferenceProcessingProperties processing;
   private final InferenceStore store;
+  private final InferenceEventBus eventBus;
+  /** 배칭이 꺼져 있으면 null */
+  private final MicroBatcher<Dispatched> batcher;
+  private final ResponseCache responseCache;
+  private final PrefixIndex prefixIndex;
+  private final RequestCoalescer coalescer;
+  private final long idempotencyWindowMs;
+  private final InferenceMetrics metrics;
+  private final WaitEstimator waitEstimator;
+  private final boolean sheddingEnabled;
+  private final HashedWheelTimer timeoutTimer;
+  private final TokenEstimator tokenEstimator;
+  private final TokenBudget tokenBudget;
+  private final InferenceBackend backend;
+  /** 큐에 넣은 뒤 아직 끝나지 않은 작업 (취소 시 큐에서 빼거나 워커를 interrupt하기 위해) */
+  private final ConcurrentHashMap<String, Job> executions = new ConcurrentHashMap<>();
 
   public InferenceService(
       Clock clock,
-      Semaphore inferenceSemaphore,
-      ThreadPoolTaskExecutor inferenceExecutor,
+      ConcurrencyLimiter inferenceLimiter,
+      TaskExecutor inferenceExecutor,
       InferenceConcurrencyProperties props,
       InferenceProcessingProperties processing,
-      InferenceStore store
+      InferenceStore store,
+      InferenceStoreProperties storeProps,
+      InferenceEventBus eventBus,
+      InferenceBatchingProperties batching,
+      ResponseCache responseCache,
+      PrefixIndex prefixIndex,
+      RequestCoalescer coalescer,
+      WaitEstimator waitEstimator,
+      InferenceAdmissionProperties admission,
+      HashedWheelTimer inferenceTimeoutTimer,
+      TokenEstimator tokenEstimator,
+      TokenBudget inferenceTokenBudget,
+      InferenceBackend inferenceBackend,
+      MeterRegistry meterRegistry
   ) {
     this.clock = clock;
-    this.semaphore = inferenceSemaphore;
+    this.limiter = inferenceLimiter;
     this.executor = inferenceExecutor;
     this.props = props;
     this.processing = processing;
     this.store = store;
+    this.eventBus = eventBus;
+    this.batcher = batching.enabled()
+        ? new MicroBatcher<>(batching.maxBatchSize(), batching.maxWaitMs(), meterRegistry)
+        : null;
+    this.responseCache = responseCache;
+    this.prefixIndex = prefixIndex;
+    this.coalescer = coalescer;
+    this.idempotencyWindowMs = storeProps.idempotencyWindowMs();
+    this.metrics = new InferenceMetrics(meterRegistry);
+    this.waitEstimator = waitEstimator;
+    this.sheddingEnabled = admission.sheddingEnabled();
+    this.timeoutTimer = inferenceTimeoutTimer;
+    this.tokenEstimator = tokenEstimator;
+    this.tokenBudget = inferenceTokenBudget;
+    this.backend = inferenceBackend;
+  }
+
+  /**
+   * 접수 전 load shedding: 지금 큐에 넣었을 때 permit까지의 추정 대기가 요청의 시간 예산
+   * (X-Request-Timeout-Ms 또는 processing.timeoutMs)을 넘으면 store/큐에 쓰지 않고 거절한다.
+   * 어차피 deadline_exceeded로 끝날 작업이 큐 슬롯과 store 엔트리를 쓰지 않게 한다.
+   * 멱등 윈도우 안에 살아 있는 같은 requestId의 재시도는 새 작업을 만들지 않으므로 거절하지 않는다.
+   *
+   * @throws OverloadedException 추정 대기가 예산을 넘을 때
+   */
+  public void admit(String requestId, SubmitOptions options) {
+    if (!sheddingEnabled) {
+      return;
+    }
+    long estimatedWaitMs = waitEstimator.estimatedWaitMs();
+    long budgetMs = timeoutBudgetMs(options);
+    if (estimatedWaitMs <= budgetMs) {
+      return;
+    }
+    // 중복 확인은 거절할 때만 한다 (평소 접수 경로에 store 조회를 더하지 않는다)
+    if (findDuplicate(requestId, Instant.now(clock)).isPresent()) {
+      return;
+    }
+    metrics.rejected(Rejection.OVERLOADED);
+    log.warn("event=inference.submit_shed requestId={} result={} reason=overloaded estimatedWaitMs={} budgetMs={} serviceTimeMs={}",
+        requestId, "REJECTED", estimatedWaitMs, budgetMs, Math.round(waitEstimator.serviceTimeMs()));
+    throw new OverloadedException(requestId, estimatedWaitMs, budgetMs);
   }
 
   public InferenceResponse submit(String requestId, InferenceRequest request) {
+    return submit(requestId, request, SubmitOptions.NONE);
+  }
+
+  public InferenceResponse submit(String requestId, InferenceRequest request, SubmitOptions options) {
     Instant receivedAt = Instant.now(clock);
+    long receivedNanos = System.nanoTime();
+    String tenant = options.effectiveTenant(request);
+    Instant deadline = receivedAt.plusMillis(timeoutBudgetMs(options));
+
+    InferenceResponse initial = InferenceResponse.queued(requestId, receivedAt, deadline);
+
+    // 멱등 제출: 윈도우 안의 같은 requestId는 새로 실행하지 않고 기존 작업을 돌려준다.
+    // 거절된 작업은 실행된 적이 없으므로 재시도하면 새로 접수한다.
+    if (idempotencyWindowMs > 0) {
+      Instant windowStart = receivedAt.minusMillis(idempotencyWindowMs);
+      Optional<InferenceResponse> existing = store.saveIfAbsent(initial, prev -> isDuplicate(prev, windowStart));
+      if (existing.isPresent()) {
+        log.info("event=inference.submit_duplicate requestId={} status={} receivedAt={}",
+            requestId, existing.get().getStatus(), existing.get().getReceivedAt());
+        return existing.get();
+      }
+    } else {
+      store.save(initial);
+    }
 
-    InferenceResponse initial = InferenceResponse.queued(requestId, receivedAt);
-    store.save(initial);
+    boolean cacheable = responseCache.isEnabled() && options.cacheable(request);
+    String fingerprint = cacheable || coalescer.isEnabled() ? RequestFingerprint.of(request) : null;
+    String cacheKey = cacheable ? fingerprint : null;
+    if (cacheKey != null) {
+      Optional<String> cached = responseCache.get(cacheKey);
+      if (cached.isPresent()) {
+        // 캐시 hit: 큐/permit을 거치지 않고 바로 완료
+        InferenceResponse done = markCacheHit(initial, cached.get());
+        metrics.forModel(request.getModel()).record(Result.CACHED, receivedNanos, 0, 0, System.nanoTime());
+        return done != null ? done : store.find(requestId).orElse(initial);
+      }
+    }
 
+    // 같은 요청이 이미 QUEUED/RUNNING이면 follower로 붙고 끝: 큐/permit을 쓰지 않는다
+    if (coalescer.joinOrLead(fingerprint, initial) == RequestCoalescer.Role.FOLLOWER) {
+      return store.find(requestId).orElse(initial);
+    }
+
+    InferenceMetrics.ModelTimers timers = metrics.forModel(request.getModel());
+    // 토큰 비용은 실제로 큐에 들어가는 작업만 센다 (캐시 hit/follower는 백엔드를 쓰지 않는다)
+    TokenEstimate tokens = tokenEstimator.estimate(request);
+    Job job = new Job(requestId, request, tokens, deadline, cacheKey, receivedNanos, timers, new Execution());
+    executions.put(requestId, job);
     try {
-      executor.execute(() -> {
+      executor.execute(new SchedulableTask(tenant, options.effectivePriority(request), deadline.toEpochMilli(), requestId, () -> {
         try (var ignored = MDC.putCloseable("requestId", requestId)) {
-          runInference(requestId, request);
+          dispatch(job);
         }
-      });
-      log.info("event=inference.submit_enqueued requestId={} status={} model={} promptChars={}",
+      }));
+      log.info("event=inference.submit_enqueued requestId={} status={} tenant={} model={} promptChars={}",
           requestId,
           Status.QUEUED,
+          tenant,
           request.getModel(),
           request.getPrompt() == null ? 0 : request.getPrompt().length());
       return initial;
     } catch (RejectedExecutionException ree) {
+      executions.remove(requestId, job);
       // 큐가 꽉 찼을 때: 즉시 거절 (클라이언트는 백오프 후 재시도)
-      Instant completedAt = Instant.now(clock);
-      initial.setStatus(Status.REJECTED);
-      initial.setError("queue_full");
-      initial.setCompletedAt(completedAt);
-      initial.setLatencyMs(Duration.between(initial.getReceivedAt(), completedAt).toMillis());
-      store.save(initial);
-      log.warn("event=inference.submit_rejected requestId={} status={} result={} reason=queue_full queueCapacity={} latencyMs={}",
-          requestId, Status.REJECTED, "REJECTED", props.queueCapacity(), initial.getLatencyMs());
-      return initial;
+      InferenceResponse rejected = complete(initial, Status.REJECTED, null, "queue_full");
+      metrics.rejected(Rejection.QUEUE_FULL);
+      timers.record(Result.REJECTED, receivedNanos, 0, 0, System.nanoTime());
+      if (rejected == null) {
+        return store.find(requestId).orElse(initial);
+      }
+      log.warn("event=inference.submit_rejected requestId={} status={} result={} reason=queue_full tenant={} queueCapacity={} latencyMs={}",
+          requestId, Status.REJECTED, "REJECTED", tenant, props.queueCapacity(), rejected.getLatencyMs());
+      return rejected;
     }
   }
 
@@ -84,131 +227,720 @@ public class InferenceService {
     return store.find(requestId);
   }
 
-  private void runInference(String requestId, InferenceRequest request) {
+  /** submit이 새로 접수하지 않고 그대로 돌려줄 기존 작업 (멱등 윈도우 안, REJECTED 아님). */
+  private Optional<InferenceResponse> findDuplicate(String requestId, Instant now) {
+    if (idempotencyWindowMs <= 0) {
+      return Optional.empty();
+    }
+    Instant windowStart = now.minusMillis(idempotencyWindowMs);
+    return store.find(requestId).filter(prev -> isDuplicate(prev, windowStart));
+  }
+
+  private static boolean isDuplicate(InferenceResponse prev, Instant windowStart) {
+    return prev.getStatus() != Status.REJECTED && !prev.getReceivedAt().isBefore(windowStart);
+  }
+
+  /**
+   * 작업을 CANCELLED로 끝낸다.
+   * - QUEUED: executor 큐에서 빼서 슬롯을 바로 돌려준다. 이미 워커가 꺼내 permit을 기다리는 중이면 interrupt로 깨운다.
+   * - RUNNING: 워커를 interrupt해서 실행을 멈추고 permit을 바로 반납하게 한다.
+   * - 배치로 실행 중인 작업은 permit을 다른 요청과 공유하므로 interrupt하지 않는다. 상태만 CANCELLED가 되고 결과는 버린다.
+   * - 코얼레싱 follower는 실행하지 않으므로 상태만 바뀐다 (leader 취소 시 follower 처리는 {@link RequestCoalescer} 참고).
+   *
+   * @return 취소 후 상태. 이미 terminal이면 그 상태 그대로(취소하지 않음), 없으면 empty
+   */
+  public Optional<InferenceResponse> cancel(String requestId) {
+    while (true) {
+      Optional<InferenceResponse> current = store.find(requestId);
+      if (current.isEmpty() || InferenceEventBus.isTerminal(current.get().getStatus())) {
+        return current;
+      }
+      Status from = current.get().getStatus();
+      InferenceResponse cancelled = complete(current.get(), Status.CANCELLED, null, "cancelled");
+      if (cancelled == null) {
+        // 그 사이 QUEUED → RUNNING(또는 terminal)으로 바뀌었다: 새 스냅샷으로 다시 시도
+        continue;
+      }
+      Job job = executions.get(requestId);
+      boolean removed = false;
+      if (job != null) {
+        removed = from == Status.QUEUED && removeQueued(requestId);
+        if (removed) {
+          executions.remove(requestId, job);
+          job.timers().record(Result.CANCELLED, job.receivedNanos(), 0, 0, System.nanoTime());
+        } else {
+          job.execution().cancel();
+        }
+      }
+      metrics.cancelled(from);
+      log.info("event=inference.cancelled requestId={} status={} previousStatus={} removedFromQueue={} latencyMs={}",
+          requestId, Status.CANCELLED, from, removed, cancelled.getLatencyMs());
+      return Optional.of(cancelled);
+    }
+  }
+
+  /**
+   * platform 모드: executor 큐에서 requestId 작업을 찾아 뺀다. 데코레이터가 감싼 인스턴스라서 key로 찾는다.
+   * virtual 모드에는 큐가 없다 (permit 대기 중인 작업은 interrupt로 깨운다).
+   */
+  private boolean removeQueued(String requestId) {
+    if (!(executor instanceof ThreadPoolTaskExecutor pool)) {
+      return false;
+    }
+    ThreadPoolExecutor tpe = pool.getThreadPoolExecutor();
+    for (Runnable r : tpe.getQueue()) {
+      if (r instanceof SchedulableTask task && requestId.equals(task.key())) {
+        return tpe.remove(r);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * requestId가 terminal 상태가 되면 완료되는 future. 이미 terminal이면 즉시 완료된다.
+   * store를 다시 조회하지 않고 상태 전이 이벤트로 깨어난다. 호출자가 future를 취소(또는 timeout 완료)하면 구독도 정리된다.
+   *
+   * @return requestId가 없으면 empty
+   */
+  public Optional<CompletableFuture<InferenceResponse>> whenTerminal(String requestId) {
+    CompletableFuture<InferenceResponse> future = new CompletableFuture<>();
+    InferenceEventBus.Subscription subscription = eventBus.subscribe(requestId, state -> {
+      if (InferenceEventBus.isTerminal(state.getStatus())) {
+        future.complete(state);
+      }
+    });
+    future.whenComplete((r, e) -> subscription.close());
+
+    // 구독 이후에 확인해야 "조회 ~ 구독" 사이의 완료를 놓치지 않는다
+    Optional<InferenceResponse> current = store.find(requestId);
+    if (current.isEmpty()) {
+      subscription.close();
+      return Optional.empty();
+    }
+    if (InferenceEventBus.isTerminal(current.get().getStatus())) {
+      future.complete(current.get());
+    }
+    return Optional.of(future);
+  }
+
+  /**
+   * requestId의 상태 전이/출력 chunk를 구독한다. terminal 상태가 발행되면 구독은 자동으로 정리된다.
+   */
+  public InferenceEventBus.Subscription subscribe(String requestId, InferenceEventBus.Listener listener) {
+    return eventBus.subscribe(requestId, listener);
+  }
+
+  /**
+   * executor 큐에서 꺼낸 작업을 실행한다. 배칭이 켜져 있으면 모델별 배치에 합류시키고,
+   * 배치를 연 작업(leader)만 배치 전체를 실행한다.
+   */
+  private void dispatch(Job job) {
+    long dequeuedNanos = System.nanoTime();
+    if (batcher == null) {
+      job.execution().bind();
+      try {
+        runInference(job, dequeuedNanos);
+      } finally {
+        job.execution().unbind();
+        executions.remove(job.requestId(), job);
+      }
+      return;
+    }
+    String model = job.request().getModel() == null ? "" : job.request().getModel();
+    List<Dispatched> batch = batcher.join(model, new Dispatched(job, dequeuedNanos));
+    if (batch != null) {
+      try {
+        runBatch(batch);
+      } finally {
+        batch.forEach(d -> executions.remove(d.job().requestId(), d.job()));
+      }
+    }
+  }
+
+  private void runInference(Job job, long dequeuedNanos) {
+    String requestId = job.requestId();
+    InferenceRequest request = job.request();
+    Instant deadline = job.deadline();
     InferenceResponse state = store.find(requestId).orElse(null);
     if (state == null) {
       return;
     }
+    if (state.getStatus() == Status.CANCELLED) {
+      // 큐에서 빼기 전에 워커가 먼저 꺼냈다
+      job.timers().record(Result.CANCELLED, job.receivedNanos(), dequeuedNanos, 0, System.nanoTime());
+      return;
+    }
 
-    boolean acquired = false;
+    Result result = Result.FAILED;
+    long acquiredNanos = 0;
+    TokenBudget.Grant grant = null;
+    ConcurrencyLimiter.Permit permit = null;
+    HashedWheelTimer.Timeout timeout = null;
     try {
-      acquired = semaphore.tryAcquire(props.acquireTimeoutMs(), TimeUnit.MILLISECONDS);
-      if (!acquired) {
-        state.setStatus(Status.REJECTED);
-        state.setCompletedAt(Instant.now(clock));
-        state.setLatencyMs(Duration.between(state.getReceivedAt(), state.getCompletedAt()).toMillis());
-        state.setError("concurrency_limit_reached");
-        store.save(state);
-        log.warn("event=inference.rejected requestId={} status={} result={} reason=concurrency_limit_reached acquireTimeoutMs={} latencyMs={}",
-            requestId, Status.REJECTED, "REJECTED", props.acquireTimeoutMs(), state.getLatencyMs());
+      // 큐에서 이미 deadline을 넘긴 작업은 permit을 쓰기 전에 버린다
+      if (isExpired(deadline)) {
+        markDeadlineExceeded(state);
+        result = Result.REJECTED;
         return;
       }
 
-      Instant startedAt = Instant.now(clock);
-      state.setStatus(Status.RUNNING);
-      state.setStartedAt(startedAt);
-      store.save(state);
+      // 토큰 먼저: permit을 쥔 채로 토큰을 기다리면 limiter가 그 대기까지 실행 시간으로 본다
+      long waitMs = permitWaitMs(deadline);
+      long waitStartNanos = System.nanoTime();
+      grant = tokenBudget.tryAcquire(job.tokens().total(), waitMs, TimeUnit.MILLISECONDS);
+      if (grant == null) {
+        acquiredNanos = System.nanoTime();
+        if (isExpired(deadline)) {
+          markDeadlineExceeded(state);
+        } else {
+          markTokenBudgetRejected(state, job.tokens().total());
+        }
+        result = Result.REJECTED;
+        return;
+      }
+      permit = limiter.tryAcquire(remainingWaitMs(waitMs, waitStartNanos), TimeUnit.MILLISECONDS);
+      acquiredNanos = System.nanoTime();
+      if (permit == null) {
+        if (isExpired(deadline)) {
+          markDeadlineExceeded(state);
+        } else {
+          markConcurrencyRejected(state);
+        }
+        result = Result.REJECTED;
+        return;
+      }
+
+      int cachedPrefixChars = matchPrefix(request);
+      state = markRunning(state, prefixHitRatio(request, cachedPrefixChars));
+      if (state == null) {
+        // 시작 전에 다른 전이(예: 코얼레싱/복구)가 작업을 끝냈다
+        result = null;
+        return;
+      }
 
-      int plannedMs = computeSimulatedLatencyMs(request);
-      log.info("event=inference.started requestId={} status={} plannedLatencyMs={} timeoutMs={} model={} promptChars={}",
+      log.info("event=inference.started requestId={} status={} backend={} timeoutMs={} model={} promptChars={} promptTokens={} maxOutputTokens={}",
           requestId,
           Status.RUNNING,
-          plannedMs,
+          backend.name(),
           processing.timeoutMs(),
           request.getModel(),
-          request.getPrompt() == null ? 0 : request.getPrompt().length());
+          request.getPrompt() == null ? 0 : request.getPrompt().length(),
+          job.tokens().promptTokens(),
+          job.tokens().maxOutputTokens());
 
-      simulateWorkWithTimeout(plannedMs, processing.timeoutMs());
-
-      String output = "ok: " + summarize(request.getPrompt());
-      Instant completedAt = Instant.now(clock);
+      BackendRequest call = new BackendRequest(requestId, request, job.tokens(), cachedPrefixChars);
+      timeout = scheduleTimeout(job.execution(), deadline);
+      String output = callBackend(job.execution(), () -> backend.generate(call,
+          (index, out, from, to) -> emitChunk(requestId, out, from, to)));
 
-      state.setStatus(Status.SUCCEEDED);
-      state.setOutput(output);
-      state.setCompletedAt(completedAt);
-      state.setLatencyMs(Duration.between(state.getReceivedAt(), completedAt).toMillis());
-      store.save(state);
-      log.info("event=inference.completed requestId={} status={} result={} latencyMs={}",
-          requestId, Status.SUCCEEDED, "SUCCESS", state.getLatencyMs());
+      permit.success();
+      waitEstimator.recordServiceTime(System.nanoTime() - acquiredNanos);
+      markSucceeded(state, output);
+      result = Result.SUCCESS;
+      if (job.cacheKey() != null) {
+        responseCache.put(job.cacheKey(), output);
+      }
     } catch (InterruptedException ie) {
       Thread.currentThread().interrupt();
-      Instant completedAt = Instant.now(clock);
-      state.setStatus(Status.FAILED);
-      state.setError("interrupted");
-      state.setCompletedAt(completedAt);
-      state.setLatencyMs(Duration.between(state.getReceivedAt(), completedAt).toMillis());
-      store.save(state);
-      log.warn("event=inference.completed requestId={} status={} result={} reason=interrupted latencyMs={}",
-          requestId, Status.FAILED, "FAILED", state.getLatencyMs());
+      if (job.execution().isCancelled()) {
+        // 상태는 cancel()이 이미 CANCELLED로 바꿨다. permit은 finally에서 샘플 없이 반납한다
+        result = Result.CANCELLED;
+      } else {
+        markInterrupted(state);
+      }
     } catch (TimeoutException te) {
-      Instant completedAt = Instant.now(clock);
-      state.setStatus(Status.FAILED);
-      state.setError("timeout");
-      state.setCompletedAt(completedAt);
-      state.setLatencyMs(Duration.between(state.getReceivedAt(), completedAt).toMillis());
-      store.save(state);
-      log.warn("event=inference.completed requestId={} status={} result={} reason=timeout timeoutMs={} latencyMs={}",
-          requestId, Status.FAILED, "TIMEOUT", processing.timeoutMs(), state.getLatencyMs());
+      permit.dropped();
+      waitEstimator.recordServiceTime(System.nanoTime() - acquiredNanos);
+      markTimedOut(state);
+      result = Result.TIMEOUT;
     } catch (Exception e) {
+      markErrored(state, e);
+    } finally {
+      if (timeout != null) {
+        timeout.cancel();
+      }
+      if (permit != null) {
+        permit.release();
+      }
+      if (grant != null) {
+        grant.release();
+      }
+      if (result != null) {
+        job.timers().record(result, job.receivedNanos(), dequeuedNanos, acquiredNanos, System.nanoTime());
+      }
+    }
+  }
+
+  /**
+   * 배치 하나를 한 단위의 작업으로 실행한다: permit 1개, 백엔드 호출 1회, 결과는 requestId별로 fan-out.
+   *
+   * <p>
+   * - permit 대기와 배치 전체 timeout(interrupt)은 가장 늦은 deadline 기준이다. 가장 이른 deadline으로 끊으면
+   *   아직 예산이 남은 항목까지 같이 실패하기 때문이다.
+   * - 대신 deadline이 더 이른 항목에는 항목별 timer를 건다: 그 시각에 permit 대기 중이면 deadline_exceeded,
+   *   실행 중이면 timeout으로 그 항목만 먼저 끝낸다(배치 호출은 나눠 끊을 수 없으므로 결과만 버린다).
+   * - permit을 얻었을 때 이미 deadline이 지난 항목은 RUNNING으로 만들지 않고 백엔드 호출에서도 뺀다.
+   * </p>
+   */
+  private void runBatch(List<Dispatched> batch) {
+    List<Dispatched> items = new ArrayList<>(batch.size());
+    List<InferenceResponse> states = new ArrayList<>(batch.size());
+    List<InferenceRequest> requests = new ArrayList<>(batch.size());
+    for (Dispatched item : batch) {
+      InferenceResponse state = store.find(item.job().requestId()).orElse(null);
+      if (state == null) {
+        continue;
+      }
+      if (state.getStatus() == Status.CANCELLED) {
+        item.record(Result.CANCELLED, 0);
+        continue;
+      }
+      if (isExpired(item.job().deadline())) {
+        markDeadlineExceeded(state);
+        item.record(Result.REJECTED, 0);
+        continue;
+      }
+      items.add(item);
+      states.add(state);
+      requests.add(item.job().request());
+    }
+    if (states.isEmpty()) {
+      return;
+    }
+    // 배치는 가장 늦은 deadline까지 실행하고, 끝난 뒤 각자의 deadline으로 성공/timeout을 가른다
+    Instant batchDeadline = items.stream().map(d -> d.job().deadline()).max(Instant::compareTo).orElseThrow();
+    // 항목별 결과. null이면 다른 전이가 먼저 일어난 항목(기록하지 않음)
+    Result[] results = new Result[items.size()];
+    Arrays.fill(results, Result.FAILED);
+    long acquiredNanos = 0;
+    HashedWheelTimer.Timeout[] itemTimeouts = new HashedWheelTimer.Timeout[items.size()];
+    for (int i = 0; i < items.size(); i++) {
+      Instant deadline = items.get(i).job().deadline();
+      if (deadline.isBefore(batchDeadline)) {
+        String requestId = items.get(i).job().requestId();
+        long delayMs = Math.max(0, Duration.between(Instant.now(clock), deadline).toMillis());
+        // store 전이(segment log면 fsync 대기)는 timer 스레드에서 하지 않는다
+        itemTimeouts[i] = timeoutTimer.newTimeout(
+            () -> Thread.startVirtualThread(() -> expireBatchItem(requestId)), delayMs, TimeUnit.MILLISECONDS);
+      }
+    }
+
+    TokenBudget.Grant grant = null;
+    ConcurrencyLimiter.Permit permit = null;
+    // 배치는 항목별 취소로 interrupt하지 않으므로 배치 전체의 timeout만 이 스레드에 건다
+    Execution batchExecution = new Execution();
+    batchExecution.bind();
+    HashedWheelTimer.Timeout timeout = null;
+    try {
+      // 배치는 permit 1개를 쓰지만 KV cache는 항목 수만큼 쓰므로 토큰은 합으로 잡는다
+      int batchTokens = (int) Math.min(Integer.MAX_VALUE, items.stream().mapToLong(d -> d.job().tokens().total()).sum());
+      long waitMs = permitWaitMs(batchDeadline);
+      long waitStartNanos = System.nanoTime();
+      grant = tokenBudget.tryAcquire(batchTokens, waitMs, TimeUnit.MILLISECONDS);
+      if (grant != null) {
+        permit = limiter.tryAcquire(remainingWaitMs(waitMs, waitStartNanos), TimeUnit.MILLISECONDS);
+      }
+      acquiredNanos = System.nanoTime();
+      if (permit == null) {
+        for (int i = 0; i < states.size(); i++) {
+          if (isExpired(items.get(i).job().deadline())) {
+            markDeadlineExceeded(states.get(i));
+          } else if (grant == null) {
+            markTokenBudgetRejected(states.get(i), batchTokens);
+          } else {
+            markConcurrencyRejected(states.get(i));
+          }
+          results[i] = Result.REJECTED;
+        }
+        return;
+      }
+
+      List<BackendRequest> calls = new ArrayList<>(states.size());
+      // calls 순서 → 항목 index
+      int[] callItems = new int[states.size()];
+      for (int i = 0; i < states.size(); i++) {
+        Job job = items.get(i).job();
+        if (isExpired(job.deadline())) {
+          // permit을 기다리는 사이 deadline이 지났다: 실행하지 않는다 (항목 timer가 먼저 끝냈으면 전이는 건너뛴다)
+          markDeadlineExceeded(states.get(i));
+          states.set(i, null);
+          results[i] = Result.REJECTED;
+          continue;
+        }
+        int cachedPrefixChars = matchPrefix(requests.get(i));
+        // 전이에 실패한 항목(이미 다른 전이로 끝남)은 null로 남기고 결과 fan-out에서 건너뛴다
+        states.set(i, markRunning(states.get(i), prefixHitRatio(requests.get(i), cachedPrefixChars)));
+        if (states.get(i) == null) {
+          results[i] = null;
+          continue;
+        }
+        callItems[calls.size()] = i;
+        calls.add(new BackendRequest(job.requestId(), job.request(), job.tokens(), cachedPrefixChars));
+      }
+      if (calls.isEmpty()) {
+        return;
+      }
+
+      log.info("event=inference.batch_started model={} batchSize={} backend={} timeoutMs={} requestIds={}",
+          requests.get(0).getModel(),
+          calls.size(),
+          backend.name(),
+          processing.timeoutMs(),
+          states.stream().filter(Objects::nonNull).map(InferenceResponse::getRequestId).toList());
+
+      timeout = scheduleTimeout(batchExecution, batchDeadline);
+      List<String> outputs = callBackend(batchExecution, () -> backend.generateBatch(calls, (index, out, from, to) -> {
+        InferenceResponse state = states.get(callItems[index]);
+        if (state != null) {
+          emitChunk(state.getRequestId(), out, from, to);
+        }
+      }));
+
+      permit.success();
+      waitEstimator.recordServiceTime(System.nanoTime() - acquiredNanos);
       Instant completedAt = Instant.now(clock);
-      state.setStatus(Status.FAILED);
-      state.setError("error: " + e.getClass().getSimpleName());
-      state.setCompletedAt(completedAt);
-      state.setLatencyMs(Duration.between(state.getReceivedAt(), completedAt).toMillis());
-      store.save(state);
-      log.error("event=inference.completed requestId={} status={} result={} reason=exception exceptionType={} latencyMs={}",
-          requestId, Status.FAILED, "FAILED", e.getClass().getName(), state.getLatencyMs(), e);
+      for (int c = 0; c < calls.size(); c++) {
+        int i = callItems[c];
+        if (states.get(i) == null) {
+          continue;
+        }
+        // 항목 timer가 이미 돌았으면(취소 실패) 그 항목은 timeout으로 끝난 것이다
+        boolean itemExpired = itemTimeouts[i] != null && !itemTimeouts[i].cancel();
+        if (itemExpired || completedAt.isAfter(items.get(i).job().deadline())) {
+          markTimedOut(states.get(i));
+          results[i] = Result.TIMEOUT;
+        } else {
+          markSucceeded(states.get(i), outputs.get(c));
+          results[i] = Result.SUCCESS;
+          String cacheKey = items.get(i).job().cacheKey();
+          if (cacheKey != null) {
+            responseCache.put(cacheKey, outputs.get(c));
+          }
+        }
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      states.stream().filter(Objects::nonNull).forEach(this::markInterrupted);
+    } catch (TimeoutException te) {
+      permit.dropped();
+      waitEstimator.recordServiceTime(System.nanoTime() - acquiredNanos);
+      states.stream().filter(Objects::nonNull).forEach(this::markTimedOut);
+      for (int i = 0; i < results.length; i++) {
+        if (states.get(i) != null) {
+          results[i] = Result.TIMEOUT;
+        }
+      }
+    } catch (Exception e) {
+      states.stream().filter(Objects::nonNull).forEach(state -> markErrored(state, e));
     } finally {
-      if (acquired) {
-        semaphore.release();
+      if (timeout != null) {
+        timeout.cancel();
+      }
+      for (HashedWheelTimer.Timeout t : itemTimeouts) {
+        if (t != null) {
+          t.cancel();
+        }
+      }
+      batchExecution.unbind();
+      if (permit != null) {
+        permit.release();
+      }
+      if (grant != null) {
+        grant.release();
+      }
+      for (int i = 0; i < results.length; i++) {
+        if (results[i] != null) {
+          items.get(i).record(results[i], acquiredNanos);
+        }
+      }
+    }
+  }
+
+  /**
+   * 배치 항목의 deadline: 배치가 아직 permit을 기다리면 deadline_exceeded, 실행 중이면 timeout으로 그 항목만 끝낸다.
+   * 배치 스레드와 경쟁하면 store CAS에서 먼저 전이한 쪽이 이긴다.
+   */
+  private void expireBatchItem(String requestId) {
+    store.find(requestId).ifPresent(state -> {
+      if (state.getStatus() == Status.QUEUED) {
+        markDeadlineExceeded(state);
+      } else if (state.getStatus() == Status.RUNNING) {
+        markTimedOut(state);
       }
+    });
+  }
+
+  private void markConcurrencyRejected(InferenceResponse state) {
+    InferenceResponse done = complete(state, Status.REJECTED, null, "concurrency_limit_reached");
+    if (done != null) {
+      metrics.rejected(Rejection.CONCURRENCY_LIMIT_REACHED);
+      log.warn("event=inference.rejected requestId={} status={} result={} reason=concurrency_limit_reached acquireTimeoutMs={} latencyMs={}",
+          done.getRequestId(), Status.REJECTED, "REJECTED", permitWaitMs(done.getDeadlineAt()), done.getLatencyMs());
+    }
+  }
+
+  private void markTokenBudgetRejected(InferenceResponse state, int tokens) {
+    InferenceResponse done = complete(state, Status.REJECTED, null, "token_budget_exhausted");
+    if (done != null) {
+      metrics.rejected(Rejection.TOKEN_BUDGET_EXHAUSTED);
+      log.warn("event=inference.rejected requestId={} status={} result={} reason=token_budget_exhausted tokens={} tokenBudget={} tokensInFlight={} latencyMs={}",
+          done.getRequestId(), Status.REJECTED, "REJECTED", tokens, tokenBudget.capacity(), tokenBudget.inFlight(), done.getLatencyMs());
+    }
+  }
+
+  private void markDeadlineExceeded(InferenceResponse state) {
+    InferenceResponse done = complete(state, Status.REJECTED, null, "deadline_exceeded");
+    if (done != null) {
+      metrics.rejected(Rejection.DEADLINE_EXCEEDED);
+      log.warn("event=inference.rejected requestId={} status={} result={} reason=deadline_exceeded deadlineAt={} latencyMs={}",
+          done.getRequestId(), Status.REJECTED, "REJECTED", done.getDeadlineAt(), done.getLatencyMs());
+    }
+  }
+
+  /** @return RUNNING 스냅샷. 이미 다른 전이가 일어났으면 null */
+  private InferenceResponse markRunning(InferenceResponse state, Double prefixHitRatio) {
+    return transition(state, state.toBuilder()
+        .status(Status.RUNNING)
+        .startedAt(Instant.now(clock))
+        .prefixHitRatio(prefixHitRatio)
+        .build());
+  }
+
+  private void markSucceeded(InferenceResponse state, String output) {
+    InferenceResponse done = complete(state, Status.SUCCEEDED, output, null);
+    if (done != null) {
+      log.info("event=inference.completed requestId={} status={} result={} latencyMs={}",
+          done.getRequestId(), Status.SUCCEEDED, "SUCCESS", done.getLatencyMs());
+    }
+  }
+
+  private InferenceResponse markCacheHit(InferenceResponse state, String output) {
+    InferenceResponse hit = state.toBuilder().startedAt(state.getReceivedAt()).cached(true).build();
+    InferenceResponse done = complete(hit, Status.SUCCEEDED, output, null);
+    if (done != null) {
+      log.info("event=inference.completed requestId={} status={} result={} reason=cache_hit latencyMs={}",
+          done.getRequestId(), Status.SUCCEEDED, "SUCCESS", done.getLatencyMs());
+    }
+    return done;
+  }
+
+  private void markInterrupted(InferenceResponse state) {
+    InferenceResponse done = complete(state, Status.FAILED, null, "interrupted");
+    if (done != null) {
+      log.warn("event=inference.completed requestId={} status={} result={} reason=interrupted latencyMs={}",
+          done.getRequestId(), Status.FAILED, "FAILED", done.getLatencyMs());
+    }
+  }
+
+  private void markTimedOut(InferenceResponse state) {
+    InferenceResponse done = complete(state, Status.FAILED, null, "timeout");
+    if (done != null) {
+      metrics.rejected(Rejection.TIMEOUT);
+      log.warn("event=inference.completed requestId={} status={} result={} reason=timeout timeoutMs={} latencyMs={}",
+          done.getRequestId(), Status.FAILED, "TIMEOUT", processing.timeoutMs(), done.getLatencyMs());
+    }
+  }
+
+  private void markErrored(InferenceResponse state, Exception e) {
+    InferenceResponse done = complete(state, Status.FAILED, null, "error: " + e.getClass().getSimpleName());
+    if (done != null) {
+      log.error("event=inference.completed requestId={} status={} result={} reason=exception exceptionType={} latencyMs={}",
+          done.getRequestId(), Status.FAILED, "FAILED", e.getClass().getName(), done.getLatencyMs(), e);
+    }
+  }
+
+  private InferenceResponse complete(InferenceResponse state, Status status, String output, String error) {
+    Instant completedAt = Instant.now(clock);
+    return transition(state, state.toBuilder()
+        .status(status)
+        .output(output)
+        .error(error)
+        .completedAt(completedAt)
+        .latencyMs(Duration.between(state.getReceivedAt(), completedAt).toMillis())
+        .build());
+  }
+
+  /**
+   * state(지금 들고 있는 스냅샷)의 상태에서 next로 CAS 전이하고, 성공하면 발행한다.
+   *
+   * @return 저장된 스냅샷. 그 사이 다른 전이가 먼저 일어났으면 null (이 작업의 결과는 버린다)
+   */
+  private InferenceResponse transition(InferenceResponse state, InferenceResponse next) {
+    Optional<InferenceResponse> committed = store.transition(state.getRequestId(), state.getStatus(), next);
+    if (committed.isEmpty()) {
+      log.info("event=inference.transition_lost requestId={} expectedStatus={} status={}",
+          state.getRequestId(), state.getStatus(), next.getStatus());
+      return null;
+    }
+    eventBus.publishStatus(committed.get());
+    return committed.get();
+  }
+
+  /**
+   * 백엔드가 새로 만든 output 구간을 구독자에게 흘려보낸다. 구독자가 없으면 substring도 만들지 않는다.
+   */
+  private void emitChunk(String requestId, String output, int from, int to) {
+    if (!eventBus.hasSubscribers(requestId)) {
+      return;
+    }
+    if (to > from) {
+      eventBus.publishChunk(requestId, output.substring(from, to));
     }
   }
 
-  private int computeSimulatedLatencyMs(InferenceRequest request) {
+  /**
+   * platform 모드: 큐 대기 후 워커를 받은 시점부터 acquireTimeoutMs만 permit을 기다린다.
+   * virtual 모드: 워커 큐가 없으므로 (fair) limiter 대기가 곧 큐 대기다.
+   * 그래서 deadline까지 기다리고, 그 안에 못 받으면 거절한다.
+   * 어느 쪽이든 deadline을 넘겨서 기다리지는 않는다.
+   */
+  private long permitWaitMs(Instant deadline) {
+    long untilDeadline = deadline == null
+        ? processing.timeoutMs()
+        : Math.max(0, Duration.between(Instant.now(clock), deadline).toMillis());
+    return props.mode() == ExecutionMode.VIRTUAL
+        ? untilDeadline
+        : Math.min(props.acquireTimeoutMs(), untilDeadline);
+  }
+
+  /** 토큰 → permit 순서로 기다릴 때 permitWaitMs 한 번을 둘이 나눠 쓴다 */
+  private static long remainingWaitMs(long waitMs, long waitStartNanos) {
+    return Math.max(0, waitMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStartNanos));
+  }
+
+  /**
+   * end-to-end 시간 예산: 클라이언트 값(X-Request-Timeout-Ms)은 processing.timeoutMs 이하로만 줄일 수 있다.
+   */
+  private long timeoutBudgetMs(SubmitOptions options) {
+    Long requested = options.timeoutMs();
+    if (requested == null || requested <= 0) {
+      return processing.timeoutMs();
+    }
+    return Math.min(requested, processing.timeoutMs());
+  }
+
+  private boolean isExpired(Instant deadline) {
+    return !Instant.now(clock).isBefore(deadline);
+  }
+
+  /**
+   * prefix 인덱스에서 이미 prefill된 prefix 길이를 찾는다. 인덱스가 꺼져 있으면 0.
+   */
+  private int matchPrefix(InferenceRequest request) {
+    if (!prefixIndex.isEnabled()) {
+      return 0;
+    }
+    return prefixIndex.matchAndRecord(request.getModel(), request.getPrompt());
+  }
+
+  /** 요청별 prefix hit ratio. 인덱스가 꺼져 있으면 null (응답에 싣지 않는다). */
+  private Double prefixHitRatio(InferenceRequest request, int cachedPrefixChars) {
+    if (!prefixIndex.isEnabled()) {
+      return null;
+    }
     int promptChars = request.getPrompt() == null ? 0 : request.getPrompt().length();
-    // 운영적으로 “길이가 길수록 느려지는” 형태를 모사 + 약간의 지터
-    int base = processing.simulatedMinMs() + (promptChars / 25);
-    int clamped = Math.min(processing.simulatedMaxMs(), Math.max(processing.simulatedMinMs(), base));
-    int jitter = (int) Math.round(clamped * 0.20); // +-20%
-    int lo = Math.max(processing.simulatedMinMs(), clamped - jitter);
-    int hi = Math.min(processing.simulatedMaxMs(), clamped + jitter);
-    return ThreadLocalRandom.current().nextInt(lo, hi + 1);
-  }
-
-  private void simulateWorkWithTimeout(int plannedMs, long timeoutMs) throws InterruptedException, TimeoutException {
-    Instant deadline = Instant.now(clock).plusMillis(timeoutMs);
-    int remaining = plannedMs;
-    while (remaining > 0) {
-      if (Instant.now(clock).isAfter(deadline)) {
+    return promptChars == 0 ? 0.0 : (double) cachedPrefixChars / promptChars;
+  }
+
+  /**
+   * end-to-end deadline(접수 시점 기준)에 timeout을 건다. 만료되면 timer 스레드가 워커를 interrupt한다.
+   * 이미 지났으면 다음 tick에 바로 만료된다.
+   */
+  private HashedWheelTimer.Timeout scheduleTimeout(Execution execution, Instant deadline) {
+    long delayMs = Math.max(0, Duration.between(Instant.now(clock), deadline).toMillis());
+    return timeoutTimer.newTimeout(execution::expire, delayMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * 백엔드 호출. timeout은 deadline을 polling하지 않고 timer의 interrupt로 끝낸다:
+   * 그 interrupt로 백엔드가 멈췄으면 {@link TimeoutException}으로 바꿔 던진다.
+   */
+  private static <T> T callBackend(Execution execution, BackendCall<T> call)
+      throws InterruptedException, TimeoutException, BackendException {
+    try {
+      return call.call();
+    } catch (InterruptedException e) {
+      // 취소가 timeout보다 우선: 취소된 작업은 CANCELLED로 이미 끝났다
+      if (execution.isTimedOut() && !execution.isCancelled()) {
         throw new TimeoutException();
       }
-      int chunk = Math.min(
-          Math.max(1, processing.cpuBurnChunkMs()),
-          remaining
-      );
-      if (processing.cpuBurnEnabled()) {
-        burnCpuMs(chunk);
-      } else {
-        Thread.sleep(chunk);
-      }
-      remaining -= chunk;
+      throw e;
     }
   }
 
-  private static void burnCpuMs(int ms) {
-    long end = System.nanoTime() + (ms * 1_000_000L);
-    long x = 0L;
-    while (System.nanoTime() < end) {
-      x ^= System.nanoTime();
+  @FunctionalInterface
+  private interface BackendCall<T> {
+    T call() throws InterruptedException, BackendException;
+  }
+
+  /**
+   * 큐에 들어간 작업 한 건. cacheKey가 null이면 결과를 캐시하지 않는다.
+   * receivedNanos/timers는 수명 구간 메트릭용(접수 시 한 번 정해 둔다).
+   */
+  private record Job(
+      String requestId,
+      InferenceRequest request,
+      TokenEstimate tokens,
+      Instant deadline,
+      String cacheKey,
+      long receivedNanos,
+      InferenceMetrics.ModelTimers timers,
+      Execution execution
+  ) {}
+
+  /**
+   * 작업을 실행 중인 워커 스레드. 취소/timeout이 이 작업이 끝난 뒤 같은 (풀) 스레드의 다음 작업을 interrupt하지 않도록
+   * bind/unbind/cancel/expire를 한 monitor로 묶는다.
+   */
+  private static final class Execution {
+    private Thread worker;
+    private boolean cancelled;
+    private boolean timedOut;
+
+    synchronized void bind() {
+      worker = Thread.currentThread();
+      if (cancelled) {
+        worker.interrupt();
+      }
+    }
+
+    synchronized void cancel() {
+      cancelled = true;
+      if (worker != null) {
+        worker.interrupt();
+      }
+    }
+
+    synchronized boolean isCancelled() {
+      return cancelled;
+    }
+
+    /** timer 스레드에서 호출된다: 짧게 끝나야 한다. */
+    synchronized void expire() {
+      timedOut = true;
+      if (worker != null) {
+        worker.interrupt();
+      }
+    }
+
+    synchronized boolean isTimedOut() {
+      return timedOut;
+    }
+
+    /** 이 작업 때문에 걸린 interrupt는 다음 작업으로 넘기지 않는다. */
+    synchronized void unbind() {
+      worker = null;
+      if (cancelled || timedOut) {
+        Thread.interrupted();
+      }
     }
-    CPU_SINK = x;
   }
 
-  private static String summarize(String prompt) {
-    String p = prompt == null ? "" : prompt.trim();
-    if (p.length() <= 80) return p;
-    return p.substring(0, 77) + "...";
+  /** 워커가 큐에서 꺼낸 작업. 배치에서는 항목마다 꺼낸 시각이 다르다. */
+  private record Dispatched(Job job, long dequeuedNanos) {
+    void record(Result result, long acquiredNanos) {
+      job.timers().record(result, job.receivedNanos(), dequeuedNanos, acquiredNanos, System.nanoTime());
+    }
   }
 
   private static final class TimeoutException extends Exception {
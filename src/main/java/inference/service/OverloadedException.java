@@ -0,0 +1,39 @@
+package inference.service;
+
+/**
+ * 접수 단계 load shedding: 추정 대기가 요청의 시간 예산을 넘어서 접수하지 않았다.
+ * store/큐에는 아무 것도 남지 않는다. 컨트롤러 advice가 503 + Retry-After로 바꾼다.
+ */
+public class OverloadedException extends RuntimeException {
+
+  private final String requestId;
+  private final long estimatedWaitMs;
+  private final long budgetMs;
+
+  public OverloadedException(String requestId, long estimatedWaitMs, long budgetMs) {
+    super("estimated wait " + estimatedWaitMs + "ms exceeds request budget " + budgetMs + "ms", null, false, false);
+    this.requestId = requestId;
+    this.estimatedWaitMs = estimatedWaitMs;
+    this.budgetMs = budgetMs;
+  }
+
+  public String getRequestId() {
+    return requestId;
+  }
+
+  public long getEstimatedWaitMs() {
+    return estimatedWaitMs;
+  }
+
+  public long getBudgetMs() {
+    return budgetMs;
+  }
+
+  /**
+   * 새 유입이 없으면 추정 대기는 경과 시간만큼 줄어든다. 초과분이 빠진 뒤 다시 오면 예산 안에 들어간다 (최소 1초).
+   */
+  public long getRetryAfterSeconds() {
+    long excessMs = Math.max(0, estimatedWaitMs - budgetMs);
+    return Math.max(1, (excessMs + 999) / 1000);
+  }
+}
@@ -0,0 +1,279 @@
+package inference.service;
+
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import inference.store.InferenceStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 같은 요청(지문이 같은 요청)이 QUEUED/RUNNING인 동안 들어온 요청을 그 작업(leader)에 follower로 붙인다 (single-flight).
+ *
+ * <p>
+ * - follower는 큐/permit을 쓰지 않는다. store에는 자기 requestId로 QUEUED 상태만 저장해 두고(coalescedWith를 붙인다),
+ *   leader의 상태 전이(RUNNING, terminal)와 출력 chunk를 이벤트 버스로 받아 자기 엔트리에 그대로 전이시킨다.
+ * - follower는 자기 deadline을 지킨다: follower의 deadline이 leader 완료 전에 오면 그 시점에 follower만 끝낸다.
+ * - leader가 자기 deadline으로 끊기면 follower도 같은 결과를 받는다. 그래서 follower의 deadline이 leader보다
+ *   {@code maxDeadlineLagMs} 넘게 늦으면 붙이지 않고 따로 실행한다(INDEPENDENT): 예산이 짧은 leader
+ *   (X-Request-Timeout-Ms) 때문에 예산이 넉넉한 요청이 timeout/deadline_exceeded를 물려받지 않게 한다.
+ *   붙은 follower가 잃을 수 있는 예산은 많아야 {@code maxDeadlineLagMs}다.
+ * - leader가 terminal이 되는 순간 flight가 닫히고, 그 뒤에 들어온 같은 요청은 새 leader가 된다.
+ * - leader가 취소(CANCELLED)되면 follower는 취소를 요청하지 않았으므로 CANCELLED를 물려받지 않는다.
+ *   시작 전이면 REJECTED, 시작 후면 FAILED에 {@code error=leader_cancelled}로 끝나고, 재시도하면 새 flight가 열린다.
+ * </p>
+ */
+@Component
+public class RequestCoalescer implements DisposableBean {
+  private static final Logger log = LoggerFactory.getLogger(RequestCoalescer.class);
+
+  public enum Role {
+    /** 새 flight를 열었다: 평소처럼 큐에 넣어 실행한다 */
+    LEADER,
+    /** 진행 중인 flight에 붙었다: 실행하지 않는다 */
+    FOLLOWER,
+    /** 코얼레싱이 꺼져 있다: flight 없이 실행한다 */
+    INDEPENDENT
+  }
+
+  private final boolean enabled;
+  private final long maxDeadlineLagMs;
+  private final Clock clock;
+  private final InferenceStore store;
+  private final InferenceEventBus eventBus;
+  private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+  /** follower deadline 타이머. 꺼져 있으면 null */
+  private final ScheduledExecutorService timer;
+  private final Counter followers;
+  private final Counter followerTimeouts;
+  private final Counter deadlineMismatches;
+
+  public RequestCoalescer(
+      @Value("${inference.coalescing.enabled:false}") boolean enabled,
+      @Value("${inference.coalescing.maxDeadlineLagMs:500}") long maxDeadlineLagMs,
+      Clock clock,
+      InferenceStore store,
+      InferenceEventBus eventBus,
+      MeterRegistry registry
+  ) {
+    this.enabled = enabled;
+    this.maxDeadlineLagMs = Math.max(0, maxDeadlineLagMs);
+    this.clock = clock;
+    this.store = store;
+    this.eventBus = eventBus;
+    if (enabled) {
+      ScheduledThreadPoolExecutor t = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread th = Executors.defaultThreadFactory().newThread(r);
+        th.setName("inference-coalescer-timer");
+        th.setDaemon(true);
+        return th;
+      });
+      t.setRemoveOnCancelPolicy(true);
+      this.timer = t;
+    } else {
+      this.timer = null;
+    }
+    this.followers = Counter.builder("inference.coalescing.followers").register(registry);
+    this.followerTimeouts = Counter.builder("inference.coalescing.follower_timeouts").register(registry);
+    this.deadlineMismatches = Counter.builder("inference.coalescing.deadline_mismatches").register(registry);
+    Gauge.builder("inference.coalescing.flights", flights, ConcurrentHashMap::size).register(registry);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * state는 이미 store에 QUEUED로 저장되어 있어야 한다. LEADER/INDEPENDENT를 받으면 호출자가 실행(큐 제출)까지 책임진다.
+   */
+  public Role joinOrLead(String key, InferenceResponse state) {
+    if (!enabled || key == null) {
+      return Role.INDEPENDENT;
+    }
+    while (true) {
+      // map 안에서는 leader/follower만 정한다. store 전이(segment log면 fsync 대기)와 타이머 등록은
+      // bin lock을 쥔 채 하지 않도록 compute 밖(flight monitor)에서 한다
+      Flight[] opened = new Flight[1];
+      Flight flight = flights.computeIfAbsent(key,
+          k -> opened[0] = new Flight(k, state.getRequestId(), state.getDeadlineAt()));
+      if (flight == opened[0]) {
+        eventBus.subscribe(state.getRequestId(), flight);
+        return Role.LEADER;
+      }
+      if (!leaderCovers(flight.deadlineAt, state.getDeadlineAt())) {
+        // leader가 먼저 끊기면 결과를 물려줄 수 없다: flight는 그대로 두고 이 요청만 따로 실행한다
+        deadlineMismatches.increment();
+        log.info("event=inference.coalesce_skipped requestId={} leaderRequestId={} reason=leader_deadline_earlier",
+            state.getRequestId(), flight.leaderId);
+        return Role.INDEPENDENT;
+      }
+      if (flight.tryAdd(state)) {
+        followers.increment();
+        return Role.FOLLOWER;
+      }
+      // 방금 닫힌 flight(leader 완료 직후, map 정리 전): 치우고 다시 시도하면 새 leader가 된다
+      flights.remove(key, flight);
+    }
+  }
+
+  /** leader deadline이 follower deadline보다 maxDeadlineLagMs 넘게 이르지 않으면 true. null은 deadline 없음. */
+  private boolean leaderCovers(Instant leaderDeadline, Instant followerDeadline) {
+    if (leaderDeadline == null || followerDeadline == null) {
+      return leaderDeadline == null;
+    }
+    return !leaderDeadline.plusMillis(maxDeadlineLagMs).isBefore(followerDeadline);
+  }
+
+  @Override
+  public void destroy() {
+    if (timer != null) {
+      timer.shutdownNow();
+    }
+  }
+
+  private final class Flight implements InferenceEventBus.Listener {
+    private final String key;
+    private final String leaderId;
+    private final Instant deadlineAt;
+    private final List<Follower> members = new ArrayList<>();
+    private boolean running;
+    private boolean closed;
+
+    private Flight(String key, String leaderId, Instant deadlineAt) {
+      this.key = key;
+      this.leaderId = leaderId;
+      this.deadlineAt = deadlineAt;
+    }
+
+    synchronized boolean tryAdd(InferenceResponse state) {
+      if (closed) {
+        return false;
+      }
+      InferenceResponse attached = state.toBuilder().coalescedWith(leaderId).build();
+      Follower follower = new Follower(store.transition(state.getRequestId(), Status.QUEUED, attached).orElse(state));
+      if (running) {
+        markRunning(follower);
+      }
+      long delayMs = Math.max(0, Duration.between(Instant.now(clock), state.getDeadlineAt()).toMillis());
+      follower.deadlineTimer = timer.schedule(() -> expire(follower), delayMs, TimeUnit.MILLISECONDS);
+      members.add(follower);
+      log.info("event=inference.coalesced requestId={} leaderRequestId={} status={}",
+          state.getRequestId(), leaderId, follower.state.getStatus());
+      return true;
+    }
+
+    @Override
+    public void onStatus(InferenceResponse leader) {
+      List<Follower> snapshot;
+      boolean wasRunning;
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        if (!InferenceEventBus.isTerminal(leader.getStatus())) {
+          if (leader.getStatus() == Status.RUNNING && !running) {
+            running = true;
+            members.forEach(RequestCoalescer.this::markRunning);
+          }
+          return;
+        }
+        closed = true;
+        wasRunning = running;
+        snapshot = List.copyOf(members);
+        members.clear();
+      }
+      // map 정리는 monitor 밖에서 한다
+      flights.remove(key, this);
+      for (Follower f : snapshot) {
+        f.deadlineTimer.cancel(false);
+        if (leader.getStatus() == Status.CANCELLED) {
+          finish(f, wasRunning ? Status.FAILED : Status.REJECTED, null, "leader_cancelled");
+        } else {
+          finish(f, leader.getStatus(), leader.getOutput(), leader.getError());
+        }
+      }
+    }
+
+    @Override
+    public void onChunk(String requestId, String chunk) {
+      List<Follower> snapshot;
+      synchronized (this) {
+        snapshot = List.copyOf(members);
+      }
+      for (Follower f : snapshot) {
+        eventBus.publishChunk(f.state.getRequestId(), chunk);
+      }
+    }
+
+    private void expire(Follower follower) {
+      boolean wasRunning;
+      synchronized (this) {
+        if (closed || !members.remove(follower)) {
+          return;
+        }
+        wasRunning = running;
+      }
+      followerTimeouts.increment();
+      // leader와 같은 규칙: 시작 전이면 deadline_exceeded(REJECTED), 시작 후면 timeout(FAILED)
+      if (wasRunning) {
+        finish(follower, Status.FAILED, null, "timeout");
+      } else {
+        finish(follower, Status.REJECTED, null, "deadline_exceeded");
+      }
+      log.warn("event=inference.completed requestId={} leaderRequestId={} status={} result={} reason={} latencyMs={}",
+          follower.state.getRequestId(), leaderId, follower.state.getStatus(),
+          wasRunning ? "TIMEOUT" : "REJECTED", follower.state.getError(), follower.state.getLatencyMs());
+    }
+  }
+
+  private void markRunning(Follower f) {
+    InferenceResponse state = f.state;
+    transition(f, state.toBuilder().status(Status.RUNNING).startedAt(Instant.now(clock)).build());
+  }
+
+  private void finish(Follower f, Status status, String output, String error) {
+    InferenceResponse state = f.state;
+    Instant completedAt = Instant.now(clock);
+    transition(f, state.toBuilder()
+        .status(status)
+        .output(output)
+        .error(error)
+        .completedAt(completedAt)
+        .latencyMs(Duration.between(state.getReceivedAt(), completedAt).toMillis())
+        .build());
+  }
+
+  /** 실패하면(이미 다른 전이로 끝난 follower) 아무것도 하지 않는다. */
+  private void transition(Follower f, InferenceResponse next) {
+    store.transition(f.state.getRequestId(), f.state.getStatus(), next).ifPresent(committed -> {
+      f.state = committed;
+      eventBus.publishStatus(committed);
+    });
+  }
+
+  private static final class Follower {
+    /** 마지막으로 저장된 스냅샷. flight monitor 안에서, 또는 members에서 빠진 뒤에만 바뀐다 */
+    private volatile InferenceResponse state;
+    private ScheduledFuture<?> deadlineTimer;
+
+    private Follower(InferenceResponse state) {
+      this.state = state;
+    }
+  }
+}
@@ -0,0 +1,342 @@
+package inference.store;
+
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * 엔트리 수/추정 바이트 상한과 상태별 TTL을 갖는 인메모리 구현.
+ *
+ * <p>
+ * - TTL은 상태(클래스)별로 고정이므로, 클래스별 FIFO 큐에 넣으면 큐 순서 = 만료 순서가 된다.
+ *   만료 처리는 전체 맵 스캔 없이 save 시점에 큐 head 몇 개만 확인하는 amortized sweep으로 한다.
+ * - 상한 초과 시 terminal 상태 중 가장 먼저 만료될 엔트리부터 축출하고,
+ *   그래도 부족할 때만 in-flight(QUEUED/RUNNING) 엔트리를 축출한다.
+ * - 만료된 엔트리는 sweep 전이라도 find에서 보이지 않는다(lazy expiry).
+ * - 쓰기마다 만료 노드가 하나 생기고, 같은 키의 이전 노드는 stale이 된다. 노드도 maxBytes에 넣어 세고,
+ *   stale 노드가 살아 있는 엔트리 수나 maxBytes의 1/8을 넘으면 큐 전체에서 한 번에 걷어낸다
+ *   (n번 전이에 O(n) 한 번이라 amortized O(1)).
+ *   그래서 오래 사는 작업이 여러 번 전이해도 큐가 만료 전까지 불어나지 않는다.
+ * </p>
+ */
+public class BoundedInferenceStore implements InferenceStore {
+
+  /** 한 번의 save에서 처리할 최대 만료 노드 수 (writer 지연 상한). */
+  private static final int SWEEP_BUDGET = 64;
+  /** 객체 헤더/필드/Instant 등을 대략 반영한 엔트리당 고정 비용. */
+  private static final int BASE_ENTRY_BYTES = 256;
+  /** 만료 큐 노드 하나(ConcurrentLinkedQueue 노드 + ExpiryNode, key는 엔트리와 공유)의 대략적인 비용. */
+  private static final int EXPIRY_NODE_BYTES = 64;
+
+  private final Clock clock;
+  private final int maxEntries;
+  private final long maxBytes;
+  private final Map<TtlClass, Long> ttlMs = new EnumMap<>(TtlClass.class);
+
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final Map<TtlClass, ConcurrentLinkedQueue<ExpiryNode>> expiryQueues = new EnumMap<>(TtlClass.class);
+  private final AtomicLong sequence = new AtomicLong();
+  private final AtomicLong totalBytes = new AtomicLong();
+  /** 큐에 남아 있는 stale 노드 수의 근사치 (걷어내기 시점 판단용) */
+  private final AtomicLong staleNodes = new AtomicLong();
+  private final ReentrantLock sweepLock = new ReentrantLock();
+
+  private final Map<TtlClass, Counter> expirations = new EnumMap<>(TtlClass.class);
+  private final Counter evictionsMaxEntries;
+  private final Counter evictionsMaxBytes;
+
+  public BoundedInferenceStore(
+      Clock clock,
+      MeterRegistry registry,
+      int maxEntries,
+      long maxBytes,
+      long inFlightTtlMs,
+      long succeededTtlMs,
+      long failedTtlMs,
+      long rejectedTtlMs
+  ) {
+    if (maxEntries <= 0 || maxBytes <= 0) {
+      throw new IllegalArgumentException("maxEntries and maxBytes must be positive");
+    }
+    this.clock = clock;
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    ttlMs.put(TtlClass.IN_FLIGHT, inFlightTtlMs);
+    ttlMs.put(TtlClass.SUCCEEDED, succeededTtlMs);
+    ttlMs.put(TtlClass.FAILED, failedTtlMs);
+    ttlMs.put(TtlClass.REJECTED, rejectedTtlMs);
+
+    for (TtlClass c : TtlClass.values()) {
+      expiryQueues.put(c, new ConcurrentLinkedQueue<>());
+      expirations.put(c, Counter.builder("inference.store.expirations")
+          .tag("class", c.tagValue)
+          .register(registry));
+    }
+    this.evictionsMaxEntries = Counter.builder("inference.store.evictions")
+        .tag("reason", "max_entries")
+        .register(registry);
+    this.evictionsMaxBytes = Counter.builder("inference.store.evictions")
+        .tag("reason", "max_bytes")
+        .register(registry);
+    Gauge.builder("inference.store.entries", entries, Map::size).register(registry);
+    Gauge.builder("inference.store.bytes", totalBytes, AtomicLong::get).register(registry);
+  }
+
+  @Override
+  public void save(InferenceResponse response) {
+    if (response == null || response.getRequestId() == null) {
+      throw new IllegalArgumentException("response and requestId must not be null");
+    }
+    long now = clock.millis();
+    Entry entry = newEntry(response, now);
+    Entry previous = entries.put(response.getRequestId(), entry);
+    afterWrite(response.getRequestId(), entry, previous, now);
+  }
+
+  @Override
+  public Optional<InferenceResponse> saveIfAbsent(InferenceResponse response, Predicate<InferenceResponse> isDuplicate) {
+    if (response == null || response.getRequestId() == null) {
+      throw new IllegalArgumentException("response and requestId must not be null");
+    }
+    long now = clock.millis();
+    Entry entry = newEntry(response, now);
+    Entry[] previous = new Entry[1];
+    Entry current = entries.compute(response.getRequestId(), (k, prev) -> {
+      // 만료됐지만 아직 sweep되지 않은 엔트리는 없는 것으로 본다
+      if (prev != null && prev.expiresAtMs > now && isDuplicate.test(prev.response)) {
+        return prev;
+      }
+      previous[0] = prev;
+      return entry;
+    });
+    if (current != entry) {
+      return Optional.of(current.response);
+    }
+    afterWrite(response.getRequestId(), entry, previous[0], now);
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<InferenceResponse> transition(String requestId, Status expectedStatus, InferenceResponse newState) {
+    Transitions.check(requestId, expectedStatus, newState);
+    while (true) {
+      long now = clock.millis();
+      Entry current = entries.get(requestId);
+      if (current == null || current.expiresAtMs <= now) {
+        return Optional.empty();
+      }
+      InferenceResponse next = Transitions.next(current.response, expectedStatus, newState);
+      if (next == null) {
+        return Optional.empty();
+      }
+      Entry entry = newEntry(next, now);
+      // seq가 엔트리마다 유일하므로 replace(key, current, entry)는 참조 CAS와 같다
+      if (entries.replace(requestId, current, entry)) {
+        afterWrite(requestId, entry, current, now);
+        return Optional.of(next);
+      }
+    }
+  }
+
+  private Entry newEntry(InferenceResponse response, long now) {
+    long expiresAtMs = now + ttlMs.get(TtlClass.of(response.getStatus()));
+    return new Entry(response, expiresAtMs, estimateBytes(response), sequence.incrementAndGet());
+  }
+
+  private void afterWrite(String requestId, Entry entry, Entry previous, long now) {
+    totalBytes.addAndGet(entry.bytes + EXPIRY_NODE_BYTES - (previous == null ? 0 : previous.bytes));
+    if (previous != null) {
+      // previous의 노드는 큐에 남아 있지만 이제 가리키는 엔트리가 없다
+      staleNodes.incrementAndGet();
+    }
+    expiryQueues.get(TtlClass.of(entry.response.getStatus())).add(new ExpiryNode(requestId, entry.seq, entry.expiresAtMs));
+    maintain(now);
+  }
+
+  @Override
+  public Optional<InferenceResponse> find(String requestId) {
+    if (requestId == null) {
+      return Optional.empty();
+    }
+    Entry entry = entries.get(requestId);
+    if (entry == null || entry.expiresAtMs <= clock.millis()) {
+      return Optional.empty();
+    }
+    return Optional.of(entry.response);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /** 엔트리 + 만료 큐 노드의 추정 바이트 */
+  public long estimatedBytes() {
+    return totalBytes.get();
+  }
+
+  /** 만료 큐에 남아 있는 노드 수 (stale 포함) */
+  public int expiryNodes() {
+    int n = 0;
+    for (ConcurrentLinkedQueue<ExpiryNode> queue : expiryQueues.values()) {
+      n += queue.size();
+    }
+    return n;
+  }
+
+  /**
+   * 만료 sweep + 상한 축출. 한 스레드만 수행하고, 다른 writer는 기다리지 않고 지나간다.
+   */
+  private void maintain(long now) {
+    if (!sweepLock.tryLock()) {
+      return;
+    }
+    try {
+      long stale = staleNodes.get();
+      if (stale > Math.max(SWEEP_BUDGET, entries.size()) || stale * EXPIRY_NODE_BYTES > maxBytes / 8) {
+        purgeStaleNodes();
+      }
+      int budget = SWEEP_BUDGET;
+      for (TtlClass c : TtlClass.values()) {
+        budget = sweepQueue(c, now, budget);
+      }
+      while (entries.size() > maxEntries || totalBytes.get() > maxBytes) {
+        boolean byEntries = entries.size() > maxEntries;
+        if (!evictOne(now)) {
+          break;
+        }
+        (byEntries ? evictionsMaxEntries : evictionsMaxBytes).increment();
+      }
+    } finally {
+      sweepLock.unlock();
+    }
+  }
+
+  /**
+   * 큐 head에서 stale(이미 갱신/삭제된) 노드와 만료된 노드를 제거한다.
+   * stale 노드는 예산을 쓰지 않는다(제거 비용이 O(1)이고, 남겨두면 큐가 불어난다).
+   */
+  private int sweepQueue(TtlClass c, long now, int budget) {
+    ConcurrentLinkedQueue<ExpiryNode> queue = expiryQueues.get(c);
+    ExpiryNode head;
+    while ((head = queue.peek()) != null) {
+      Entry current = entries.get(head.key);
+      if (current == null || current.seq != head.seq) {
+        pollHead(queue, true);
+        continue;
+      }
+      if (budget <= 0 || head.expiresAtMs > now) {
+        break;
+      }
+      pollHead(queue, false);
+      budget--;
+      if (remove(head.key, current)) {
+        expirations.get(c).increment();
+      }
+    }
+    return budget;
+  }
+
+  /**
+   * terminal 클래스 중 가장 먼저 만료될 엔트리를 축출한다. 없으면 in-flight에서 축출한다.
+   */
+  private boolean evictOne(long now) {
+    TtlClass victimClass = null;
+    ExpiryNode victim = null;
+    for (TtlClass c : TtlClass.values()) {
+      if (c == TtlClass.IN_FLIGHT) {
+        continue;
+      }
+      ExpiryNode head = liveHead(c);
+      if (head != null && (victim == null || head.expiresAtMs < victim.expiresAtMs)) {
+        victim = head;
+        victimClass = c;
+      }
+    }
+    if (victim == null) {
+      victim = liveHead(TtlClass.IN_FLIGHT);
+      victimClass = TtlClass.IN_FLIGHT;
+    }
+    if (victim == null) {
+      return false;
+    }
+    pollHead(expiryQueues.get(victimClass), false);
+    Entry current = entries.get(victim.key);
+    return current != null && current.seq == victim.seq && remove(victim.key, current);
+  }
+
+  private ExpiryNode liveHead(TtlClass c) {
+    ConcurrentLinkedQueue<ExpiryNode> queue = expiryQueues.get(c);
+    ExpiryNode head;
+    while ((head = queue.peek()) != null) {
+      Entry current = entries.get(head.key);
+      if (current != null && current.seq == head.seq) {
+        return head;
+      }
+      pollHead(queue, true);
+    }
+    return null;
+  }
+
+  private void pollHead(ConcurrentLinkedQueue<ExpiryNode> queue, boolean stale) {
+    if (queue.poll() != null) {
+      totalBytes.addAndGet(-EXPIRY_NODE_BYTES);
+      if (stale) {
+        staleNodes.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * 모든 큐에서 stale 노드를 걷어낸다. sweepLock을 쥔 스레드만 호출한다 (writer는 tail에 add만 하므로 함께 돌아도 된다).
+   */
+  private void purgeStaleNodes() {
+    long removed = 0;
+    for (ConcurrentLinkedQueue<ExpiryNode> queue : expiryQueues.values()) {
+      for (var it = queue.iterator(); it.hasNext(); ) {
+        ExpiryNode node = it.next();
+        Entry current = entries.get(node.key);
+        if (current == null || current.seq != node.seq) {
+          it.remove();
+          removed++;
+        }
+      }
+    }
+    totalBytes.addAndGet(-removed * EXPIRY_NODE_BYTES);
+    // 동시 writer와 겹치면 근사치가 어긋날 수 있으므로 음수로 내려가지 않게만 한다
+    long stale = removed;
+    staleNodes.updateAndGet(v -> Math.max(0, v - stale));
+  }
+
+  private boolean remove(String key, Entry entry) {
+    if (entries.remove(key, entry)) {
+      totalBytes.addAndGet(-entry.bytes);
+      return true;
+    }
+    return false;
+  }
+
+  private static int estimateBytes(InferenceResponse r) {
+    // String은 대략 char당 1~2바이트(compact strings) → 보수적으로 2바이트로 잡는다
+    return BASE_ENTRY_BYTES
+        + 2 * (length(r.getRequestId()) * 2 + length(r.getOutput()) + length(r.getError()));
+  }
+
+  private static int length(String s) {
+    return s == null ? 0 : s.length();
+  }
+
+  private record Entry(InferenceResponse response, long expiresAtMs, int bytes, long seq) {}
+
+  private record ExpiryNode(String key, long seq, long expiresAtMs) {}
+}
@@ -1,10 +1,11 @@
 package inference.store;
 
 import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import org.springframework.stereotype.Component;
+import java.util.function.Predicate;
 
 /**
  * 단일 인스턴스 / 로컬 개발용 인메모리 구현.
@@ -12,9 +13,10 @@ import org.springframework.stereotype.Component;
  * <p>
  * - Pod 재시작/스케일아웃 시 데이터는 유실된다.
  * - 실제 운영 시에는 Redis/DB 기반 구현으로 교체해야 한다.
+ * - 엔트리를 지우지 않으므로 장시간 운영 시에는 {@link BoundedInferenceStore}를 사용한다
+ *   ({@code inference.store.type=memory}일 때만 등록된다).
  * </p>
  */
-@Component
 public class InMemoryInferenceStore implements InferenceStore {
 
   private final ConcurrentMap<String, InferenceResponse> store = new ConcurrentHashMap<>();
@@ -27,6 +29,38 @@ public class InMemoryInferenceStore implements InferenceStore {
     store.put(response.getRequestId(), response);
   }
 
+  @Override
+  public Optional<InferenceResponse> saveIfAbsent(InferenceResponse response, Predicate<InferenceResponse> isDuplicate) {
+    if (response == null || response.getRequestId() == null) {
+      throw new IllegalArgumentException("response and requestId must not be null");
+    }
+    InferenceResponse[] existing = new InferenceResponse[1];
+    store.compute(response.getRequestId(), (k, prev) -> {
+      if (prev != null && isDuplicate.test(prev)) {
+        existing[0] = prev;
+        return prev;
+      }
+      return response;
+    });
+    return Optional.ofNullable(existing[0]);
+  }
+
+  @Override
+  public Optional<InferenceResponse> transition(String requestId, Status expectedStatus, InferenceResponse newState) {
+    Transitions.check(requestId, expectedStatus, newState);
+    while (true) {
+      InferenceResponse current = store.get(requestId);
+      InferenceResponse next = Transitions.next(current, expectedStatus, newState);
+      if (next == null) {
+        return Optional.empty();
+      }
+      // 스냅샷이 불변이므로 참조 비교로 CAS한다. 실패하면 다른 전이가 끼어든 것이니 상태부터 다시 본다
+      if (store.replace(requestId, current, next)) {
+        return Optional.of(next);
+      }
+    }
+  }
+
   @Override
   public Optional<InferenceResponse> find(String requestId) {
     if (requestId == null) {
@@ -0,0 +1,184 @@
+package inference.store;
+
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * {@link InferenceResponse} ↔ 로그 레코드 payload 바이너리 인코딩.
+ *
+ * <p>
+ * - requestId와 status를 맨 앞에 둔다: 재기동 시 인덱스 재구성은 이 두 필드만 읽고 나머지는 건너뛴다.
+ * - 문자열은 int 길이(-1이면 null) + UTF-8, Instant는 epochSecond(long, null이면 Long.MIN_VALUE) + nano(int).
+ * - 필드를 추가할 때는 끝에 붙이고 FORMAT을 올린다. 이전 FORMAT 레코드도 계속 읽을 수 있어야 한다.
+ * - status는 ordinal 1바이트다. Status에 새 값(예: CANCELLED)은 끝에만 붙이면 FORMAT을 올리지 않아도 된다.
+ * - FORMAT 2: version(long)을 맨 끝에 붙였다. 끝 8바이트라서 전체를 디코딩하지 않고 읽고/고쳐 쓸 수 있다
+ *   (transition이 lock 밖에서 인코딩하고 lock 안에서 version만 채운다). FORMAT 1 레코드는 version 0으로 읽는다.
+ * </p>
+ */
+final class InferenceRecordCodec {
+
+  static final byte FORMAT = 2;
+  private static final int VERSION_BYTES = 8;
+  private static final Status[] STATUSES = Status.values();
+  private static final long NULL_INSTANT = Long.MIN_VALUE;
+
+  private InferenceRecordCodec() {}
+
+  static byte[] encode(InferenceResponse r) {
+    byte[] requestId = utf8(r.getRequestId());
+    byte[] output = utf8(r.getOutput());
+    byte[] error = utf8(r.getError());
+    byte[] coalescedWith = utf8(r.getCoalescedWith());
+    int size = 1 + 4 + len(requestId) + 1
+        + 4 * 12
+        + 1 + 8
+        + 4 + len(output) + 4 + len(error)
+        + 1
+        + 1 + 8
+        + 4 + len(coalescedWith)
+        + VERSION_BYTES;
+    ByteBuffer buf = ByteBuffer.allocate(size);
+    buf.put(FORMAT);
+    putBytes(buf, requestId);
+    buf.put(r.getStatus() == null ? (byte) -1 : (byte) r.getStatus().ordinal());
+    putInstant(buf, r.getReceivedAt());
+    putInstant(buf, r.getDeadlineAt());
+    putInstant(buf, r.getStartedAt());
+    putInstant(buf, r.getCompletedAt());
+    buf.put(r.getLatencyMs() == null ? (byte) 0 : (byte) 1);
+    buf.putLong(r.getLatencyMs() == null ? 0L : r.getLatencyMs());
+    putBytes(buf, output);
+    putBytes(buf, error);
+    buf.put(r.getCached() == null ? (byte) 0 : r.getCached() ? (byte) 2 : (byte) 1);
+    buf.put(r.getPrefixHitRatio() == null ? (byte) 0 : (byte) 1);
+    buf.putDouble(r.getPrefixHitRatio() == null ? 0.0 : r.getPrefixHitRatio());
+    putBytes(buf, coalescedWith);
+    buf.putLong(r.getVersion());
+    return buf.array();
+  }
+
+  static InferenceResponse decode(ByteBuffer buf) {
+    byte format = checkFormat(buf.get());
+    InferenceResponse.Builder r = InferenceResponse.builder()
+        .requestId(getString(buf))
+        .status(status(buf.get()))
+        .receivedAt(getInstant(buf))
+        .deadlineAt(getInstant(buf))
+        .startedAt(getInstant(buf))
+        .completedAt(getInstant(buf));
+    boolean hasLatency = buf.get() == 1;
+    long latency = buf.getLong();
+    r.latencyMs(hasLatency ? latency : null)
+        .output(getString(buf))
+        .error(getString(buf));
+    byte cached = buf.get();
+    r.cached(cached == 0 ? null : cached == 2);
+    boolean hasRatio = buf.get() == 1;
+    double ratio = buf.getDouble();
+    r.prefixHitRatio(hasRatio ? ratio : null)
+        .coalescedWith(getString(buf));
+    if (format >= 2) {
+      r.version(buf.getLong());
+    }
+    return r.build();
+  }
+
+  /** payload 전체(slice)에서 status만 읽는다. buf 위치는 바꾸지 않는다. */
+  static Status peekStatus(ByteBuffer payload) {
+    checkFormat(payload.get(0));
+    int idLen = payload.getInt(1);
+    return status(payload.get(1 + 4 + Math.max(0, idLen)));
+  }
+
+  /** payload 전체(slice)에서 version만 읽는다. buf 위치는 바꾸지 않는다. */
+  static long peekVersion(ByteBuffer payload) {
+    byte format = checkFormat(payload.get(0));
+    return format >= 2 ? payload.getLong(payload.limit() - VERSION_BYTES) : 0L;
+  }
+
+  /**
+   * payload 전체(slice)에서 receivedAt/startedAt/completedAt 중 가장 늦은 시각(epoch ms)만 읽는다 = 마지막 전이 시각.
+   * 셋 다 없으면 {@link Long#MIN_VALUE}. buf 위치는 바꾸지 않는다.
+   */
+  static long peekTouchedAtMillis(ByteBuffer payload) {
+    checkFormat(payload.get(0));
+    int receivedAt = 1 + 4 + Math.max(0, payload.getInt(1)) + 1;
+    // deadlineAt(receivedAt + 12)은 전이 시각이 아니므로 건너뛴다
+    long touched = peekMillis(payload, receivedAt, Long.MIN_VALUE);
+    touched = peekMillis(payload, receivedAt + 24, touched);
+    return peekMillis(payload, receivedAt + 36, touched);
+  }
+
+  /** {@link #encode}한 payload의 version을 고쳐 쓴다 (CRC를 계산하기 전에 호출한다). */
+  static void patchVersion(byte[] payload, long version) {
+    ByteBuffer.wrap(payload).putLong(payload.length - VERSION_BYTES, version);
+  }
+
+  /** 인덱스 재구성용: requestId만 읽는다. buf 위치는 status 바로 앞에 남는다. */
+  static String decodeRequestId(ByteBuffer buf) {
+    checkFormat(buf.get());
+    return getString(buf);
+  }
+
+  /** {@link #decodeRequestId} 다음에 호출한다. */
+  static Status decodeStatus(ByteBuffer buf) {
+    return status(buf.get());
+  }
+
+  private static long peekMillis(ByteBuffer payload, int pos, long max) {
+    long sec = payload.getLong(pos);
+    return sec == NULL_INSTANT ? max : Math.max(max, sec * 1000 + payload.getInt(pos + 8) / 1_000_000);
+  }
+
+  private static byte checkFormat(byte format) {
+    if (format < 1 || format > FORMAT) {
+      throw new IllegalStateException("unsupported record format: " + format);
+    }
+    return format;
+  }
+
+  private static Status status(byte ordinal) {
+    return ordinal < 0 ? null : STATUSES[ordinal];
+  }
+
+  private static byte[] utf8(String s) {
+    return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static int len(byte[] b) {
+    return b == null ? 0 : b.length;
+  }
+
+  private static void putBytes(ByteBuffer buf, byte[] b) {
+    if (b == null) {
+      buf.putInt(-1);
+      return;
+    }
+    buf.putInt(b.length);
+    buf.put(b);
+  }
+
+  private static String getString(ByteBuffer buf) {
+    int n = buf.getInt();
+    if (n < 0) {
+      return null;
+    }
+    byte[] b = new byte[n];
+    buf.get(b);
+    return new String(b, StandardCharsets.UTF_8);
+  }
+
+  private static void putInstant(ByteBuffer buf, Instant t) {
+    buf.putLong(t == null ? NULL_INSTANT : t.getEpochSecond());
+    buf.putInt(t == null ? 0 : t.getNano());
+  }
+
+  private static Instant getInstant(ByteBuffer buf) {
+    long sec = buf.getLong();
+    int nano = buf.getInt();
+    return sec == NULL_INSTANT ? null : Instant.ofEpochSecond(sec, nano);
+  }
+}
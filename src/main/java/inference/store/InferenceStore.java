@@ -1,15 +1,18 @@
 package inference.store;
 
 import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * 인퍼런스 요청/응답 상태를 저장하는 추상 저장소.
  *
  * <p>
- * - 현재 구현은 인메모리 기반이지만, K8s에서 실제 운영 시에는
- *   Redis/DB 등 외부 저장소 구현으로 교체하는 것이 목표이다.
+ * - 인메모리 구현({@link BoundedInferenceStore}, {@link InMemoryInferenceStore})과 재시작을 견디는 로컬 디스크 구현
+ *   ({@link SegmentLogInferenceStore})이 있다. 스케일아웃까지 고려하면 Redis/DB 등 외부 저장소 구현으로 교체하는 것이 목표이다.
  * - key는 {@link InferenceResponse#getRequestId()} 를 사용한다.
+ * - 값은 불변 스냅샷이다. 접수 이후의 상태 변경은 {@link #transition}으로만 한다.
  * </p>
  */
 public interface InferenceStore {
@@ -19,6 +22,22 @@ public interface InferenceStore {
    */
   void save(InferenceResponse response);
 
+  /**
+   * 같은 requestId에 {@code isDuplicate}를 만족하는 (만료되지 않은) 엔트리가 있으면 저장하지 않고 그 엔트리를 반환한다.
+   * 없거나 조건을 만족하지 않으면 덮어써서 저장하고 empty를 반환한다. 확인과 저장은 원자적이다.
+   * (멱등 제출: 같은 X-Request-Id 재시도가 기존 작업을 덮어쓰거나 두 번 실행되지 않게 한다)
+   */
+  Optional<InferenceResponse> saveIfAbsent(InferenceResponse response, Predicate<InferenceResponse> isDuplicate);
+
+  /**
+   * 현재 상태가 {@code expectedStatus}일 때만 {@code newState}로 교체한다 (compare-and-set).
+   * 저장되는 스냅샷의 version은 store가 현재 version + 1로 매긴다. 같은 상태에서 경쟁하는 전이는 하나만 성공한다.
+   *
+   * @return 교체된 스냅샷. 엔트리가 없거나(만료 포함) 현재 상태가 expectedStatus가 아니면 empty
+   * @throws IllegalStateException expectedStatus → newState의 상태가 허용되지 않는 전이일 때
+   */
+  Optional<InferenceResponse> transition(String requestId, Status expectedStatus, InferenceResponse newState);
+
   /**
    * requestId로 상태를 조회한다.
    */
@@ -0,0 +1,728 @@
+package inference.store;
+
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 상태 전이를 memory-mapped append-only segment 로그에 쌓는 영속 저장소. Pod 재시작 후에도 조회가 된다.
+ *
+ * <p>
+ * - 레코드 = [payload 길이(int)][CRC32C(int)][payload]. 파일은 segmentBytes로 미리 잡아 두고(0으로 채워짐) 길이 0에서 끝난다.
+ * - 인메모리 인덱스는 requestId → (segmentId, offset)을 long 하나로 들고 있고, find는 mmap에서 바로 디코딩한다.
+ * - 활성 segment가 차면 새 segment로 넘어가고(rolling), 닫힌 segment는 다시 쓰지 않는다.
+ * - 압축(compaction): 닫힌 segment의 live 비율이 {@code compactionLiveRatio} 아래로 떨어지면
+ *   아직 인덱스가 가리키는 레코드만 활성 segment로 옮기고(fsync 후) 파일을 지운다.
+ * - fsync: GROUP이면 writer는 자기 레코드가 디스크에 내려갈 때까지 기다리지만, 기다리는 동안 쌓인 writer들은
+ *   flusher의 force 한 번에 함께 내려간다(group commit). PERIODIC은 기다리지 않고 주기적으로, NONE은 close 때만 내린다.
+ * - 재기동: segment를 순서대로 훑으며 requestId/status만 읽어 인덱스를 다시 만든다. 마지막에 QUEUED/RUNNING이던
+ *   작업은 실행 중에 죽은 것이므로 FAILED(server_restarted)로 기록한다. CRC가 깨진 꼬리(쓰다 만 레코드)는 버린다.
+ * - 만료: {@link BoundedInferenceStore}와 같은 상태별 TTL 클래스를 쓴다. 기준 시각은 레코드의 마지막 전이 시각
+ *   (receivedAt/startedAt/completedAt 중 가장 늦은 값)이라 재기동 후에도 그대로 이어진다.
+ *   만료된 엔트리는 find/saveIfAbsent/transition에서 없는 것으로 보고(lazy expiry), 압축 주기마다 인덱스에서 빼서
+ *   그 레코드가 live 바이트에서 빠지게 한다 → 이후 압축이 segment째 지운다. 엔트리 수/바이트 상한은 없다.
+ * </p>
+ */
+public class SegmentLogInferenceStore implements InferenceStore, AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(SegmentLogInferenceStore.class);
+
+  public enum SyncMode {
+    GROUP,
+    PERIODIC,
+    NONE
+  }
+
+  static final String RESTARTED_ERROR = "server_restarted";
+  private static final int HEADER_BYTES = 8;
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  private final Path dir;
+  private final int segmentBytes;
+  private final SyncMode syncMode;
+  private final long fsyncIntervalMs;
+  private final double compactionLiveRatio;
+  private final Clock clock;
+  private final Map<TtlClass, Long> ttlMs = new EnumMap<>(TtlClass.class);
+
+  private final ConcurrentHashMap<String, Long> index = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+
+  /** append/roll/인덱스 갱신 순서를 맞추는 lock. 인코딩은 lock 밖에서 한다. */
+  private final ReentrantLock appendLock = new ReentrantLock();
+  private volatile Segment active;
+  private long appendedBytes;
+
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final Condition flushRequested = flushLock.newCondition();
+  private final Condition flushed = flushLock.newCondition();
+  private long requestedBytes;
+  private long durableBytes;
+  /** force 자체는 flusher와 compaction이 함께 부를 수 있으므로 따로 직렬화한다 */
+  private final ReentrantLock forceLock = new ReentrantLock();
+
+  private final Thread flusher;
+  private final ScheduledExecutorService compactor;
+  private volatile boolean closed;
+
+  private final Counter fsyncs;
+  private final Counter compactions;
+  private final Map<TtlClass, Counter> expirations = new EnumMap<>(TtlClass.class);
+  private final long recoveryMs;
+
+  public SegmentLogInferenceStore(
+      Path dir,
+      int segmentBytes,
+      SyncMode syncMode,
+      long fsyncIntervalMs,
+      long compactionIntervalMs,
+      double compactionLiveRatio,
+      long inFlightTtlMs,
+      long succeededTtlMs,
+      long failedTtlMs,
+      long rejectedTtlMs,
+      Clock clock,
+      MeterRegistry registry
+  ) {
+    if (segmentBytes < 4096) {
+      throw new IllegalArgumentException("segmentBytes must be at least 4096");
+    }
+    this.dir = dir;
+    this.segmentBytes = segmentBytes;
+    this.syncMode = syncMode;
+    this.fsyncIntervalMs = Math.max(1, fsyncIntervalMs);
+    this.compactionLiveRatio = compactionLiveRatio;
+    this.clock = clock;
+    ttlMs.put(TtlClass.IN_FLIGHT, inFlightTtlMs);
+    ttlMs.put(TtlClass.SUCCEEDED, succeededTtlMs);
+    ttlMs.put(TtlClass.FAILED, failedTtlMs);
+    ttlMs.put(TtlClass.REJECTED, rejectedTtlMs);
+    for (TtlClass c : TtlClass.values()) {
+      expirations.put(c, Counter.builder("inference.store.expirations")
+          .tag("class", c.tagValue)
+          .register(registry));
+    }
+    this.fsyncs = Counter.builder("inference.store.log.fsyncs").register(registry);
+    this.compactions = Counter.builder("inference.store.log.compactions").register(registry);
+    Gauge.builder("inference.store.log.segments", segments, ConcurrentSkipListMap::size).register(registry);
+    Gauge.builder("inference.store.entries", index, ConcurrentHashMap::size).register(registry);
+
+    long startNs = System.nanoTime();
+    try {
+      Files.createDirectories(dir);
+      recover();
+    } catch (IOException e) {
+      throw new UncheckedIOException("failed to open inference store log at " + dir, e);
+    }
+    this.recoveryMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+    Gauge.builder("inference.store.log.recovery_ms", this, s -> s.recoveryMs).register(registry);
+
+    if (syncMode == SyncMode.NONE) {
+      this.flusher = null;
+    } else {
+      this.flusher = new Thread(this::flushLoop, "inference-store-flusher");
+      this.flusher.setDaemon(true);
+      this.flusher.start();
+    }
+    if (compactionIntervalMs > 0) {
+      this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "inference-store-compactor");
+        t.setDaemon(true);
+        return t;
+      });
+      this.compactor.scheduleWithFixedDelay(this::compactQuietly,
+          compactionIntervalMs, compactionIntervalMs, TimeUnit.MILLISECONDS);
+    } else {
+      this.compactor = null;
+    }
+  }
+
+  @Override
+  public void save(InferenceResponse response) {
+    if (response == null || response.getRequestId() == null) {
+      throw new IllegalArgumentException("response and requestId must not be null");
+    }
+    byte[] payload = InferenceRecordCodec.encode(response);
+    long position;
+    appendLock.lock();
+    try {
+      putIndex(response.getRequestId(), appendLocked(payload));
+      position = appendedBytes;
+    } finally {
+      appendLock.unlock();
+    }
+    awaitDurable(position);
+  }
+
+  @Override
+  public Optional<InferenceResponse> saveIfAbsent(InferenceResponse response, Predicate<InferenceResponse> isDuplicate) {
+    if (response == null || response.getRequestId() == null) {
+      throw new IllegalArgumentException("response and requestId must not be null");
+    }
+    byte[] payload = InferenceRecordCodec.encode(response);
+    long now = clock.millis();
+    long position;
+    appendLock.lock();
+    try {
+      Long loc = index.get(response.getRequestId());
+      if (loc != null && !expired(loc, now)) {
+        InferenceResponse existing = read(loc);
+        if (existing != null && isDuplicate.test(existing)) {
+          return Optional.of(existing);
+        }
+      }
+      putIndex(response.getRequestId(), appendLocked(payload));
+      position = appendedBytes;
+    } finally {
+      appendLock.unlock();
+    }
+    awaitDurable(position);
+    return Optional.empty();
+  }
+
+  /**
+   * 인코딩은 lock 밖에서 하고, lock 안에서는 현재 레코드의 status/version(과 만료 판단용 시각)만 mmap에서 읽어 비교한 뒤
+   * version을 채워 append한다.
+   */
+  @Override
+  public Optional<InferenceResponse> transition(String requestId, Status expectedStatus, InferenceResponse newState) {
+    Transitions.check(requestId, expectedStatus, newState);
+    byte[] payload = InferenceRecordCodec.encode(newState);
+    long now = clock.millis();
+    long version;
+    long position;
+    appendLock.lock();
+    try {
+      Long loc = index.get(requestId);
+      if (loc == null) {
+        return Optional.empty();
+      }
+      // appendLock 아래에서는 compaction이 segment를 지울 수 없으므로 loc은 유효하다
+      ByteBuffer current = payload(segments.get(segmentId(loc)), offset(loc));
+      if (InferenceRecordCodec.peekStatus(current) != expectedStatus || expired(current, now)) {
+        return Optional.empty();
+      }
+      version = InferenceRecordCodec.peekVersion(current) + 1;
+      InferenceRecordCodec.patchVersion(payload, version);
+      putIndex(requestId, appendLocked(payload));
+      position = appendedBytes;
+    } finally {
+      appendLock.unlock();
+    }
+    awaitDurable(position);
+    return Optional.of(newState.toBuilder().version(version).build());
+  }
+
+  @Override
+  public Optional<InferenceResponse> find(String requestId) {
+    if (requestId == null) {
+      return Optional.empty();
+    }
+    long now = clock.millis();
+    // compaction이 레코드를 옮기고 segment를 지운 직후라면 인덱스를 다시 읽는다
+    for (int attempt = 0; attempt < 3; attempt++) {
+      Long loc = index.get(requestId);
+      if (loc == null) {
+        return Optional.empty();
+      }
+      Segment seg = segments.get(segmentId(loc));
+      if (seg != null) {
+        ByteBuffer payload = payload(seg, offset(loc));
+        return expired(payload, now) ? Optional.empty() : Optional.of(InferenceRecordCodec.decode(payload));
+      }
+    }
+    return Optional.empty();
+  }
+
+  public int size() {
+    return index.size();
+  }
+
+  public int segmentCount() {
+    return segments.size();
+  }
+
+  public long recoveryMs() {
+    return recoveryMs;
+  }
+
+  /**
+   * 만료된 엔트리를 인덱스에서 뺀 뒤, live 비율이 낮은 닫힌 segment를 압축한다.
+   * 주기 작업 외에 테스트/벤치마크에서 직접 부를 수 있다.
+   *
+   * @return 지운 segment 수
+   */
+  public int compact() {
+    expire(clock.millis());
+    int removed = 0;
+    for (Segment seg : List.copyOf(segments.values())) {
+      if (!seg.sealed || seg == active || seg.totalBytes == 0) {
+        continue;
+      }
+      if (seg.liveBytes.get() >= seg.totalBytes * compactionLiveRatio) {
+        continue;
+      }
+      relocateLive(seg);
+      // 옮긴 레코드가 디스크에 내려간 뒤에만 원본을 지운다
+      forceActive();
+      segments.remove(seg.id);
+      try {
+        Files.deleteIfExists(seg.path);
+      } catch (IOException e) {
+        log.warn("event=store.log.delete_failed segment={} exceptionType={}", seg.path, e.getClass().getName());
+      }
+      compactions.increment();
+      removed++;
+    }
+    return removed;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (compactor != null) {
+      compactor.shutdownNow();
+    }
+    if (flusher != null) {
+      flushLock.lock();
+      try {
+        flushRequested.signalAll();
+      } finally {
+        flushLock.unlock();
+      }
+      try {
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    // MappedByteBuffer는 명시적으로 unmap할 수 없다: 참조가 사라지면 GC가 해제한다
+    forceActive();
+  }
+
+  // ---- expiry ----
+
+  /**
+   * 인덱스 전체를 훑어 만료된 엔트리를 뺀다. 레코드는 status/시각만 peek한다(압축 주기마다 O(엔트리 수)).
+   * 빠진 레코드는 live가 아니게 되므로 그 segment의 live 비율이 떨어지고, 다음 압축이 지운다.
+   *
+   * @return 뺀 엔트리 수
+   */
+  private int expire(long now) {
+    int expired = 0;
+    for (Map.Entry<String, Long> e : index.entrySet()) {
+      long loc = e.getValue();
+      Segment seg = segments.get(segmentId(loc));
+      if (seg == null) {
+        continue;
+      }
+      ByteBuffer payload = payload(seg, offset(loc));
+      if (!expired(payload, now)) {
+        continue;
+      }
+      Status status = InferenceRecordCodec.peekStatus(payload);
+      appendLock.lock();
+      try {
+        // 그 사이에 새 상태가 저장됐으면 빼지 않는다
+        if (index.remove(e.getKey(), loc)) {
+          releaseLive(loc);
+          expirations.get(TtlClass.of(status)).increment();
+          expired++;
+        }
+      } finally {
+        appendLock.unlock();
+      }
+    }
+    return expired;
+  }
+
+  /** appendLock을 잡은 상태에서 호출한다 (loc이 가리키는 segment가 지워지지 않는다). */
+  private boolean expired(long loc, long now) {
+    Segment seg = segments.get(segmentId(loc));
+    return seg != null && expired(payload(seg, offset(loc)), now);
+  }
+
+  /** 마지막 전이 시각이 하나도 없는 레코드는 만료시키지 않는다. */
+  private boolean expired(ByteBuffer payload, long now) {
+    long touchedAt = InferenceRecordCodec.peekTouchedAtMillis(payload);
+    return touchedAt != Long.MIN_VALUE
+        && now - touchedAt >= ttlMs.get(TtlClass.of(InferenceRecordCodec.peekStatus(payload)));
+  }
+
+  // ---- append / read ----
+
+  /** appendLock을 잡은 상태에서 호출한다. */
+  private long appendLocked(byte[] payload) {
+    int recordBytes = HEADER_BYTES + payload.length;
+    if (recordBytes > segmentBytes) {
+      throw new IllegalArgumentException("record larger than segment: " + recordBytes);
+    }
+    Segment seg = active;
+    if (seg.writePos + recordBytes > seg.capacity) {
+      seg = roll();
+    }
+    int offset = seg.writePos;
+    CRC32C crc = new CRC32C();
+    crc.update(payload);
+    seg.buffer.put(offset + HEADER_BYTES, payload);
+    seg.buffer.putInt(offset + 4, (int) crc.getValue());
+    seg.buffer.putInt(offset, payload.length);
+    seg.writePos = offset + recordBytes;
+    seg.totalBytes += recordBytes;
+    seg.liveBytes.addAndGet(recordBytes);
+    appendedBytes += recordBytes;
+    return location(seg.id, offset);
+  }
+
+  /** appendLock을 잡은 상태에서 호출한다. 이전 레코드는 더 이상 live가 아니다. */
+  private void putIndex(String requestId, long loc) {
+    Long previous = index.put(requestId, loc);
+    if (previous != null) {
+      releaseLive(previous);
+    }
+  }
+
+  private void releaseLive(long loc) {
+    Segment seg = segments.get(segmentId(loc));
+    if (seg != null) {
+      seg.liveBytes.addAndGet(-(HEADER_BYTES + seg.buffer.getInt(offset(loc))));
+    }
+  }
+
+  /** @return segment가 이미 지워졌으면 null */
+  private InferenceResponse read(long loc) {
+    Segment seg = segments.get(segmentId(loc));
+    if (seg == null) {
+      return null;
+    }
+    return InferenceRecordCodec.decode(payload(seg, offset(loc)));
+  }
+
+  private static ByteBuffer payload(Segment seg, int offset) {
+    int len = seg.buffer.getInt(offset);
+    return seg.buffer.slice(offset + HEADER_BYTES, len);
+  }
+
+  /** appendLock을 잡은 상태에서 호출한다. 닫는 segment는 그 자리에서 전부 force한다(드물다). */
+  private Segment roll() {
+    Segment sealed = active;
+    sealed.buffer.force();
+    sealed.forcedPos = sealed.writePos;
+    sealed.sealed = true;
+    try {
+      Segment next = openSegment(sealed.id + 1, true);
+      segments.put(next.id, next);
+      active = next;
+      return next;
+    } catch (IOException e) {
+      throw new UncheckedIOException("failed to roll inference store segment", e);
+    }
+  }
+
+  private void relocateLive(Segment seg) {
+    int offset = 0;
+    while (offset + HEADER_BYTES <= seg.writePos) {
+      int len = seg.buffer.getInt(offset);
+      if (len <= 0) {
+        break;
+      }
+      long loc = location(seg.id, offset);
+      String requestId = InferenceRecordCodec.decodeRequestId(payload(seg, offset));
+      Long current = index.get(requestId);
+      if (current != null && current == loc) {
+        byte[] copy = new byte[len];
+        seg.buffer.get(offset + HEADER_BYTES, copy);
+        appendLock.lock();
+        try {
+          // 복사하는 사이에 새 상태가 저장됐으면 옮기지 않는다
+          current = index.get(requestId);
+          if (current != null && current == loc) {
+            index.put(requestId, appendLocked(copy));
+          }
+        } finally {
+          appendLock.unlock();
+        }
+      }
+      offset += HEADER_BYTES + len;
+    }
+  }
+
+  private void compactQuietly() {
+    try {
+      compact();
+    } catch (RuntimeException e) {
+      log.error("event=store.log.compaction_failed exceptionType={}", e.getClass().getName(), e);
+    }
+  }
+
+  // ---- group commit ----
+
+  private void awaitDurable(long position) {
+    if (syncMode != SyncMode.GROUP) {
+      return;
+    }
+    flushLock.lock();
+    try {
+      if (position > requestedBytes) {
+        requestedBytes = position;
+        flushRequested.signal();
+      }
+      while (durableBytes < position && !closed) {
+        flushed.awaitUninterruptibly();
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private void flushLoop() {
+    while (!closed) {
+      flushLock.lock();
+      try {
+        if (syncMode == SyncMode.PERIODIC) {
+          flushRequested.await(fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+          while (!closed && requestedBytes <= durableBytes) {
+            flushRequested.await();
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        flushLock.unlock();
+      }
+      forceActive();
+    }
+  }
+
+  /**
+   * 활성 segment의 아직 force하지 않은 구간을 내리고, 그 시점까지 append된 writer들을 깨운다.
+   * 그 사이에 들어온 writer들은 다음 force에 함께 묶인다.
+   */
+  private void forceActive() {
+    forceLock.lock();
+    try {
+      Segment seg;
+      int pos;
+      long target;
+      appendLock.lock();
+      try {
+        seg = active;
+        pos = seg.writePos;
+        target = appendedBytes;
+      } finally {
+        appendLock.unlock();
+      }
+      if (pos > seg.forcedPos) {
+        seg.buffer.force(seg.forcedPos, pos - seg.forcedPos);
+        seg.forcedPos = pos;
+        fsyncs.increment();
+      }
+      flushLock.lock();
+      try {
+        if (target > durableBytes) {
+          durableBytes = target;
+        }
+        flushed.signalAll();
+      } finally {
+        flushLock.unlock();
+      }
+    } finally {
+      forceLock.unlock();
+    }
+  }
+
+  // ---- recovery ----
+
+  private void recover() throws IOException {
+    List<Integer> ids = new ArrayList<>();
+    try (Stream<Path> files = Files.list(dir)) {
+      files.map(p -> p.getFileName().toString())
+          .filter(n -> n.startsWith(SEGMENT_PREFIX) && n.endsWith(SEGMENT_SUFFIX))
+          .map(n -> Integer.parseInt(n.substring(SEGMENT_PREFIX.length(), n.length() - SEGMENT_SUFFIX.length())))
+          .sorted()
+          .forEach(ids::add);
+    }
+
+    Set<String> inFlight = new HashSet<>();
+    long records = 0;
+    for (int id : ids) {
+      Segment seg = openSegment(id, false);
+      segments.put(id, seg);
+      records += scan(seg, inFlight);
+      seg.sealed = true;
+    }
+    if (segments.isEmpty()) {
+      Segment first = openSegment(1, true);
+      segments.put(first.id, first);
+    }
+    active = segments.lastEntry().getValue();
+    active.sealed = false;
+
+    // 꺼져 있는 동안 만료된 엔트리는 인덱스에 올리지 않는다 (in-flight였더라도 실패로 기록할 필요가 없다)
+    Instant now = Instant.now(clock);
+    int expired = expire(now.toEpochMilli());
+
+    // 실행 중에 죽은 작업: 다시 실행할 방법이 없으므로 실패로 확정한다
+    int failedInFlight = 0;
+    appendLock.lock();
+    try {
+      for (String requestId : inFlight) {
+        Long loc = index.get(requestId);
+        if (loc == null) {
+          continue;
+        }
+        InferenceResponse r = read(loc);
+        InferenceResponse failed = r.toBuilder()
+            .status(Status.FAILED)
+            .version(r.getVersion() + 1)
+            .error(RESTARTED_ERROR)
+            .completedAt(now)
+            .latencyMs(r.getReceivedAt() == null ? null : Duration.between(r.getReceivedAt(), now).toMillis())
+            .build();
+        putIndex(requestId, appendLocked(InferenceRecordCodec.encode(failed)));
+        failedInFlight++;
+      }
+    } finally {
+      appendLock.unlock();
+    }
+    active.buffer.force();
+    active.forcedPos = active.writePos;
+    durableBytes = appendedBytes;
+
+    log.info("event=store.log.recovered dir={} segments={} records={} entries={} expired={} failedInFlight={}",
+        dir, segments.size(), records, index.size(), expired, failedInFlight);
+  }
+
+  /** segment 하나를 처음부터 읽어 인덱스에 반영한다. 깨진 꼬리는 0으로 지워 다음 append가 이어 쓰게 한다. */
+  private long scan(Segment seg, Set<String> inFlight) {
+    int offset = 0;
+    long records = 0;
+    CRC32C crc = new CRC32C();
+    while (offset + HEADER_BYTES <= seg.capacity) {
+      int len = seg.buffer.getInt(offset);
+      if (len == 0) {
+        break;
+      }
+      if (len < 0 || offset + HEADER_BYTES + len > seg.capacity) {
+        truncate(seg, offset);
+        break;
+      }
+      ByteBuffer payload = payload(seg, offset);
+      crc.reset();
+      crc.update(payload.duplicate());
+      if ((int) crc.getValue() != seg.buffer.getInt(offset + 4)) {
+        truncate(seg, offset);
+        break;
+      }
+      String requestId = InferenceRecordCodec.decodeRequestId(payload);
+      Status status = InferenceRecordCodec.decodeStatus(payload);
+      int recordBytes = HEADER_BYTES + len;
+      seg.totalBytes += recordBytes;
+      seg.liveBytes.addAndGet(recordBytes);
+      putIndex(requestId, location(seg.id, offset));
+      if (status == Status.QUEUED || status == Status.RUNNING) {
+        inFlight.add(requestId);
+      } else {
+        inFlight.remove(requestId);
+      }
+      offset += recordBytes;
+      records++;
+    }
+    seg.writePos = offset;
+    seg.forcedPos = offset;
+    appendedBytes += offset;
+    return records;
+  }
+
+  private void truncate(Segment seg, int offset) {
+    log.warn("event=store.log.torn_tail segment={} offset={}", seg.path, offset);
+    for (int i = offset; i < seg.capacity; i++) {
+      seg.buffer.put(i, (byte) 0);
+    }
+    seg.buffer.force();
+  }
+
+  private Segment openSegment(int id, boolean create) throws IOException {
+    Path path = dir.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "rw")) {
+      if (create || raf.length() == 0) {
+        raf.setLength(segmentBytes);
+      }
+      FileChannel channel = raf.getChannel();
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+      // 매핑은 채널을 닫아도 유지된다
+      return new Segment(id, path, buffer);
+    }
+  }
+
+  private static long location(int segmentId, int offset) {
+    return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+  }
+
+  private static int segmentId(long loc) {
+    return (int) (loc >>> 32);
+  }
+
+  private static int offset(long loc) {
+    return (int) loc;
+  }
+
+  private static final class Segment {
+    private final int id;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    /** appendLock 아래에서만 바뀐다 */
+    private int writePos;
+    private long totalBytes;
+    /** forceLock 아래에서만 바뀐다 (roll 제외: 닫는 segment는 이후 flusher가 다시 건드리지 않는다) */
+    private int forcedPos;
+    private volatile boolean sealed;
+    private final AtomicLong liveBytes = new AtomicLong();
+
+    private Segment(int id, Path path, MappedByteBuffer buffer) {
+      this.id = id;
+      this.path = path;
+      this.buffer = buffer;
+      this.capacity = buffer.capacity();
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package inference.store;
+
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+
+/**
+ * {@link InferenceStore#transition} 구현들이 공유하는 검증/버전 규칙.
+ */
+final class Transitions {
+
+  private Transitions() {}
+
+  static void check(String requestId, Status expectedStatus, InferenceResponse newState) {
+    if (requestId == null || newState == null || !requestId.equals(newState.getRequestId())) {
+      throw new IllegalArgumentException("newState must have requestId " + requestId);
+    }
+    if (expectedStatus == null || !expectedStatus.canTransitionTo(newState.getStatus())) {
+      throw new IllegalStateException(
+          "illegal transition " + expectedStatus + " -> " + newState.getStatus() + " requestId=" + requestId);
+    }
+  }
+
+  /** 현재 스냅샷이 기대 상태면 다음 version을 매긴 스냅샷을, 아니면 null을 돌려준다. */
+  static InferenceResponse next(InferenceResponse current, Status expectedStatus, InferenceResponse newState) {
+    if (current == null || current.getStatus() != expectedStatus) {
+      return null;
+    }
+    return newState.toBuilder().version(current.getVersion() + 1).build();
+  }
+}
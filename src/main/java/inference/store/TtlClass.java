@@ -0,0 +1,32 @@
+package inference.store;
+
+import inference.model.InferenceResponse.Status;
+
+/**
+ * 상태별 TTL 클래스. 같은 클래스 안에서는 TTL이 같다 ({@code inference.store.ttl.*}).
+ * 메트릭 {@code inference.store.expirations{class}}의 태그 값도 여기서 정한다.
+ */
+enum TtlClass {
+  IN_FLIGHT("in_flight"),
+  SUCCEEDED("succeeded"),
+  FAILED("failed"),
+  REJECTED("rejected");
+
+  final String tagValue;
+
+  TtlClass(String tagValue) {
+    this.tagValue = tagValue;
+  }
+
+  static TtlClass of(Status status) {
+    if (status == null) {
+      return IN_FLIGHT;
+    }
+    return switch (status) {
+      case SUCCEEDED -> SUCCEEDED;
+      case FAILED, CANCELLED -> FAILED;
+      case REJECTED -> REJECTED;
+      default -> IN_FLIGHT;
+    };
+  }
+}
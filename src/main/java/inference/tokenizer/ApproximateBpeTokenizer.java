@@ -0,0 +1,97 @@
+package inference.tokenizer;
+
+/**
+ * 어휘 없이 byte-level BPE(GPT 계열) 토큰 수를 근사하는 기본 {@link Tokenizer}.
+ *
+ * <p>
+ * BPE처럼 먼저 pre-token(단어/숫자/구두점/공백/비ASCII 구간)으로 나누고, 구간마다 병합 결과를 길이로 어림한다.
+ * - 영문 단어: 앞 공백 하나를 포함해 6자까지 1토큰, 그보다 길면 4자마다 1토큰 더 (흔한 단어는 통째로 병합된다)
+ * - 숫자: 3자리씩, 구두점: 2자씩, 공백/개행: 4자씩
+ * - 비ASCII(한글/CJK/이모지 등): UTF-8 2바이트당 1토큰 (byte fallback과 부분 병합의 중간)
+ * 영어 산문에서 대략 4자당 1토큰, 한글은 음절당 1.5토큰 정도로 실제 tokenizer와 같은 자릿수를 낸다.
+ * 할당 없이 문자열을 한 번 훑는다.
+ * </p>
+ */
+public class ApproximateBpeTokenizer implements Tokenizer {
+
+  private static final int WORD_MERGE_CHARS = 6;
+
+  @Override
+  public int countTokens(CharSequence text) {
+    if (text == null) {
+      return 0;
+    }
+    int n = text.length();
+    int tokens = 0;
+    int i = 0;
+    while (i < n) {
+      char c = text.charAt(i);
+      if (absorbedSpace(text, i)) {
+        // 단어 앞 공백 하나는 단어 토큰에 붙는다 (" the"가 한 토큰)
+        i++;
+        continue;
+      }
+      int start = i;
+      if (isLetter(c)) {
+        while (i < n && isLetter(text.charAt(i))) {
+          i++;
+        }
+        int len = i - start;
+        tokens += len <= WORD_MERGE_CHARS ? 1 : 1 + ceilDiv(len - WORD_MERGE_CHARS, 4);
+      } else if (isDigit(c)) {
+        while (i < n && isDigit(text.charAt(i))) {
+          i++;
+        }
+        tokens += ceilDiv(i - start, 3);
+      } else if (isSpace(c)) {
+        while (i < n && isSpace(text.charAt(i)) && !absorbedSpace(text, i)) {
+          i++;
+        }
+        tokens += ceilDiv(i - start, 4);
+      } else if (c < 0x80) {
+        while (i < n && isPunct(text.charAt(i))) {
+          i++;
+        }
+        tokens += ceilDiv(i - start, 2);
+      } else {
+        int bytes = 0;
+        while (i < n && text.charAt(i) >= 0x80) {
+          char ch = text.charAt(i);
+          if (Character.isHighSurrogate(ch) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+            bytes += 4;
+            i += 2;
+          } else {
+            bytes += ch < 0x800 ? 2 : 3;
+            i++;
+          }
+        }
+        tokens += ceilDiv(bytes, 2);
+      }
+    }
+    return tokens;
+  }
+
+  private static boolean absorbedSpace(CharSequence text, int i) {
+    return text.charAt(i) == ' ' && i + 1 < text.length() && isLetter(text.charAt(i + 1));
+  }
+
+  private static boolean isLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isSpace(char c) {
+    return c <= ' ';
+  }
+
+  private static boolean isPunct(char c) {
+    return c < 0x80 && !isLetter(c) && !isDigit(c) && !isSpace(c);
+  }
+
+  private static int ceilDiv(int a, int b) {
+    return (a + b - 1) / b;
+  }
+}
@@ -0,0 +1,15 @@
+package inference.tokenizer;
+
+/**
+ * 요청 하나의 토큰 비용 추정.
+ *
+ * @param promptTokens    prompt 토큰 수 (prefill)
+ * @param maxOutputTokens 생성할 수 있는 최대 토큰 수 (decode). KV cache는 이만큼까지 자랄 수 있다
+ */
+public record TokenEstimate(int promptTokens, int maxOutputTokens) {
+
+  /** admission에서 쓰는 요청 비용: 실행 중 KV cache가 차지할 수 있는 최대 토큰 수 */
+  public int total() {
+    return (int) Math.min(Integer.MAX_VALUE, (long) promptTokens + maxOutputTokens);
+  }
+}
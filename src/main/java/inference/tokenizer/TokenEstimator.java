@@ -0,0 +1,56 @@
+package inference.tokenizer;
+
+import inference.model.InferenceRequest;
+import java.util.Map;
+
+/**
+ * 요청 하나의 토큰 비용(prompt + 최대 출력)을 추정한다.
+ *
+ * <p>
+ * 최대 출력은 {@code parameters.max_tokens}(또는 {@code maxTokens})이고, 없거나 숫자가 아니면 defaultMaxOutputTokens.
+ * 클라이언트 값은 maxOutputTokens까지로 자른다(큰 값으로 token budget을 혼자 차지하지 못하게).
+ * </p>
+ */
+public class TokenEstimator {
+
+  private final Tokenizer tokenizer;
+  private final int defaultMaxOutputTokens;
+  private final int maxOutputTokens;
+
+  public TokenEstimator(Tokenizer tokenizer, int defaultMaxOutputTokens, int maxOutputTokens) {
+    if (defaultMaxOutputTokens < 0 || maxOutputTokens < defaultMaxOutputTokens) {
+      throw new IllegalArgumentException("require 0 <= defaultMaxOutputTokens <= maxOutputTokens");
+    }
+    this.tokenizer = tokenizer;
+    this.defaultMaxOutputTokens = defaultMaxOutputTokens;
+    this.maxOutputTokens = maxOutputTokens;
+  }
+
+  public TokenEstimate estimate(InferenceRequest request) {
+    return new TokenEstimate(tokenizer.countTokens(request.getPrompt()), maxOutputTokens(request));
+  }
+
+  private int maxOutputTokens(InferenceRequest request) {
+    Map<String, Object> params = request.getParameters();
+    if (params == null) {
+      return defaultMaxOutputTokens;
+    }
+    Object v = params.get("max_tokens");
+    if (v == null) {
+      v = params.get("maxTokens");
+    }
+    long requested;
+    if (v instanceof Number number) {
+      requested = number.longValue();
+    } else if (v instanceof String s) {
+      try {
+        requested = Long.parseLong(s.trim());
+      } catch (NumberFormatException e) {
+        return defaultMaxOutputTokens;
+      }
+    } else {
+      return defaultMaxOutputTokens;
+    }
+    return (int) Math.max(0, Math.min(maxOutputTokens, requested));
+  }
+}
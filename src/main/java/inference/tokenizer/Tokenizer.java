@@ -0,0 +1,15 @@
+package inference.tokenizer;
+
+/**
+ * prompt/출력 토큰 수를 세는 SPI. 실제 어휘(vocab)를 쓰는 구현으로 바꾸려면 이 타입의 bean을 하나 등록하면 된다
+ * (기본 {@link ApproximateBpeTokenizer}는 bean이 없을 때만 쓰인다).
+ *
+ * <p>
+ * 요청마다 접수 스레드에서 한 번 호출되므로 thread-safe하고 빨라야 한다(할당 없이 한 번 훑는 정도).
+ * </p>
+ */
+public interface Tokenizer {
+
+  /** @return text의 토큰 수 (null/빈 문자열이면 0) */
+  int countTokens(CharSequence text);
+}
@@ -0,0 +1,75 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import inference.testsupport.Polling;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.batching.enabled=true",
+    "inference.batching.maxBatchSize=2",
+    "inference.batching.maxWaitMs=100",
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=2",
+    "inference.concurrency.queueCapacity=10",
+    "inference.processing.timeoutMs=3000",
+    "inference.processing.simulatedMinMs=600",
+    "inference.processing.simulatedMaxMs=600"
+})
+@AutoConfigureMockMvc
+class InferenceApiBatchDeadlineTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper om;
+
+  @Test
+  void itemWithEarlierDeadlineEndsAtItsOwnDeadlineNotWithTheBatch() throws Exception {
+    submit("bd-short", "250");
+    submit("bd-long", null);
+
+    InferenceResponse shortOne = awaitTerminal("bd-short");
+    InferenceResponse longOne = awaitTerminal("bd-long");
+    assertThat(longOne.getStatus()).isEqualTo(Status.SUCCEEDED);
+    assertThat(shortOne.getStatus()).isEqualTo(Status.FAILED);
+    assertThat(shortOne.getError()).isEqualTo("timeout");
+    // 배치(~600ms)가 끝날 때가 아니라 자기 deadline(250ms) 무렵에 끝난다
+    assertThat(shortOne.getCompletedAt()).isBefore(longOne.getCompletedAt().minusMillis(200));
+    assertThat(shortOne.getLatencyMs()).isLessThan(500L);
+  }
+
+  private void submit(String rid, String timeoutMs) throws Exception {
+    var req = post("/v1/inference")
+        .header("X-Request-Id", rid)
+        .contentType(APPLICATION_JSON)
+        .content("{\"prompt\":\"mixed deadline\",\"model\":\"batch-model\"}");
+    if (timeoutMs != null) {
+      req.header("X-Request-Timeout-Ms", timeoutMs);
+    }
+    mvc.perform(req).andExpect(status().isAccepted());
+  }
+
+  private InferenceResponse awaitTerminal(String rid) throws Exception {
+    Polling.waitUntil(Duration.ofSeconds(5), Duration.ofMillis(20), () -> {
+      Status s = fetch(rid).getStatus();
+      return s != Status.QUEUED && s != Status.RUNNING;
+    });
+    return fetch(rid);
+  }
+
+  private InferenceResponse fetch(String rid) throws Exception {
+    var res = mvc.perform(get("/v1/inference/" + rid)).andExpect(status().isOk()).andReturn();
+    return om.readValue(res.getResponse().getContentAsByteArray(), InferenceResponse.class);
+  }
+}
@@ -0,0 +1,64 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.model.InferenceResponse;
+import inference.testsupport.Polling;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.batching.enabled=true",
+    "inference.batching.maxBatchSize=4",
+    "inference.batching.maxWaitMs=500",
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=4",
+    "inference.concurrency.queueCapacity=10",
+    "inference.processing.timeoutMs=3000",
+    "inference.processing.simulatedMinMs=200",
+    "inference.processing.simulatedMaxMs=200"
+})
+@AutoConfigureMockMvc
+class InferenceApiBatchingTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper om;
+  @Autowired MeterRegistry meterRegistry;
+
+  @Test
+  void sameModelRequestsRunAsOneBatchWithSinglePermit() throws Exception {
+    for (int i = 0; i < 4; i++) {
+      mvc.perform(post("/v1/inference")
+              .header("X-Request-Id", "batch-" + i)
+              .contentType(APPLICATION_JSON)
+              .content("""
+                  {"prompt":"batched prompt","model":"batch-model"}
+                  """))
+          .andExpect(status().isAccepted());
+    }
+
+    for (int i = 0; i < 4; i++) {
+      String rid = "batch-" + i;
+      Polling.waitUntil(Duration.ofSeconds(3), Duration.ofMillis(50), () -> {
+        var res = mvc.perform(get("/v1/inference/" + rid)).andExpect(status().isOk()).andReturn();
+        InferenceResponse body = om.readValue(res.getResponse().getContentAsByteArray(), InferenceResponse.class);
+        return body.getStatus() == InferenceResponse.Status.SUCCEEDED;
+      });
+    }
+
+    // maxConcurrent=1 이어도 배치 하나(permit 1개)로 4건이 함께 처리된다
+    var batchSize = meterRegistry.get("inference.batch.size").summary();
+    assertThat(batchSize.count()).isEqualTo(1);
+    assertThat(batchSize.max()).isEqualTo(4.0);
+  }
+}
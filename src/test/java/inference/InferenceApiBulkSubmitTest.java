@@ -0,0 +1,59 @@
+package inference;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=1",
+    "inference.concurrency.queueCapacity=1",
+    "inference.processing.timeoutMs=5000",
+    "inference.processing.simulatedMinMs=1000",
+    "inference.processing.simulatedMaxMs=1000"
+})
+@AutoConfigureMockMvc
+class InferenceApiBulkSubmitTest {
+
+  @Autowired MockMvc mvc;
+
+  @Test
+  void jsonArrayGetsPerItemAdmissionDecisions() throws Exception {
+    mvc.perform(post("/v1/inference/batch")
+            .contentType(APPLICATION_JSON)
+            .content("""
+                [
+                  {"prompt":"first","clientRequestId":"bulk-1"},
+                  {"model":"missing prompt","clientRequestId":"bulk-invalid"},
+                  {"prompt":"second","clientRequestId":"bulk-2"},
+                  {"prompt":"third","clientRequestId":"bulk-3"}
+                ]
+                """))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.accepted").value(2))
+        .andExpect(jsonPath("$.rejected").value(2))
+        .andExpect(jsonPath("$.items[0].requestId").value("bulk-1"))
+        // 워커가 매우 빨리 집어가면 응답 시점에 RUNNING일 수 있음
+        .andExpect(jsonPath("$.items[0].status").value(org.hamcrest.Matchers.oneOf("QUEUED", "RUNNING")))
+        .andExpect(jsonPath("$.items[1].error").value("validation_failed: prompt"))
+        .andExpect(jsonPath("$.items[2].status").value("QUEUED"))
+        .andExpect(jsonPath("$.items[3].status").value("REJECTED"))
+        .andExpect(jsonPath("$.items[3].error").value("queue_full"));
+  }
+
+  @Test
+  void malformedBodyReturns400() throws Exception {
+    mvc.perform(post("/v1/inference/batch")
+            .contentType("application/x-ndjson")
+            .content("{not json"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.title").value("malformed_json"));
+  }
+}
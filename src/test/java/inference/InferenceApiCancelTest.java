@@ -0,0 +1,92 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import inference.concurrency.InferenceLoad;
+import inference.testsupport.Polling;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=1",
+    "inference.concurrency.queueCapacity=5",
+    "inference.concurrency.acquireTimeoutMs=50",
+    "inference.processing.timeoutMs=10000",
+    "inference.processing.simulatedMinMs=1000",
+    "inference.processing.simulatedMaxMs=1000"
+})
+@AutoConfigureMockMvc
+class InferenceApiCancelTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired InferenceLoad load;
+  @Autowired MeterRegistry registry;
+
+  @Test
+  void cancelRemovesQueuedJobAndInterruptsRunningJob() throws Exception {
+    submit("cancel-running");
+    awaitStatus("cancel-running", "RUNNING");
+    submit("cancel-queued");
+    assertThat(load.queueDepth()).isEqualTo(1);
+
+    // QUEUED: 큐에서 바로 빠진다
+    mvc.perform(delete("/v1/inference/cancel-queued"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("CANCELLED"))
+        .andExpect(jsonPath("$.error").value("cancelled"));
+    assertThat(load.queueDepth()).isZero();
+
+    // RUNNING: 워커가 interrupt되고 permit이 바로 반납된다
+    long cancelledAt = System.nanoTime();
+    mvc.perform(delete("/v1/inference/cancel-running"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("CANCELLED"));
+    submit("cancel-next");
+    awaitStatus("cancel-next", "RUNNING");
+    // 취소된 작업이 끝까지(1000ms) 돌았다면 다음 작업은 그 뒤에야 시작한다
+    assertThat(Duration.ofNanos(System.nanoTime() - cancelledAt)).isLessThan(Duration.ofMillis(700));
+
+    mvc.perform(get("/v1/inference/cancel-running"))
+        .andExpect(jsonPath("$.status").value("CANCELLED"))
+        .andExpect(jsonPath("$.output").doesNotExist());
+    // 이미 CANCELLED면 그대로 200, 다른 terminal이면 409, 모르는 id는 404
+    mvc.perform(delete("/v1/inference/cancel-running")).andExpect(status().isOk());
+    awaitStatus("cancel-next", "SUCCEEDED");
+    mvc.perform(delete("/v1/inference/cancel-next"))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.status").value("SUCCEEDED"));
+    mvc.perform(delete("/v1/inference/cancel-unknown")).andExpect(status().isNotFound());
+
+    assertThat(registry.get("inference.cancellations").tag("from", "queued").counter().count()).isEqualTo(1.0);
+    assertThat(registry.get("inference.cancellations").tag("from", "running").counter().count()).isEqualTo(1.0);
+    assertThat(registry.get("inference.limiter.inflight").gauge().value()).isZero();
+  }
+
+  private void submit(String rid) throws Exception {
+    mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", rid)
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"cancel me","model":"dummy"}
+                """))
+        .andExpect(status().isAccepted());
+  }
+
+  private void awaitStatus(String rid, String expected) throws Exception {
+    Polling.waitUntil(Duration.ofSeconds(5), Duration.ofMillis(10), () ->
+        mvc.perform(get("/v1/inference/" + rid)).andReturn().getResponse().getContentAsString()
+            .contains("\"status\":\"" + expected + "\""));
+  }
+}
@@ -0,0 +1,96 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import inference.testsupport.Polling;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.coalescing.enabled=true",
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=1",
+    "inference.concurrency.queueCapacity=1",
+    "inference.processing.timeoutMs=3000",
+    "inference.processing.simulatedMinMs=300",
+    "inference.processing.simulatedMaxMs=300"
+})
+@AutoConfigureMockMvc
+class InferenceApiCoalescingTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper om;
+
+  @Test
+  void identicalInFlightRequestsShareOneExecution() throws Exception {
+    submit("co-leader", "same prompt", null);
+    // 워커 1개 + 큐 1칸이지만 follower는 큐를 쓰지 않으므로 거절되지 않는다
+    submit("co-f1", "same   prompt", null);
+    submit("co-f2", "same prompt", null);
+    submit("co-short", "same prompt", "100");
+    submit("co-other", "different prompt", null);
+
+    InferenceResponse leader = awaitTerminal("co-leader");
+    InferenceResponse f1 = awaitTerminal("co-f1");
+    InferenceResponse f2 = awaitTerminal("co-f2");
+    assertThat(leader.getStatus()).isEqualTo(Status.SUCCEEDED);
+    assertThat(f1.getStatus()).isEqualTo(Status.SUCCEEDED);
+    assertThat(f1.getCoalescedWith()).isEqualTo("co-leader");
+    assertThat(f1.getOutput()).isEqualTo(leader.getOutput());
+    assertThat(f2.getCoalescedWith()).isEqualTo("co-leader");
+
+    // follower라도 자기 deadline(100ms)은 지킨다: leader(300ms)를 기다리지 않고 끝난다
+    InferenceResponse shortOne = awaitTerminal("co-short");
+    assertThat(shortOne.getStatus()).isIn(Status.FAILED, Status.REJECTED);
+    assertThat(shortOne.getCompletedAt()).isBefore(leader.getCompletedAt());
+
+    assertThat(awaitTerminal("co-other").getStatus()).isEqualTo(Status.SUCCEEDED);
+  }
+
+  @Test
+  void shortBudgetLeaderDoesNotPassItsTimeoutToLongBudgetRequest() throws Exception {
+    // leader는 예산 150ms라 300ms 실행을 못 끝낸다. 같은 요청이라도 예산이 넉넉하면 붙지 않고 따로 실행해야 한다
+    submit("co-tight-leader", "budget prompt", "150");
+    submit("co-patient", "budget prompt", null);
+
+    assertThat(awaitTerminal("co-tight-leader").getStatus()).isIn(Status.FAILED, Status.REJECTED);
+    InferenceResponse patient = awaitTerminal("co-patient");
+    assertThat(patient.getStatus()).isEqualTo(Status.SUCCEEDED);
+    assertThat(patient.getCoalescedWith()).isNull();
+  }
+
+  private void submit(String rid, String prompt, String timeoutMs) throws Exception {
+    var req = post("/v1/inference")
+        .header("X-Request-Id", rid)
+        .contentType(APPLICATION_JSON)
+        .content("{\"prompt\":\"" + prompt + "\",\"model\":\"dummy\"}");
+    if (timeoutMs != null) {
+      req.header("X-Request-Timeout-Ms", timeoutMs);
+    }
+    mvc.perform(req).andExpect(status().isAccepted());
+  }
+
+  private InferenceResponse awaitTerminal(String rid) throws Exception {
+    Polling.waitUntil(Duration.ofSeconds(5), Duration.ofMillis(20), () -> {
+      Status s = fetch(rid).getStatus();
+      return s != Status.QUEUED && s != Status.RUNNING;
+    });
+    return fetch(rid);
+  }
+
+  private InferenceResponse fetch(String rid) throws Exception {
+    var res = mvc.perform(get("/v1/inference/" + rid)).andExpect(status().isOk()).andReturn();
+    return om.readValue(res.getResponse().getContentAsByteArray(), InferenceResponse.class);
+  }
+}
@@ -0,0 +1,83 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.model.InferenceResponse;
+import inference.testsupport.Polling;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=1",
+    "inference.concurrency.queueCapacity=10",
+    "inference.concurrency.acquireTimeoutMs=50",
+    "inference.scheduling.policy=edf",
+    "inference.processing.timeoutMs=3000",
+    "inference.processing.simulatedMinMs=300",
+    "inference.processing.simulatedMaxMs=300"
+})
+@AutoConfigureMockMvc
+class InferenceApiDeadlineTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper om;
+
+  @Test
+  void expiredRequestIsDroppedAndEarlierDeadlineRunsFirst() throws Exception {
+    submit("deadline-busy", null);
+    // 워커가 300ms 동안 막혀 있으므로 100ms 예산은 큐에서 만료된다
+    submit("deadline-short", "100");
+    submit("deadline-default", null);
+    submit("deadline-tight", "2000");
+
+    InferenceResponse expired = awaitTerminal("deadline-short");
+    assertThat(expired.getStatus()).isEqualTo(InferenceResponse.Status.REJECTED);
+    assertThat(expired.getError()).isEqualTo("deadline_exceeded");
+    assertThat(expired.getStartedAt()).isNull();
+    assertThat(expired.getDeadlineAt()).isEqualTo(expired.getReceivedAt().plusMillis(100));
+
+    InferenceResponse tight = awaitTerminal("deadline-tight");
+    InferenceResponse later = awaitTerminal("deadline-default");
+    assertThat(tight.getStatus()).isEqualTo(InferenceResponse.Status.SUCCEEDED);
+    assertThat(later.getStatus()).isEqualTo(InferenceResponse.Status.SUCCEEDED);
+    // 늦게 들어왔지만 deadline이 빠른 요청이 먼저 실행된다 (EDF)
+    assertThat(tight.getStartedAt()).isBefore(later.getStartedAt());
+  }
+
+  private void submit(String rid, String timeoutMs) throws Exception {
+    var req = post("/v1/inference")
+        .header("X-Request-Id", rid)
+        .contentType(APPLICATION_JSON)
+        .content("""
+            {"prompt":"deadline","model":"dummy"}
+            """);
+    if (timeoutMs != null) {
+      req.header("X-Request-Timeout-Ms", timeoutMs);
+    }
+    mvc.perform(req).andExpect(status().isAccepted());
+  }
+
+  private InferenceResponse awaitTerminal(String rid) throws Exception {
+    Polling.waitUntil(Duration.ofSeconds(5), Duration.ofMillis(20), () -> {
+      InferenceResponse body = fetch(rid);
+      return body.getStatus() != InferenceResponse.Status.QUEUED
+          && body.getStatus() != InferenceResponse.Status.RUNNING;
+    });
+    return fetch(rid);
+  }
+
+  private InferenceResponse fetch(String rid) throws Exception {
+    var res = mvc.perform(get("/v1/inference/" + rid)).andExpect(status().isOk()).andReturn();
+    return om.readValue(res.getResponse().getContentAsByteArray(), InferenceResponse.class);
+  }
+}
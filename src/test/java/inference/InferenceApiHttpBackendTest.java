@@ -0,0 +1,88 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.backend.StubModelServer;
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import inference.testsupport.Polling;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.backend.type=http",
+    "inference.backend.http.maxConcurrentRequests=4",
+    "inference.processing.timeoutMs=1000"
+})
+@AutoConfigureMockMvc
+class InferenceApiHttpBackendTest {
+
+  private static StubModelServer server;
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper om;
+
+  @DynamicPropertySource
+  static void backendUrl(DynamicPropertyRegistry registry) throws Exception {
+    server = StubModelServer.start(0, 50, 0);
+    registry.add("inference.backend.http.baseUrl", () -> server.uri().toString());
+  }
+
+  @AfterAll
+  static void stopServer() throws Exception {
+    server.close();
+  }
+
+  @Test
+  void modelServerOutputBecomesResult() throws Exception {
+    submit("http-ok", Map.of());
+
+    Polling.waitUntil(Duration.ofSeconds(3), Duration.ofMillis(20), () -> find("http-ok").getStatus() == Status.SUCCEEDED);
+    assertThat(find("http-ok").getOutput()).isEqualTo("stub: hello from the gateway");
+  }
+
+  @Test
+  void slowModelServerTimesOutAtDeadline() throws Exception {
+    // processing.timeoutMs(1000)보다 느린 모델 서버
+    server.setLatencyMs(5_000);
+    try {
+      long before = server.requests();
+      submit("http-slow", Map.of());
+
+      Polling.waitUntil(Duration.ofSeconds(3), Duration.ofMillis(20), () -> find("http-slow").getStatus() == Status.FAILED);
+      assertThat(find("http-slow").getError()).isEqualTo("timeout");
+      assertThat(server.requests()).isGreaterThan(before);
+    } finally {
+      server.setLatencyMs(50);
+    }
+  }
+
+  private void submit(String requestId, Map<String, Object> parameters) throws Exception {
+    mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", requestId)
+            .contentType(APPLICATION_JSON)
+            .content(om.writeValueAsString(Map.of(
+                "prompt", "hello from the gateway",
+                "model", "dummy",
+                "parameters", parameters))))
+        .andExpect(status().isAccepted());
+  }
+
+  private InferenceResponse find(String requestId) throws Exception {
+    var res = mvc.perform(get("/v1/inference/" + requestId)).andReturn();
+    return om.readValue(res.getResponse().getContentAsByteArray(), InferenceResponse.class);
+  }
+}
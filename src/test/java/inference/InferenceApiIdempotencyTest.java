@@ -0,0 +1,56 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.model.InferenceResponse;
+import inference.service.InferenceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=1",
+    "inference.concurrency.queueCapacity=1",
+    "inference.processing.simulatedMinMs=300",
+    "inference.processing.simulatedMaxMs=300"
+})
+@AutoConfigureMockMvc
+class InferenceApiIdempotencyTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper om;
+  @Autowired InferenceService service;
+
+  @Test
+  void retryWithSameRequestIdReturnsExistingJobWithoutReExecution() throws Exception {
+    InferenceResponse first = submit("idem-1");
+    // 워커 1개 + 큐 1칸: 중복이 실제로 큐에 들어간다면 세 번째 재시도에서 429가 난다
+    InferenceResponse second = submit("idem-1");
+    InferenceResponse third = submit("idem-1");
+
+    assertThat(second.getReceivedAt()).isEqualTo(first.getReceivedAt());
+    assertThat(third.getReceivedAt()).isEqualTo(first.getReceivedAt());
+    assertThat(service.get("idem-1")).get()
+        .extracting(InferenceResponse::getReceivedAt)
+        .isEqualTo(first.getReceivedAt());
+  }
+
+  private InferenceResponse submit(String rid) throws Exception {
+    var res = mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", rid)
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"retry me","model":"dummy"}
+                """))
+        .andExpect(status().isAccepted())
+        .andReturn();
+    return om.readValue(res.getResponse().getContentAsByteArray(), InferenceResponse.class);
+  }
+}
@@ -0,0 +1,96 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import inference.testsupport.Polling;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest(properties = {
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=1",
+    "inference.concurrency.queueCapacity=20",
+    "inference.concurrency.acquireTimeoutMs=50",
+    "inference.processing.timeoutMs=10000",
+    "inference.processing.simulatedMinMs=200",
+    "inference.processing.simulatedMaxMs=200",
+    "inference.admission.shedding.enabled=true",
+    "inference.admission.shedding.minSamples=1"
+})
+@AutoConfigureMockMvc
+class InferenceApiLoadSheddingTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired MeterRegistry registry;
+
+  @Test
+  void requestIsShedUpFrontWhenEstimatedWaitExceedsItsBudget() throws Exception {
+    // 서비스 시간 샘플 1개 (~200ms)
+    mvc.perform(submit("shed-warmup")).andExpect(status().isAccepted());
+    Polling.waitUntil(Duration.ofSeconds(5), Duration.ofMillis(20), () ->
+        mvc.perform(get("/v1/inference/shed-warmup")).andReturn().getResponse().getContentAsString()
+            .contains("\"status\":\"SUCCEEDED\""));
+
+    // 1개 실행 + 5개 대기 → 추정 대기 ~1200ms
+    for (int i = 0; i < 6; i++) {
+      mvc.perform(submit("shed-backlog-" + i)).andExpect(status().isAccepted());
+    }
+
+    mvc.perform(submit("shed-tight").header("X-Request-Timeout-Ms", "300"))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "1"))
+        .andExpect(header().string("X-Request-Id", "shed-tight"))
+        .andExpect(jsonPath("$.title").value("overloaded"))
+        .andExpect(jsonPath("$.requestId").value("shed-tight"));
+    // 거절된 요청은 store에 남지 않는다
+    mvc.perform(get("/v1/inference/shed-tight")).andExpect(status().isNotFound());
+    assertThat(registry.get("inference.rejections").tag("reason", "overloaded").counter().count()).isEqualTo(1.0);
+
+    // 이미 접수된 작업의 재시도는 shedding하지 않고 기존 작업을 돌려준다
+    mvc.perform(submit("shed-backlog-5").header("X-Request-Timeout-Ms", "300"))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.requestId").value("shed-backlog-5"))
+        .andExpect(jsonPath("$.status").value("QUEUED"));
+
+    // 일괄 제출도 항목마다 같은 판정: 새 항목은 overloaded, 기존 작업 재시도는 그대로
+    mvc.perform(post("/v1/inference/batch")
+            .header("X-Request-Timeout-Ms", "300")
+            .contentType(APPLICATION_JSON)
+            .content("""
+                [{"prompt":"shed","model":"dummy","clientRequestId":"shed-bulk-new"},
+                 {"prompt":"shed","model":"dummy","clientRequestId":"shed-backlog-4"}]
+                """))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.accepted").value(1))
+        .andExpect(jsonPath("$.rejected").value(1))
+        .andExpect(jsonPath("$.items[0].status").value("REJECTED"))
+        .andExpect(jsonPath("$.items[0].error").value("overloaded"))
+        .andExpect(jsonPath("$.items[1].status").value("QUEUED"));
+    mvc.perform(get("/v1/inference/shed-bulk-new")).andExpect(status().isNotFound());
+    assertThat(registry.get("inference.rejections").tag("reason", "overloaded").counter().count()).isEqualTo(2.0);
+
+    // 예산이 충분한 요청은 그대로 접수
+    mvc.perform(submit("shed-relaxed")).andExpect(status().isAccepted());
+  }
+
+  private static MockHttpServletRequestBuilder submit(String rid) {
+    return post("/v1/inference")
+        .header("X-Request-Id", rid)
+        .contentType(APPLICATION_JSON)
+        .content("""
+            {"prompt":"shed","model":"dummy"}
+            """);
+  }
+}
@@ -0,0 +1,83 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.model.InferenceResponse;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=1",
+    "inference.processing.timeoutMs=3000",
+    "inference.processing.simulatedMinMs=300",
+    "inference.processing.simulatedMaxMs=300"
+})
+@AutoConfigureMockMvc
+class InferenceApiLongPollTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper om;
+
+  @Test
+  void longPollReturnsOnceJobIsTerminal() throws Exception {
+    String rid = "longpoll-1";
+    mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", rid)
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"wait for me","model":"dummy"}
+                """))
+        .andExpect(status().isAccepted());
+
+    var pending = mvc.perform(get("/v1/inference/" + rid).param("waitMs", "5000"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    var res = mvc.perform(asyncDispatch(pending))
+        .andExpect(status().isOk())
+        .andReturn();
+    InferenceResponse body = om.readValue(res.getResponse().getContentAsByteArray(), InferenceResponse.class);
+    assertThat(body.getStatus()).isEqualTo(InferenceResponse.Status.SUCCEEDED);
+  }
+
+  @Test
+  void zeroWaitReturnsCurrentStateImmediately() throws Exception {
+    String rid = "longpoll-zero";
+    mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", rid)
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"do not wait for me","model":"dummy"}
+                """))
+        .andExpect(status().isAccepted());
+
+    long startNanos = System.nanoTime();
+    var pending = mvc.perform(get("/v1/inference/" + rid).param("waitMs", "0")).andReturn();
+    var res = mvc.perform(asyncDispatch(pending))
+        .andExpect(status().isOk())
+        .andReturn();
+
+    // 작업(300ms)이 끝나기 전에 응답한다
+    assertThat(Duration.ofNanos(System.nanoTime() - startNanos)).isLessThan(Duration.ofMillis(250));
+    InferenceResponse body = om.readValue(res.getResponse().getContentAsByteArray(), InferenceResponse.class);
+    assertThat(body.getStatus()).isIn(InferenceResponse.Status.QUEUED, InferenceResponse.Status.RUNNING);
+  }
+
+  @Test
+  void longPollForUnknownRequestReturns404() throws Exception {
+    var pending = mvc.perform(get("/v1/inference/does-not-exist").param("waitMs", "1000")).andReturn();
+    mvc.perform(asyncDispatch(pending)).andExpect(status().isNotFound());
+  }
+}
@@ -0,0 +1,79 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import inference.testsupport.Polling;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=1",
+    "inference.concurrency.queueCapacity=0",
+    "inference.processing.timeoutMs=5000",
+    "inference.processing.simulatedMinMs=150",
+    "inference.processing.simulatedMaxMs=150"
+})
+@AutoConfigureMockMvc
+// 테스트에서는 기본적으로 Prometheus export가 꺼져 있다
+@AutoConfigureObservability(tracing = false)
+class InferenceApiMetricsTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired MeterRegistry registry;
+
+  @Test
+  void lifecycleTimersAndRejectionCountersAreRecorded() throws Exception {
+    mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", "metrics-1")
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"hold thread","model":"metrics-model"}
+                """))
+        .andExpect(status().isAccepted());
+    Thread.sleep(50);
+    // 워커 1개 + 큐 0 → 즉시 queue_full
+    mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", "metrics-2")
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"rejected","model":"metrics-model"}
+                """))
+        .andExpect(status().isTooManyRequests());
+
+    Polling.waitUntil(Duration.ofSeconds(5), Duration.ofMillis(20), () ->
+        mvc.perform(get("/v1/inference/metrics-1")).andReturn().getResponse().getContentAsString()
+            .contains("\"status\":\"SUCCEEDED\""));
+
+    Polling.waitUntil(Duration.ofSeconds(2), Duration.ofMillis(20), () ->
+        registry.find("inference.e2e").tags("model", "metrics-model", "result", "success").timer() != null
+            && registry.get("inference.e2e").tags("model", "metrics-model", "result", "success").timer().count() == 1);
+    assertThat(registry.get("inference.queue.wait").tags("model", "metrics-model", "result", "success").timer().count())
+        .isEqualTo(1);
+    assertThat(registry.get("inference.permit.wait").tags("model", "metrics-model", "result", "success").timer().count())
+        .isEqualTo(1);
+    assertThat(registry.get("inference.run").tags("model", "metrics-model", "result", "success").timer()
+        .totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(100);
+    assertThat(registry.get("inference.e2e").tags("model", "metrics-model", "result", "rejected").timer().count())
+        .isEqualTo(1);
+    assertThat(registry.get("inference.rejections").tag("reason", "queue_full").counter().count()).isEqualTo(1.0);
+    assertThat(registry.get("inference.limiter.available").gauge().value()).isEqualTo(1.0);
+    assertThat(registry.get("inference.executor.queue_depth").gauge().value()).isZero();
+
+    String scrape = mvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    assertThat(scrape).contains("inference_e2e_seconds_bucket").contains("inference_rejections_total");
+  }
+}
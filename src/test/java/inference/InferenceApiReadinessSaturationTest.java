@@ -0,0 +1,63 @@
+package inference;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import inference.testsupport.Polling;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=1",
+    "inference.concurrency.queueCapacity=2",
+    "inference.concurrency.acquireTimeoutMs=2000",
+    "inference.processing.timeoutMs=5000",
+    "inference.processing.simulatedMinMs=300",
+    "inference.processing.simulatedMaxMs=300",
+    "inference.saturation.readiness.enabled=true",
+    "inference.saturation.readiness.highWatermark=0.9",
+    "inference.saturation.readiness.lowWatermark=0.4"
+})
+@AutoConfigureMockMvc
+class InferenceApiReadinessSaturationTest {
+
+  @Autowired MockMvc mvc;
+
+  @Test
+  void readinessGoesOutOfServiceWhenSaturatedAndRecoversWhenDrained() throws Exception {
+    mvc.perform(get("/actuator/health/readiness"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("UP"));
+
+    // capacity = queueCapacity(2) + limit(1): 1개 실행 + 2개 대기면 saturation 1.0
+    for (int i = 0; i < 3; i++) {
+      mvc.perform(post("/v1/inference")
+              .header("X-Request-Id", "sat-" + i)
+              .contentType(APPLICATION_JSON)
+              .content("""
+                  {"prompt":"saturate","model":"dummy"}
+                  """))
+          .andExpect(status().isAccepted());
+    }
+
+    Polling.waitUntil(Duration.ofSeconds(2), Duration.ofMillis(20), () ->
+        mvc.perform(get("/actuator/health/readiness")).andReturn().getResponse().getStatus() == 503);
+    mvc.perform(get("/actuator/health/readiness"))
+        .andExpect(jsonPath("$.status").value("OUT_OF_SERVICE"))
+        .andExpect(jsonPath("$.components.inferenceSaturation.status").value("OUT_OF_SERVICE"));
+
+    // 큐가 빠지면(lowWatermark 이하) 다시 UP
+    Polling.waitUntil(Duration.ofSeconds(5), Duration.ofMillis(50), () ->
+        mvc.perform(get("/actuator/health/readiness")).andReturn().getResponse().getStatus() == 200);
+    mvc.perform(get("/actuator/health/readiness"))
+        .andExpect(jsonPath("$.status").value("UP"));
+  }
+}
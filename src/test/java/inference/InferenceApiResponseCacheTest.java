@@ -0,0 +1,63 @@
+package inference;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import inference.testsupport.Polling;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.cache.enabled=true",
+    "inference.processing.simulatedMinMs=50",
+    "inference.processing.simulatedMaxMs=50"
+})
+@AutoConfigureMockMvc
+class InferenceApiResponseCacheTest {
+
+  @Autowired MockMvc mvc;
+
+  @Test
+  void repeatedPromptIsServedFromCacheUnlessOptedOut() throws Exception {
+    mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", "cache-1")
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"classify: hello","model":"dummy","parameters":{"temperature":0}}
+                """))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.cached").isEmpty());
+
+    Polling.waitUntil(Duration.ofSeconds(3), Duration.ofMillis(20), () ->
+        mvc.perform(get("/v1/inference/cache-1")).andReturn().getResponse().getContentAsString().contains("SUCCEEDED"));
+
+    // 공백/파라미터 표기만 다른 같은 요청: 큐를 거치지 않고 바로 SUCCEEDED
+    mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", "cache-2")
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"classify:   hello ","model":"dummy","parameters":{"temperature":0.0}}
+                """))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.status").value("SUCCEEDED"))
+        .andExpect(jsonPath("$.cached").value(true))
+        .andExpect(jsonPath("$.output").value("ok: classify: hello"));
+
+    mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", "cache-3")
+            .header("Cache-Control", "no-cache")
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"classify: hello","model":"dummy","parameters":{"temperature":0}}
+                """))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.cached").isEmpty());
+  }
+}
@@ -0,0 +1,59 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import inference.testsupport.Polling;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=1",
+    "inference.processing.timeoutMs=3000",
+    "inference.processing.simulatedMinMs=400",
+    "inference.processing.simulatedMaxMs=400",
+    "inference.processing.cpuBurn.chunkMs=50"
+})
+@AutoConfigureMockMvc
+class InferenceApiStreamTest {
+
+  @Autowired MockMvc mvc;
+
+  @Test
+  void streamPushesChunksAndTerminalStatus() throws Exception {
+    String rid = "stream-1";
+    mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", rid)
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"stream me some tokens please","model":"dummy"}
+                """))
+        .andExpect(status().isAccepted());
+
+    var result = mvc.perform(get("/v1/inference/" + rid + "/stream"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    Polling.waitUntil(Duration.ofSeconds(3), Duration.ofMillis(50),
+        () -> result.getResponse().getContentAsString().contains("\"status\":\"SUCCEEDED\""));
+
+    String body = result.getResponse().getContentAsString();
+    assertThat(body).contains("event:status");
+    assertThat(body).contains("event:chunk");
+  }
+
+  @Test
+  void streamForUnknownRequestReturns404() throws Exception {
+    mvc.perform(get("/v1/inference/does-not-exist/stream"))
+        .andExpect(status().isNotFound());
+  }
+}
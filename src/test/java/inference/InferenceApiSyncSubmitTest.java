@@ -0,0 +1,85 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.model.InferenceResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=1",
+    "inference.processing.timeoutMs=3000",
+    "inference.processing.simulatedMinMs=200",
+    "inference.processing.simulatedMaxMs=200"
+})
+@AutoConfigureMockMvc
+class InferenceApiSyncSubmitTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper om;
+
+  @Test
+  void preferWaitReturns200WithResultWhenJobFinishesInTime() throws Exception {
+    var pending = mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", "sync-1")
+            .header("Prefer", "wait=5")
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"answer inline","model":"dummy"}
+                """))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    var res = mvc.perform(asyncDispatch(pending))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Preference-Applied", "wait=5"))
+        .andExpect(header().string("Location", "/v1/inference/sync-1"))
+        .andReturn();
+    InferenceResponse body = om.readValue(res.getResponse().getContentAsByteArray(), InferenceResponse.class);
+    assertThat(body.getStatus()).isEqualTo(InferenceResponse.Status.SUCCEEDED);
+    assertThat(body.getOutput()).isEqualTo("ok: answer inline");
+  }
+
+  @Test
+  void syncQueryParamAlsoWaits() throws Exception {
+    var pending = mvc.perform(post("/v1/inference")
+            .param("sync", "true")
+            .header("X-Request-Id", "sync-2")
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"answer inline","model":"dummy"}
+                """))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    // Prefer 헤더가 없었으므로 Preference-Applied도 없다
+    mvc.perform(asyncDispatch(pending))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("Preference-Applied"));
+  }
+
+  @Test
+  void preferWithoutWaitBehavesLikeAsyncSubmit() throws Exception {
+    var pending = mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", "sync-3")
+            .header("Prefer", "respond-async")
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"async please","model":"dummy"}
+                """))
+        .andReturn();
+
+    mvc.perform(asyncDispatch(pending)).andExpect(status().isAccepted());
+  }
+}
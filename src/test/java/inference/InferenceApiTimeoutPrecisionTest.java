@@ -0,0 +1,62 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.model.InferenceResponse;
+import inference.testsupport.Polling;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * chunk(500ms)보다 훨씬 짧은 timeout도 chunk 경계까지 기다리지 않고 deadline 근처에서 끊긴다.
+ */
+@SpringBootTest(properties = {
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.workerThreads=1",
+    "inference.processing.timeoutMs=200",
+    "inference.processing.timeoutTickMs=5",
+    "inference.processing.simulatedMinMs=1500",
+    "inference.processing.simulatedMaxMs=1500",
+    "inference.processing.cpuBurn.enabled=true",
+    "inference.processing.cpuBurn.chunkMs=500"
+})
+@AutoConfigureMockMvc
+class InferenceApiTimeoutPrecisionTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper om;
+
+  @Test
+  void timeoutInterruptsWorkInsideAChunk() throws Exception {
+    mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", "precise-timeout")
+            .contentType(APPLICATION_JSON)
+            .content("""
+                {"prompt":"burn","model":"dummy"}
+                """))
+        .andExpect(status().isAccepted());
+
+    Polling.waitUntil(Duration.ofSeconds(3), Duration.ofMillis(10), () -> {
+      InferenceResponse r = fetch();
+      return r.getStatus() == InferenceResponse.Status.FAILED;
+    });
+    InferenceResponse r = fetch();
+    assertThat(r.getError()).isEqualTo("timeout");
+    // 이전(chunk 사이에서만 deadline 확인)에는 첫 chunk가 끝나는 500ms 이후에야 끊겼다
+    assertThat(r.getLatencyMs()).isBetween(200L, 400L);
+  }
+
+  private InferenceResponse fetch() throws Exception {
+    var res = mvc.perform(get("/v1/inference/precise-timeout")).andReturn();
+    return om.readValue(res.getResponse().getContentAsByteArray(), InferenceResponse.class);
+  }
+}
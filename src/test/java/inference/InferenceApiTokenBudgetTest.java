@@ -0,0 +1,71 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import inference.testsupport.Polling;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.concurrency.maxConcurrent=8",
+    "inference.concurrency.workerThreads=8",
+    "inference.concurrency.acquireTimeoutMs=200",
+    "inference.concurrency.tokenBudget=2000",
+    "inference.tokens.defaultMaxOutputTokens=64",
+    "inference.processing.timeoutMs=3000",
+    "inference.processing.simulatedMinMs=1200",
+    "inference.processing.simulatedMaxMs=1200"
+})
+@AutoConfigureMockMvc
+class InferenceApiTokenBudgetTest {
+
+  // "lorem"은 앞 공백과 합쳐 1토큰: 약 1500 + 64(출력) 토큰
+  private static final String LONG_PROMPT = "lorem ".repeat(1500);
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper om;
+
+  @Test
+  void longPromptsAreAdmittedByTokenCostNotRequestCount() throws Exception {
+    submit("tok-long-1", LONG_PROMPT);
+    Polling.waitUntil(Duration.ofSeconds(2), Duration.ofMillis(20), () -> find("tok-long-1").getStatus() == Status.RUNNING);
+
+    // permit은 남아 있지만 토큰이 모자라서 두 번째 긴 요청은 거절된다
+    submit("tok-long-2", LONG_PROMPT);
+    Polling.waitUntil(Duration.ofSeconds(2), Duration.ofMillis(20), () -> find("tok-long-2").getStatus() == Status.REJECTED);
+    assertThat(find("tok-long-2").getError()).isEqualTo("token_budget_exhausted");
+
+    // 남은 토큰에 들어가는 짧은 요청은 긴 요청과 같이 실행된다
+    submit("tok-short", "short prompt");
+    Polling.waitUntil(Duration.ofSeconds(2), Duration.ofMillis(20), () -> find("tok-short").getStatus() == Status.RUNNING);
+    assertThat(find("tok-long-1").getStatus()).isEqualTo(Status.RUNNING);
+
+    Polling.waitUntil(Duration.ofSeconds(3), Duration.ofMillis(20), () ->
+        find("tok-long-1").getStatus() == Status.SUCCEEDED && find("tok-short").getStatus() == Status.SUCCEEDED);
+  }
+
+  private void submit(String requestId, String prompt) throws Exception {
+    mvc.perform(post("/v1/inference")
+            .header("X-Request-Id", requestId)
+            .contentType(APPLICATION_JSON)
+            .content(om.writeValueAsString(Map.of("prompt", prompt, "model", "dummy"))))
+        .andExpect(status().isAccepted());
+  }
+
+  private InferenceResponse find(String requestId) throws Exception {
+    var res = mvc.perform(get("/v1/inference/" + requestId)).andReturn();
+    return om.readValue(res.getResponse().getContentAsByteArray(), InferenceResponse.class);
+  }
+}
@@ -0,0 +1,66 @@
+package inference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.concurrency.VirtualThreadTaskExecutor;
+import inference.model.InferenceResponse;
+import inference.testsupport.Polling;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "inference.concurrency.mode=virtual",
+    "inference.concurrency.maxConcurrent=1",
+    "inference.concurrency.queueCapacity=1",
+    "inference.concurrency.acquireTimeoutMs=10",
+    "inference.processing.timeoutMs=3000",
+    "inference.processing.simulatedMinMs=300",
+    "inference.processing.simulatedMaxMs=300"
+})
+@AutoConfigureMockMvc
+class InferenceApiVirtualModeTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper om;
+  @Autowired TaskExecutor inferenceExecutor;
+
+  @Test
+  void virtualModeWaitsForPermitAndKeepsQueueCapacityRejection() throws Exception {
+    assertThat(inferenceExecutor).isInstanceOf(VirtualThreadTaskExecutor.class);
+
+    submit("vt-1").andExpect(status().isAccepted());
+    // permit 대기 중(= 큐 대기): acquireTimeoutMs(10ms)가 지나도 거절되지 않아야 한다
+    submit("vt-2").andExpect(status().isAccepted());
+    // maxConcurrent + queueCapacity 초과 → 즉시 429 queue_full
+    var res = submit("vt-3").andExpect(status().isTooManyRequests()).andReturn();
+    InferenceResponse rejected = om.readValue(res.getResponse().getContentAsByteArray(), InferenceResponse.class);
+    assertThat(rejected.getError()).isEqualTo("queue_full");
+
+    for (String rid : new String[] {"vt-1", "vt-2"}) {
+      Polling.waitUntil(Duration.ofSeconds(3), Duration.ofMillis(50), () -> {
+        var r = mvc.perform(get("/v1/inference/" + rid)).andExpect(status().isOk()).andReturn();
+        InferenceResponse body = om.readValue(r.getResponse().getContentAsByteArray(), InferenceResponse.class);
+        return body.getStatus() == InferenceResponse.Status.SUCCEEDED;
+      });
+    }
+  }
+
+  private org.springframework.test.web.servlet.ResultActions submit(String rid) throws Exception {
+    return mvc.perform(post("/v1/inference")
+        .header("X-Request-Id", rid)
+        .contentType(APPLICATION_JSON)
+        .content("""
+            {"prompt":"virtual","model":"dummy"}
+            """));
+  }
+}
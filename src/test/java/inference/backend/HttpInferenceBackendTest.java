@@ -0,0 +1,128 @@
+package inference.backend;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inference.model.InferenceRequest;
+import inference.tokenizer.TokenEstimate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HttpInferenceBackendTest {
+
+  private StubModelServer server;
+  private HttpInferenceBackend backend;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = StubModelServer.start(0, 0, 0);
+    backend = new HttpInferenceBackend(server.uri(), HttpClient.Version.HTTP_2, 2,
+        Duration.ofSeconds(1), Duration.ofSeconds(10), new ObjectMapper(), new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    backend.destroy();
+    server.close();
+  }
+
+  @Test
+  void returnsModelOutputOverMultiplexedConnection() throws Exception {
+    AtomicReference<String> streamed = new AtomicReference<>();
+
+    String output = backend.generate(request("r-1", "hello model"),
+        (index, out, from, to) -> streamed.set(out.substring(from, to)));
+    List<String> batch = backend.generateBatch(List.of(request("r-2", "first"), request("r-3", "second")), (i, o, f, t) -> {});
+
+    assertThat(output).isEqualTo("stub: hello model");
+    assertThat(streamed.get()).isEqualTo(output);
+    assertThat(batch).containsExactly("stub: first", "stub: second");
+    assertThat(server.http2Requests()).isEqualTo(server.requests()).isEqualTo(3);
+  }
+
+  @Test
+  void capsRequestsInFlightPerBackend() throws Exception {
+    server.setLatencyMs(100);
+    ExecutorService workers = Executors.newFixedThreadPool(6);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 6; i++) {
+        BackendRequest request = request("cap-" + i, "prompt " + i);
+        results.add(workers.submit(() -> backend.generate(request, (index, out, from, to) -> {})));
+      }
+      for (int i = 0; i < results.size(); i++) {
+        assertThat(results.get(i).get(5, TimeUnit.SECONDS)).isEqualTo("stub: prompt " + i);
+      }
+    } finally {
+      workers.shutdownNow();
+    }
+    assertThat(server.maxInFlight()).isEqualTo(2);
+    assertThat(backend.inFlight()).isZero();
+  }
+
+  @Test
+  void interruptCancelsRequestAndFreesSlot() throws Exception {
+    server.setLatencyMs(5_000);
+    CompletableFuture<Throwable> thrown = new CompletableFuture<>();
+    Thread worker = new Thread(() -> {
+      try {
+        backend.generate(request("slow", "slow prompt"), (index, out, from, to) -> {});
+        thrown.complete(null);
+      } catch (Throwable t) {
+        thrown.complete(t);
+      }
+    });
+    worker.start();
+    while (server.requests() == 0) {
+      Thread.sleep(10);
+    }
+
+    long startNanos = System.nanoTime();
+    worker.interrupt();
+
+    assertThat(thrown.get(1, TimeUnit.SECONDS)).isInstanceOf(InterruptedException.class);
+    assertThat(Duration.ofNanos(System.nanoTime() - startNanos)).isLessThan(Duration.ofSeconds(1));
+    assertThat(backend.inFlight()).isZero();
+  }
+
+  @Test
+  void non2xxResponseFailsWithBackendException() {
+    server.setStatus(503);
+
+    assertThatThrownBy(() -> backend.generate(request("err", "prompt"), (index, out, from, to) -> {}))
+        .isInstanceOf(BackendException.class)
+        .hasMessageContaining("503");
+    assertThat(backend.inFlight()).isZero();
+  }
+
+  @Test
+  void generateUriKeepsBasePath() {
+    assertThat(HttpInferenceBackend.generateUri(URI.create("http://gw/models/llama")))
+        .isEqualTo(URI.create("http://gw/models/llama/v1/generate"));
+    assertThat(HttpInferenceBackend.generateUri(URI.create("http://gw/models/llama/")))
+        .isEqualTo(URI.create("http://gw/models/llama/v1/generate"));
+    assertThat(HttpInferenceBackend.generateUri(URI.create("http://model:8090")))
+        .isEqualTo(URI.create("http://model:8090/v1/generate"));
+  }
+
+  private static BackendRequest request(String requestId, String prompt) {
+    InferenceRequest request = new InferenceRequest();
+    request.setModel("dummy");
+    request.setPrompt(prompt);
+    return new BackendRequest(requestId, request, new TokenEstimate(8, 16), 0);
+  }
+}
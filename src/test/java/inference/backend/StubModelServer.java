@@ -0,0 +1,192 @@
+package inference.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http2.Http2Protocol;
+
+/**
+ * 테스트/벤치마크용 로컬 모델 서버. {@link HttpInferenceBackend}가 말하는 프로토콜만 흉내 낸다.
+ *
+ * <p>
+ * - {@code POST /v1/generate}: {@code {"requestId","model","prompt","maxTokens","parameters"}} →
+ *   latencyMs + maxTokens × msPerOutputToken 뒤에 {@code {"output":"stub: ..."}}
+ * - {@code GET /health}: 200
+ * - 내장 Tomcat + h2c(HTTP/2 cleartext upgrade). 지연은 servlet async + 타이머로 기다리므로 대기 중인 요청이 스레드를 잡지 않는다.
+ * </p>
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *   inference.backend.StubModelServer port=8090 latencyMs=200 msPerOutputToken=0.5
+ * </pre>
+ */
+public final class StubModelServer implements AutoCloseable {
+
+  private final Tomcat tomcat;
+  private final ScheduledExecutorService timer;
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder http2Requests = new LongAdder();
+  private volatile long latencyMs;
+  private volatile double msPerOutputToken;
+  private volatile int status = 200;
+  private int port;
+
+  private StubModelServer(long latencyMs, double msPerOutputToken) {
+    this.latencyMs = latencyMs;
+    this.msPerOutputToken = msPerOutputToken;
+    this.tomcat = new Tomcat();
+    this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "stub-model-server-timer");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /** @param port 0이면 빈 포트 */
+  public static StubModelServer start(int port, long latencyMs, double msPerOutputToken) throws IOException, LifecycleException {
+    StubModelServer server = new StubModelServer(latencyMs, msPerOutputToken);
+    server.startTomcat(port);
+    return server;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> opts = new LinkedHashMap<>();
+    for (String arg : args) {
+      int eq = arg.indexOf('=');
+      if (eq <= 0) {
+        throw new IllegalArgumentException("expected key=value: " + arg);
+      }
+      opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+    }
+    StubModelServer server = start(
+        Integer.parseInt(opts.getOrDefault("port", "8090")),
+        Long.parseLong(opts.getOrDefault("latencyMs", "200")),
+        Double.parseDouble(opts.getOrDefault("msPerOutputToken", "0")));
+    System.out.println("stub model server listening on " + server.uri());
+    server.tomcat.getServer().await();
+  }
+
+  private void startTomcat(int port) throws IOException, LifecycleException {
+    tomcat.setBaseDir(Files.createTempDirectory("stub-model-server").toString());
+    Connector connector = new Connector("HTTP/1.1");
+    connector.setPort(port);
+    connector.addUpgradeProtocol(new Http2Protocol());
+    tomcat.setConnector(connector);
+    Context context = tomcat.addContext("", null);
+    Wrapper generate = Tomcat.addServlet(context, "generate", new GenerateServlet());
+    generate.setAsyncSupported(true);
+    context.addServletMappingDecoded("/v1/generate", "generate");
+    Tomcat.addServlet(context, "health", new HttpServlet() {
+      @Override
+      protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        resp.setStatus(200);
+      }
+    });
+    context.addServletMappingDecoded("/health", "health");
+    tomcat.start();
+    this.port = connector.getLocalPort();
+  }
+
+  public URI uri() {
+    return URI.create("http://localhost:" + port);
+  }
+
+  public void setLatencyMs(long latencyMs) {
+    this.latencyMs = latencyMs;
+  }
+
+  /** 200이 아니면 모든 generate 요청에 이 상태로 응답한다 */
+  public void setStatus(int status) {
+    this.status = status;
+  }
+
+  public long requests() {
+    return requests.sum();
+  }
+
+  /** HTTP/2 stream으로 받은 요청 수 */
+  public long http2Requests() {
+    return http2Requests.sum();
+  }
+
+  /** 동시에 처리 중이던 요청 수의 최댓값 */
+  public int maxInFlight() {
+    return maxInFlight.get();
+  }
+
+  @Override
+  public void close() throws LifecycleException {
+    timer.shutdownNow();
+    tomcat.stop();
+    tomcat.destroy();
+  }
+
+  private final class GenerateServlet extends HttpServlet {
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+      requests.increment();
+      if ("HTTP/2.0".equals(req.getProtocol())) {
+        http2Requests.increment();
+      }
+      JsonNode body = mapper.readTree(req.getInputStream());
+      int current = inFlight.incrementAndGet();
+      maxInFlight.accumulateAndGet(current, Math::max);
+      long delayMs = latencyMs + Math.round(body.path("maxTokens").asInt(0) * msPerOutputToken);
+      if (delayMs <= 0) {
+        respond(resp, body);
+        return;
+      }
+      AsyncContext async = req.startAsync();
+      async.setTimeout(0);
+      timer.schedule(() -> {
+        try {
+          respond((HttpServletResponse) async.getResponse(), body);
+        } catch (IOException e) {
+          // 클라이언트가 먼저 끊었다 (취소/timeout)
+        } finally {
+          async.complete();
+        }
+      }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void respond(HttpServletResponse resp, JsonNode body) throws IOException {
+      try {
+        int code = status;
+        resp.setStatus(code);
+        resp.setContentType("application/json");
+        ObjectNode out = mapper.createObjectNode();
+        if (code == 200) {
+          String prompt = body.path("prompt").asText("").trim();
+          out.put("output", "stub: " + (prompt.length() <= 80 ? prompt : prompt.substring(0, 77) + "..."));
+        } else {
+          out.put("error", "stub_status_" + code);
+        }
+        mapper.writeValue(resp.getOutputStream(), out);
+      } finally {
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+}
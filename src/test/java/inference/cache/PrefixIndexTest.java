@@ -0,0 +1,43 @@
+package inference.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class PrefixIndexTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void sharedPrefixIsMatchedInWholeChunks() {
+    PrefixIndex index = new PrefixIndex(4, 100, registry);
+    assertThat(index.matchAndRecord("m", "SYS:abcdQ1")).isZero();
+    // "SYS:" + "abcd" 두 chunk가 같고 나머지는 다르다
+    assertThat(index.matchAndRecord("m", "SYS:abcdQ2-longer")).isEqualTo(8);
+    assertThat(index.matchAndRecord("m", "SYS:xxxx")).isEqualTo(4);
+    // 다른 model과는 공유하지 않는다
+    assertThat(index.matchAndRecord("other", "SYS:abcdQ1")).isZero();
+
+    assertThat(registry.get("inference.prefix_cache.lookups").tag("result", "hit").counter().count()).isEqualTo(2.0);
+    assertThat(registry.get("inference.prefix_cache.hit_ratio").summary().count()).isEqualTo(4);
+  }
+
+  @Test
+  void indexIsBoundedByMaxEntries() {
+    PrefixIndex index = new PrefixIndex(2, 3, registry);
+    index.matchAndRecord("m", "aabbcc");
+    index.matchAndRecord("m", "xxyy");
+    assertThat(index.size()).isEqualTo(3);
+    // 가장 오래된 "aa" chunk가 축출되어 prefix 전체가 miss
+    assertThat(index.matchAndRecord("m", "aabbcc")).isZero();
+  }
+
+  @Test
+  void disabledIndexNeverMatches() {
+    PrefixIndex index = new PrefixIndex(4, 0, registry);
+    index.matchAndRecord("m", "aaaabbbb");
+    assertThat(index.isEnabled()).isFalse();
+    assertThat(index.matchAndRecord("m", "aaaabbbb")).isZero();
+  }
+}
@@ -0,0 +1,81 @@
+package inference.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import inference.model.InferenceRequest;
+import inference.testsupport.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void leastRecentlyUsedEntryIsEvictedFirst() {
+    ResponseCache cache = new ResponseCache(clock, registry, 2, 0, 60_000);
+    cache.put("a", "A");
+    cache.put("b", "B");
+    assertThat(cache.get("a")).contains("A");
+
+    cache.put("c", "C");
+    assertThat(cache.get("b")).isEmpty();
+    assertThat(cache.get("a")).contains("A");
+    assertThat(cache.get("c")).contains("C");
+    assertThat(registry.get("inference.cache.evictions").tag("reason", "size").counter().count()).isEqualTo(1.0);
+    assertThat(registry.get("inference.cache.requests").tag("result", "hit").counter().count()).isEqualTo(3.0);
+    assertThat(registry.get("inference.cache.requests").tag("result", "miss").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void entriesExpireAfterTtlAndBytesAreTracked() {
+    ResponseCache cache = new ResponseCache(clock, registry, 100, 0, 1_000);
+    cache.put("k", "output");
+    assertThat(cache.estimatedBytes()).isPositive();
+
+    clock.advance(Duration.ofMillis(1_000));
+    assertThat(cache.get("k")).isEmpty();
+    assertThat(cache.size()).isZero();
+    assertThat(cache.estimatedBytes()).isZero();
+    assertThat(registry.get("inference.cache.evictions").tag("reason", "expired").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void disabledCacheNeverStores() {
+    ResponseCache cache = new ResponseCache(clock, registry, 0, 0, 60_000);
+    cache.put("k", "v");
+    assertThat(cache.isEnabled()).isFalse();
+    assertThat(cache.get("k")).isEmpty();
+  }
+
+  @Test
+  void fingerprintIgnoresWhitespaceParameterOrderAndSchedulingKeys() {
+    Map<String, Object> p1 = new LinkedHashMap<>();
+    p1.put("temperature", 0.5);
+    p1.put("top_p", 1);
+    p1.put("tenant", "a");
+    Map<String, Object> p2 = new LinkedHashMap<>();
+    p2.put("top_p", 1.0);
+    p2.put("temperature", 0.50);
+    p2.put("priority", 3);
+
+    String f1 = RequestFingerprint.of(request("m", "  hello\n  world ", p1));
+    String f2 = RequestFingerprint.of(request("m", "hello world", p2));
+    assertThat(f1).isEqualTo(f2);
+    assertThat(RequestFingerprint.of(request("other", "hello world", p2))).isNotEqualTo(f1);
+    assertThat(RequestFingerprint.of(request("m", "hello world", Map.of("temperature", 0.7)))).isNotEqualTo(f1);
+  }
+
+  private static InferenceRequest request(String model, String prompt, Map<String, Object> params) {
+    InferenceRequest r = new InferenceRequest();
+    r.setModel(model);
+    r.setPrompt(prompt);
+    r.setParameters(params);
+    return r;
+  }
+}
@@ -0,0 +1,80 @@
+package inference.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void blocksAtLimitAndAdmitsAfterRelease() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new AimdLimit(0.9, 1_000), 2, 1, 10, registry);
+
+    ConcurrencyLimiter.Permit a = limiter.tryAcquire(0, TimeUnit.MILLISECONDS);
+    ConcurrencyLimiter.Permit b = limiter.tryAcquire(0, TimeUnit.MILLISECONDS);
+    assertThat(a).isNotNull();
+    assertThat(b).isNotNull();
+    assertThat(limiter.tryAcquire(10, TimeUnit.MILLISECONDS)).isNull();
+    assertThat(limiter.getInFlight()).isEqualTo(2);
+
+    a.release();
+    assertThat(limiter.tryAcquire(10, TimeUnit.MILLISECONDS)).isNotNull();
+  }
+
+  @Test
+  void aimdIncreasesOnSuccessUnderLoadAndBacksOffOnDrop() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new AimdLimit(0.5, 1_000), 4, 1, 10, registry);
+
+    List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      permits.add(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+    }
+    permits.get(0).success();
+    assertThat(limiter.getLimit()).isEqualTo(5);
+
+    permits.get(1).dropped();
+    assertThat(limiter.getLimit()).isEqualTo(2);
+
+    // release 후에는 success를 불러도 다시 반영되지 않는다
+    permits.get(2).release();
+    permits.get(2).success();
+    assertThat(limiter.getInFlight()).isEqualTo(1);
+    assertThat(registry.get("inference.limiter.limit_changes").tag("direction", "down").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void gradientShrinksWhenLatencyRisesAboveBaseline() {
+    GradientLimit gradient = new GradientLimit(1.0);
+    int limit = 20;
+    for (int i = 0; i < 50; i++) {
+      limit = gradient.update(limit, 10_000_000L, limit, false);
+    }
+    int steady = limit;
+    for (int i = 0; i < 20; i++) {
+      limit = gradient.update(limit, 40_000_000L, limit, false);
+    }
+    assertThat(limit).isLessThan(steady);
+  }
+
+  @Test
+  void gradientDoesNotGrowWhileLimitIsMostlyUnused() {
+    GradientLimit gradient = new GradientLimit(1.0);
+    int limit = 10;
+    for (int i = 0; i < 50; i++) {
+      limit = gradient.update(limit, 10_000_000L, 2, false);
+    }
+    assertThat(limit).isEqualTo(10);
+
+    // 절반 이상 쓰기 시작하면 다시 늘어난다
+    for (int i = 0; i < 5; i++) {
+      limit = gradient.update(limit, 10_000_000L, limit, false);
+    }
+    assertThat(limit).isGreaterThan(10);
+  }
+}
@@ -0,0 +1,95 @@
+package inference.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import inference.testsupport.Polling;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class HashedWheelTimerTest {
+
+  private static final long TICK_MS = 10;
+
+  private final HashedWheelTimer timer = new HashedWheelTimer("test-wheel", TICK_MS, 64);
+
+  @AfterEach
+  void stop() {
+    timer.destroy();
+  }
+
+  @Test
+  void tensOfThousandsOfTimeoutsFireNeverEarlyAndWithinAFewTicks() throws Exception {
+    int n = 20_000;
+    long[] expected = new long[n];
+    AtomicLongArray fired = new AtomicLongArray(n);
+    CountDownLatch done = new CountDownLatch(n);
+    for (int i = 0; i < n; i++) {
+      // wheel 한 바퀴(64 x 10ms = 640ms)보다 긴 지연도 섞는다
+      long delayMs = ThreadLocalRandom.current().nextLong(20, 1000);
+      int idx = i;
+      expected[i] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+      timer.newTimeout(() -> {
+        fired.set(idx, System.nanoTime());
+        done.countDown();
+      }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    long[] latenessMicros = new long[n];
+    for (int i = 0; i < n; i++) {
+      latenessMicros[i] = (fired.get(i) - expected[i]) / 1_000;
+    }
+    Arrays.sort(latenessMicros);
+    long p50 = latenessMicros[n / 2];
+    long p99 = latenessMicros[(int) (n * 0.99)];
+    String summary = String.format("lateness min=%dus p50=%dus p99=%dus max=%dus",
+        latenessMicros[0], p50, p99, latenessMicros[n - 1]);
+
+    assertThat(latenessMicros[0]).as(summary).isGreaterThanOrEqualTo(0);
+    // 이론상 최대 1 tick. 공유 CI(1 vCPU)의 스케줄링 지연을 감안해 넉넉히 둔다
+    assertThat(p50).as(summary).isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toMicros(TICK_MS * 3));
+    assertThat(p99).as(summary).isLessThan(TimeUnit.MILLISECONDS.toMicros(TICK_MS * 10));
+    assertThat(timer.pendingTimeouts()).isZero();
+  }
+
+  @Test
+  void cancelledTimeoutsNeverFire() throws Exception {
+    int n = 10_000;
+    AtomicInteger fired = new AtomicInteger();
+    List<HashedWheelTimer.Timeout> timeouts = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      timeouts.add(timer.newTimeout(fired::incrementAndGet, 100, TimeUnit.MILLISECONDS));
+    }
+    for (int i = 0; i < n; i += 2) {
+      assertThat(timeouts.get(i).cancel()).isTrue();
+    }
+    assertThat(timer.pendingTimeouts()).isEqualTo(n / 2);
+
+    Polling.waitUntil(Duration.ofSeconds(3), Duration.ofMillis(10), () -> timer.pendingTimeouts() == 0);
+    Thread.sleep(50);
+    assertThat(fired.get()).isEqualTo(n / 2);
+    assertThat(timeouts.get(0).isCancelled()).isTrue();
+    assertThat(timeouts.get(1).isExpired()).isTrue();
+    // 이미 실행된 timeout은 취소되지 않는다
+    assertThat(timeouts.get(1).cancel()).isFalse();
+  }
+
+  @Test
+  void zeroDelayFiresOnTheNextTick() throws Exception {
+    CountDownLatch done = new CountDownLatch(1);
+    long start = System.nanoTime();
+    timer.newTimeout(done::countDown, 0, TimeUnit.MILLISECONDS);
+
+    assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(100));
+  }
+}
@@ -0,0 +1,88 @@
+package inference.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TenantFairQueueTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void burstyTenantDoesNotStarveOthersAndWeightsAreHonored() {
+    TenantFairQueue q = new TenantFairQueue(100, 0, 10, Map.of("a", 2), registry);
+    for (int i = 0; i < 6; i++) {
+      assertThat(q.offer(task("a", 0))).isTrue();
+    }
+    for (int i = 0; i < 3; i++) {
+      assertThat(q.offer(task("b", 0))).isTrue();
+    }
+
+    List<String> order = new ArrayList<>();
+    Runnable r;
+    while ((r = q.poll()) != null) {
+      order.add(((SchedulableTask) r).tenant());
+    }
+    // a(weight 2)는 라운드마다 2개, b(weight 1)는 1개
+    assertThat(order).containsExactly("a", "a", "b", "a", "a", "b", "a", "a", "b");
+  }
+
+  @Test
+  void perTenantCapacityRejectsOnlyThatTenant() {
+    TenantFairQueue q = new TenantFairQueue(10, 2, 10, Map.of(), registry);
+    assertThat(q.offer(task("a", 0))).isTrue();
+    assertThat(q.offer(task("a", 0))).isTrue();
+    assertThat(q.offer(task("a", 0))).isFalse();
+    assertThat(q.offer(task("b", 0))).isTrue();
+
+    assertThat(q.depth("a")).isEqualTo(2);
+    assertThat(registry.get("inference.scheduler.rejected").tag("tenant", "a").counter().count()).isEqualTo(1.0);
+    assertThat(registry.get("inference.scheduler.queue_depth").tag("tenant", "b").gauge().value()).isEqualTo(1.0);
+  }
+
+  @Test
+  void higherPriorityWinsWithinTenant() {
+    TenantFairQueue q = new TenantFairQueue(10, 0, 10, Map.of(), registry);
+    SchedulableTask low = task("a", 0);
+    SchedulableTask high = task("a", 5);
+    q.offer(low);
+    q.offer(high);
+    assertThat(q.poll()).isSameAs(high);
+    assertThat(q.poll()).isSameAs(low);
+  }
+
+  @Test
+  void tenantsBeyondMaxShareDefaultQueue() {
+    TenantFairQueue q = new TenantFairQueue(10, 0, 1, Map.of(), registry);
+    q.offer(task("a", 0));
+    q.offer(task("b", 0));
+    assertThat(q.depth(TenantFairQueue.DEFAULT_TENANT)).isEqualTo(1);
+    assertThat(q.size()).isEqualTo(2);
+  }
+
+  @Test
+  void edfQueueOrdersByDeadlineAcrossTenants() {
+    TenantFairQueue q = TenantFairQueue.edf(10, registry);
+    SchedulableTask late = new SchedulableTask("a", 0, 3_000L, () -> {});
+    SchedulableTask early = new SchedulableTask("b", 0, 1_000L, () -> {});
+    SchedulableTask noDeadline = task("a", 0);
+    SchedulableTask middle = new SchedulableTask("c", 0, 2_000L, () -> {});
+    q.offer(late);
+    q.offer(noDeadline);
+    q.offer(early);
+    q.offer(middle);
+
+    assertThat(q.poll()).isSameAs(early);
+    assertThat(q.poll()).isSameAs(middle);
+    assertThat(q.poll()).isSameAs(late);
+    assertThat(q.poll()).isSameAs(noDeadline);
+  }
+
+  private static SchedulableTask task(String tenant, int priority) {
+    return new SchedulableTask(tenant, priority, () -> {});
+  }
+}
@@ -0,0 +1,48 @@
+package inference.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TokenBudgetTest {
+
+  @Test
+  void admitsByWeightUntilBudgetIsUsed() throws Exception {
+    TokenBudget budget = new TokenBudget(100);
+
+    TokenBudget.Grant large = budget.tryAcquire(60, 0, TimeUnit.MILLISECONDS);
+    assertThat(large).isNotNull();
+    assertThat(budget.inFlight()).isEqualTo(60);
+
+    assertThat(budget.tryAcquire(50, 10, TimeUnit.MILLISECONDS)).isNull();
+    TokenBudget.Grant small = budget.tryAcquire(30, 0, TimeUnit.MILLISECONDS);
+    assertThat(small).isNotNull();
+    assertThat(budget.inFlight()).isEqualTo(90);
+
+    large.release();
+    assertThat(budget.tryAcquire(50, 0, TimeUnit.MILLISECONDS)).isNotNull();
+  }
+
+  @Test
+  void requestLargerThanBudgetRunsAlone() throws Exception {
+    TokenBudget budget = new TokenBudget(100);
+
+    TokenBudget.Grant grant = budget.tryAcquire(5_000, 0, TimeUnit.MILLISECONDS);
+    assertThat(grant).isNotNull();
+    assertThat(budget.inFlight()).isEqualTo(100);
+
+    grant.release();
+    grant.release();
+    assertThat(budget.inFlight()).isZero();
+  }
+
+  @Test
+  void disabledBudgetAlwaysAdmits() throws Exception {
+    TokenBudget budget = new TokenBudget(0);
+
+    assertThat(budget.isEnabled()).isFalse();
+    assertThat(budget.tryAcquire(Integer.MAX_VALUE, 0, TimeUnit.MILLISECONDS)).isNotNull();
+    assertThat(budget.inFlight()).isZero();
+  }
+}
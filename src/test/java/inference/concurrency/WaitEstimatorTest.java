@@ -0,0 +1,58 @@
+package inference.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class WaitEstimatorTest {
+
+  private final AtomicInteger queueDepth = new AtomicInteger();
+  private final FixedConcurrencyLimiter limiter = new FixedConcurrencyLimiter(2);
+  private final InferenceLoad load = new InferenceLoad(queueDepth::get, limiter::getInFlight, limiter, 100);
+
+  @Test
+  void doesNotEstimateBeforeWarmup() {
+    WaitEstimator estimator = new WaitEstimator(load, 0.5, 3);
+    queueDepth.set(50);
+
+    estimator.recordServiceTime(100_000_000L);
+    estimator.recordServiceTime(100_000_000L);
+    assertThat(estimator.isWarm()).isFalse();
+    assertThat(estimator.estimatedWaitMs()).isZero();
+
+    estimator.recordServiceTime(100_000_000L);
+    assertThat(estimator.isWarm()).isTrue();
+    assertThat(estimator.estimatedWaitMs()).isPositive();
+  }
+
+  @Test
+  void serviceTimeIsExponentiallySmoothed() {
+    WaitEstimator estimator = new WaitEstimator(load, 0.5, 1);
+
+    estimator.recordServiceTime(100_000_000L);
+    assertThat(estimator.serviceTimeMs()).isEqualTo(100.0);
+    estimator.recordServiceTime(300_000_000L);
+    assertThat(estimator.serviceTimeMs()).isEqualTo(200.0);
+  }
+
+  @Test
+  void waitGrowsWithWorkAheadOfTheLimit() throws Exception {
+    WaitEstimator estimator = new WaitEstimator(load, 1.0, 1);
+    estimator.recordServiceTime(100_000_000L);
+
+    // 슬롯(limit=2)이 남아 있으면 대기 없음
+    assertThat(estimator.estimatedWaitMs()).isZero();
+    limiter.tryAcquire(0, TimeUnit.MILLISECONDS);
+    assertThat(estimator.estimatedWaitMs()).isZero();
+
+    // 2개 실행 중: 슬롯 하나가 빌 때까지 100ms / 2
+    limiter.tryAcquire(0, TimeUnit.MILLISECONDS);
+    assertThat(estimator.estimatedWaitMs()).isEqualTo(50);
+
+    // 2개 실행 중 + 5개 대기: 앞선 6개가 2개 슬롯에서 빠지는 시간
+    queueDepth.set(5);
+    assertThat(estimator.estimatedWaitMs()).isEqualTo(300);
+  }
+}
@@ -0,0 +1,95 @@
+package inference.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import inference.testsupport.Polling;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SseStreamRelayTest {
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void slowClientDoesNotBlockPublisherAndOverflowClosesStream() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    RecordingEmitter emitter = new RecordingEmitter(release);
+    AtomicBoolean disconnected = new AtomicBoolean();
+    SseStreamRelay relay = new SseStreamRelay("slow", emitter, () -> disconnected.set(true), executor, 8);
+
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < 1_000; i++) {
+      relay.onChunk("slow", "chunk-" + i);
+    }
+    // 첫 전송이 막혀 있어도 발행 쪽(워커)은 기다리지 않는다
+    assertThat(Duration.ofNanos(System.nanoTime() - startNanos)).isLessThan(Duration.ofSeconds(1));
+
+    release.countDown();
+    Polling.waitUntil(Duration.ofSeconds(2), Duration.ofMillis(10), emitter.completed::get);
+    assertThat(emitter.sent.size()).isLessThanOrEqualTo(9);
+    // 넘침은 클라이언트 이탈이 아니므로 작업을 취소하지 않는다
+    assertThat(disconnected).isFalse();
+  }
+
+  @Test
+  void deliversEventsInOrderAndClosesAfterTerminalStatus() throws Exception {
+    RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+    SseStreamRelay relay = new SseStreamRelay("ok", emitter, () -> {}, executor, 64);
+    InferenceResponse queued = InferenceResponse.queued("ok", Instant.now());
+
+    relay.onStatus(queued.toBuilder().status(Status.RUNNING).build());
+    relay.onChunk("ok", "a");
+    relay.onChunk("ok", "b");
+    relay.onStatus(queued.toBuilder().status(Status.SUCCEEDED).output("ab").build());
+    relay.onChunk("ok", "late");
+
+    Polling.waitUntil(Duration.ofSeconds(2), Duration.ofMillis(10), emitter.completed::get);
+    assertThat(emitter.sent).hasSize(4);
+    assertThat(emitter.sent.get(1).toString()).contains("a");
+    assertThat(emitter.sent.get(2).toString()).contains("b");
+  }
+
+  /** 첫 send를 latch가 풀릴 때까지 막는 emitter (소켓 버퍼가 찬 느린 클라이언트) */
+  private static final class RecordingEmitter extends SseEmitter {
+    private final CountDownLatch release;
+    private final List<Object> sent = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private RecordingEmitter(CountDownLatch release) {
+      this.release = release;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+      sent.add(builder.build());
+    }
+
+    @Override
+    public void complete() {
+      completed.set(true);
+    }
+  }
+}
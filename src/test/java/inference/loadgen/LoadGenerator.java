@@ -0,0 +1,427 @@
+package inference.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * 떠 있는 인스턴스에 open-loop 부하를 걸고 offered load별 지연/수락률을 HdrHistogram으로 보고한다. JUnit 테스트가 아니다(수동 실행).
+ *
+ * <pre>
+ * mvn spring-boot:run   # 다른 터미널
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *   inference.loadgen.LoadGenerator rates=5,10,20 durationSec=30 arrival=poisson replay=requests.jsonl
+ * </pre>
+ *
+ * <p>
+ * open-loop: 도착 시각은 응답과 무관하게 미리 정해진 일정(constant 간격 또는 Poisson)을 따르고, 전송은 비동기라서
+ * 서버가 느려져도 다음 요청이 늦게 나가지 않는다. 지연은 실제 전송 시각이 아니라 <b>예정 도착 시각</b>부터 재므로
+ * 생성기 자신이 밀려도 그 대기가 지연에 포함된다(coordinated omission 없음). 생성기 지연은 dispatchLagMaxMs로 따로 보여준다.
+ * </p>
+ *
+ * 인자(key=value, 모두 선택):
+ * - url: 대상 (기본 http://localhost:8080)
+ * - rates: 단계별 offered load, req/s (기본 5,10,20,40). 단계는 순서대로 돌고, 단계 사이에 남은 작업이 끝나길 기다린다
+ * - durationSec: 단계당 부하 시간 (기본 30)
+ * - arrival: constant | poisson (기본 poisson)
+ * - replay: JSONL 파일 (없으면 synthetic). 형식은 {@link PromptSource}
+ * - promptMedianChars / promptSigma / promptMaxChars: synthetic prompt 길이 분포 (기본 400 / 1.0 / 8000)
+ * - model: 본문에 model이 없을 때 (기본 dummy)
+ * - result: poll(long-poll) | stream(SSE) | none(접수까지만) (기본 poll)
+ * - maxWaitMs: 요청당 결과 대기 상한 (기본 30000). 넘으면 INCOMPLETE
+ * - out: 리포트 디렉터리 (기본 target/loadgen). report.csv와 단계별 .hgrm(퍼센타일 분포, ms)을 쓴다
+ * - seed: synthetic 길이/Poisson 간격 난수 시드 (기본 1)
+ *
+ * 지연은 마이크로초로 기록한다. HdrHistogram은 micrometer-core가 runtime으로 가져오는 것을 쓴다.
+ */
+public final class LoadGenerator {
+
+  private static final Set<String> TERMINAL = Set.of("SUCCEEDED", "FAILED", "REJECTED", "CANCELLED");
+  private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+  private static final String CSV_HEADER = String.join(",",
+      "offeredRps", "arrival", "sent", "achievedRps", "accepted202", "rejected429", "shed503", "otherStatus", "errors",
+      "acceptRate", "submitP50Ms", "submitP99Ms", "submitP999Ms", "submitMaxMs",
+      "e2eCount", "e2eP50Ms", "e2eP99Ms", "e2eP999Ms", "e2eMaxMs",
+      "succeeded", "failed", "rejected", "cancelled", "incomplete", "dispatchLagMaxMs");
+
+  private final HttpClient client;
+  private final ObjectMapper mapper;
+  private final URI base;
+  private final String resultMode;
+  private final long maxWaitMs;
+  private final String runId = Long.toString(System.currentTimeMillis(), 36);
+  private long seq;
+
+  private LoadGenerator(HttpClient client, ObjectMapper mapper, URI base, String resultMode, long maxWaitMs) {
+    this.client = client;
+    this.mapper = mapper;
+    this.base = base;
+    this.resultMode = resultMode;
+    this.maxWaitMs = maxWaitMs;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> opts = parseArgs(args);
+    ObjectMapper mapper = new ObjectMapper();
+    String model = opts.getOrDefault("model", "dummy");
+    long seed = Long.parseLong(opts.getOrDefault("seed", "1"));
+    PromptSource prompts = opts.containsKey("replay")
+        ? PromptSource.replay(mapper, model, Path.of(opts.get("replay")))
+        : PromptSource.synthetic(mapper, model, seed,
+            Integer.parseInt(opts.getOrDefault("promptMedianChars", "400")),
+            Double.parseDouble(opts.getOrDefault("promptSigma", "1.0")),
+            Integer.parseInt(opts.getOrDefault("promptMaxChars", "8000")));
+    String arrival = opts.getOrDefault("arrival", "poisson");
+    if (!arrival.equals("poisson") && !arrival.equals("constant")) {
+      throw new IllegalArgumentException("arrival must be constant or poisson: " + arrival);
+    }
+    String resultMode = opts.getOrDefault("result", "poll");
+    if (!Set.of("poll", "stream", "none").contains(resultMode)) {
+      throw new IllegalArgumentException("result must be poll, stream or none: " + resultMode);
+    }
+    double[] rates = List.of(opts.getOrDefault("rates", "5,10,20,40").split(",")).stream()
+        .mapToDouble(s -> Double.parseDouble(s.trim()))
+        .toArray();
+    long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(opts.getOrDefault("durationSec", "30")));
+    Path out = Path.of(opts.getOrDefault("out", "target/loadgen"));
+    Files.createDirectories(out);
+
+    // long-poll/SSE가 연결을 오래 잡으므로 HTTP/1.1 연결은 요청마다 늘어난다 (서버 쪽 async라 Tomcat 스레드는 안 쓴다)
+    HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    LoadGenerator generator = new LoadGenerator(client, mapper,
+        URI.create(opts.getOrDefault("url", "http://localhost:8080")), resultMode,
+        Long.parseLong(opts.getOrDefault("maxWaitMs", "30000")));
+
+    System.out.printf(Locale.ROOT, "target=%s arrival=%s prompts=%s result=%s durationSec=%d%n",
+        generator.base, arrival, prompts.description(), resultMode, TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+    List<String> csv = new ArrayList<>();
+    csv.add(CSV_HEADER);
+    for (double rate : rates) {
+      Step step = generator.runStep(rate, arrival, durationNanos, prompts, seed);
+      step.print(System.out);
+      csv.add(step.toCsv());
+      step.writeHistograms(out);
+    }
+    Path report = out.resolve("report.csv");
+    Files.write(report, csv);
+    System.out.println("report: " + report.toAbsolutePath());
+  }
+
+  private Step runStep(double rate, String arrival, long durationNanos, PromptSource prompts, long seed) throws InterruptedException {
+    if (rate <= 0) {
+      throw new IllegalArgumentException("rate must be positive: " + rate);
+    }
+    Step step = new Step(rate, arrival);
+    Random gaps = new Random(seed ^ Double.doubleToLongBits(rate));
+    double meanGapNanos = 1e9 / rate;
+    List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+    long start = System.nanoTime();
+    long intended = start;
+    while (intended - start < durationNanos) {
+      long now;
+      while (intended - (now = System.nanoTime()) > 0) {
+        LockSupport.parkNanos(intended - now);
+      }
+      step.recordDispatchLag(now - intended);
+      pending.add(submit(step, intended, prompts.next()));
+      intended += "constant".equals(arrival)
+          ? (long) meanGapNanos
+          : (long) (-Math.log(1 - gaps.nextDouble()) * meanGapNanos);
+    }
+    step.elapsedNanos = System.nanoTime() - start;
+
+    CompletableFuture<Void> all = CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new));
+    try {
+      all.get(maxWaitMs + 10_000, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      // 결과 대기 상한을 넘긴 요청은 INCOMPLETE로 센다
+      pending.stream().filter(f -> !f.isDone()).forEach(f -> step.outcome("INCOMPLETE"));
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+    return step;
+  }
+
+  private CompletableFuture<Void> submit(Step step, long intendedNanos, byte[] body) {
+    String requestId = "lg-" + runId + "-" + (seq++);
+    HttpRequest request = HttpRequest.newBuilder(base.resolve("/v1/inference"))
+        .timeout(Duration.ofMillis(maxWaitMs))
+        .header("Content-Type", "application/json")
+        .header("X-Request-Id", requestId)
+        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+        .build();
+    step.sent.increment();
+    return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+        .handle((response, error) -> {
+          step.recordSubmit(System.nanoTime() - intendedNanos);
+          if (error != null) {
+            step.errors.increment();
+            return false;
+          }
+          switch (response.statusCode()) {
+            case 202 -> step.accepted.increment();
+            case 429 -> step.rejected.increment();
+            case 503 -> step.shed.increment();
+            default -> step.otherStatus.increment();
+          }
+          return response.statusCode() == 202;
+        })
+        .thenCompose(accepted -> {
+          if (!accepted || "none".equals(resultMode)) {
+            return CompletableFuture.completedFuture(null);
+          }
+          long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+          CompletableFuture<String> terminal = "stream".equals(resultMode)
+              ? stream(requestId)
+              : poll(requestId, deadline);
+          return terminal.handle((status, error) -> {
+            String outcome = error != null ? "INCOMPLETE" : status;
+            if (TERMINAL.contains(outcome)) {
+              step.recordEndToEnd(System.nanoTime() - intendedNanos);
+            }
+            step.outcome(outcome);
+            return null;
+          });
+        });
+  }
+
+  /** terminal 상태가 될 때까지 long-poll을 이어 건다. @return 마지막으로 본 상태 (시간 초과면 INCOMPLETE) */
+  private CompletableFuture<String> poll(String requestId, long deadlineNanos) {
+    long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    if (remainingMs <= 0) {
+      return CompletableFuture.completedFuture("INCOMPLETE");
+    }
+    HttpRequest request = HttpRequest.newBuilder(base.resolve("/v1/inference/" + requestId + "?waitMs=" + remainingMs))
+        .timeout(Duration.ofMillis(remainingMs + 5_000))
+        .GET()
+        .build();
+    return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+        .thenCompose(response -> {
+          if (response.statusCode() == 404) {
+            // TTL/상한으로 이미 지워졌다
+            return CompletableFuture.completedFuture("NOT_FOUND");
+          }
+          String status = statusOf(response.body());
+          return TERMINAL.contains(status)
+              ? CompletableFuture.completedFuture(status)
+              : poll(requestId, deadlineNanos);
+        });
+  }
+
+  /** SSE status 이벤트에서 terminal 상태를 보면 끝낸다 */
+  private CompletableFuture<String> stream(String requestId) {
+    HttpRequest request = HttpRequest.newBuilder(base.resolve("/v1/inference/" + requestId + "/stream"))
+        .header("Accept", "text/event-stream")
+        .GET()
+        .build();
+    TerminalStatusSubscriber subscriber = new TerminalStatusSubscriber();
+    client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(subscriber))
+        .whenComplete((response, error) -> {
+          if (error != null) {
+            subscriber.terminal.complete("INCOMPLETE");
+          } else if (response.statusCode() != 200) {
+            subscriber.terminal.complete(response.statusCode() == 404 ? "NOT_FOUND" : "INCOMPLETE");
+          }
+        });
+    return subscriber.terminal
+        .completeOnTimeout("INCOMPLETE", maxWaitMs, TimeUnit.MILLISECONDS)
+        .whenComplete((status, error) -> subscriber.cancel());
+  }
+
+  private String statusOf(byte[] body) {
+    try {
+      return mapper.readTree(body).path("status").asText("UNKNOWN");
+    } catch (IOException e) {
+      return "UNKNOWN";
+    }
+  }
+
+  private final class TerminalStatusSubscriber implements Flow.Subscriber<String> {
+    final CompletableFuture<String> terminal = new CompletableFuture<>();
+    private volatile Flow.Subscription subscription;
+    private String event;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(String line) {
+      if (line.startsWith("event:")) {
+        event = line.substring("event:".length()).trim();
+      } else if (line.startsWith("data:") && "status".equals(event)) {
+        String status = statusOf(line.substring("data:".length()).getBytes(StandardCharsets.UTF_8));
+        if (TERMINAL.contains(status)) {
+          terminal.complete(status);
+        }
+      } else if (line.isEmpty()) {
+        event = null;
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      terminal.complete("INCOMPLETE");
+    }
+
+    @Override
+    public void onComplete() {
+      terminal.complete("INCOMPLETE");
+    }
+
+    void cancel() {
+      Flow.Subscription s = subscription;
+      if (s != null) {
+        s.cancel();
+      }
+    }
+  }
+
+  /** 한 offered load 단계의 결과 */
+  private static final class Step {
+    final double rate;
+    final String arrival;
+    final Histogram submitLatency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    final Histogram endToEnd = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    final LongAdder sent = new LongAdder();
+    final LongAdder accepted = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder shed = new LongAdder();
+    final LongAdder otherStatus = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final ConcurrentMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    long elapsedNanos;
+    long maxDispatchLagNanos;
+
+    Step(double rate, String arrival) {
+      this.rate = rate;
+      this.arrival = arrival;
+    }
+
+    void recordDispatchLag(long nanos) {
+      maxDispatchLagNanos = Math.max(maxDispatchLagNanos, nanos);
+    }
+
+    void recordSubmit(long nanos) {
+      submitLatency.recordValue(toMicros(nanos));
+    }
+
+    void recordEndToEnd(long nanos) {
+      endToEnd.recordValue(toMicros(nanos));
+    }
+
+    void outcome(String status) {
+      outcomes.computeIfAbsent(status, k -> new LongAdder()).increment();
+    }
+
+    long outcomeCount(String status) {
+      LongAdder count = outcomes.get(status);
+      return count == null ? 0 : count.sum();
+    }
+
+    double achievedRps() {
+      return elapsedNanos == 0 ? 0 : sent.sum() * 1e9 / elapsedNanos;
+    }
+
+    double acceptRate() {
+      long total = sent.sum();
+      return total == 0 ? 0 : (double) accepted.sum() / total;
+    }
+
+    void print(PrintStream out) {
+      out.printf(Locale.ROOT,
+          "rate=%.1f/s sent=%d achieved=%.1f/s 202=%d (%.1f%%) 429=%d 503=%d other=%d errors=%d dispatchLagMaxMs=%.1f%n",
+          rate, sent.sum(), achievedRps(), accepted.sum(), acceptRate() * 100, rejected.sum(), shed.sum(),
+          otherStatus.sum(), errors.sum(), maxDispatchLagNanos / 1e6);
+      out.printf(Locale.ROOT, "  submit ms %s%n", percentiles(submitLatency));
+      out.printf(Locale.ROOT, "  e2e    ms %s outcomes=%s%n", percentiles(endToEnd), new TreeMap<>(outcomes));
+    }
+
+    String toCsv() {
+      return String.format(Locale.ROOT,
+          "%.1f,%s,%d,%.1f,%d,%d,%d,%d,%d,%.4f,%.3f,%.3f,%.3f,%.3f,%d,%.3f,%.3f,%.3f,%.3f,%d,%d,%d,%d,%d,%.3f",
+          rate, arrival, sent.sum(), achievedRps(), accepted.sum(), rejected.sum(), shed.sum(), otherStatus.sum(),
+          errors.sum(), acceptRate(),
+          ms(submitLatency, 50), ms(submitLatency, 99), ms(submitLatency, 99.9), submitLatency.getMaxValue() / 1000.0,
+          endToEnd.getTotalCount(), ms(endToEnd, 50), ms(endToEnd, 99), ms(endToEnd, 99.9), endToEnd.getMaxValue() / 1000.0,
+          outcomeCount("SUCCEEDED"), outcomeCount("FAILED"), outcomeCount("REJECTED"), outcomeCount("CANCELLED"),
+          outcomeCount("INCOMPLETE") + outcomeCount("NOT_FOUND") + outcomeCount("UNKNOWN"),
+          maxDispatchLagNanos / 1e6);
+    }
+
+    void writeHistograms(Path dir) throws IOException {
+      String suffix = String.format(Locale.ROOT, "%s-%.1frps.hgrm", arrival, rate);
+      write(dir.resolve("submit-" + suffix), submitLatency);
+      write(dir.resolve("e2e-" + suffix), endToEnd);
+    }
+
+    private static void write(Path file, Histogram histogram) throws IOException {
+      try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+        // 값은 마이크로초로 기록했으므로 1000으로 나눠 ms로 쓴다
+        histogram.outputPercentileDistribution(out, 1000.0);
+      }
+    }
+
+    private static String percentiles(Histogram h) {
+      if (h.getTotalCount() == 0) {
+        return "n=0";
+      }
+      return String.format(Locale.ROOT, "n=%d p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f",
+          h.getTotalCount(), ms(h, 50), ms(h, 90), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0);
+    }
+
+    private static double ms(Histogram h, double percentile) {
+      return h.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static long toMicros(long nanos) {
+      return Math.max(0, Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+  }
+
+  private static Map<String, String> parseArgs(String[] args) {
+    Map<String, String> opts = new LinkedHashMap<>();
+    for (String arg : args) {
+      int eq = arg.indexOf('=');
+      if (eq <= 0) {
+        throw new IllegalArgumentException("expected key=value: " + arg);
+      }
+      opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+    }
+    return opts;
+  }
+}
@@ -0,0 +1,142 @@
+package inference.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 부하 생성기가 보낼 요청 본문. dispatcher 스레드 하나만 호출한다(thread-safe 아님).
+ *
+ * <p>
+ * - replay: JSONL 한 줄이 요청 하나. {@code prompt}가 있으면 그 객체를 그대로(model/parameters 포함) 보내고,
+ *   없으면 {@code title}/{@code body} 문자열을 이어 prompt로 쓴다(작업 목록 형식의 requests.jsonl). 끝나면 처음부터 다시.
+ * - synthetic: prompt 길이를 log-normal(중앙값, sigma)에서 뽑는다. 실제 트래픽처럼 짧은 요청이 대부분이고 긴 꼬리가 있다.
+ * </p>
+ */
+final class PromptSource {
+
+  /** InferenceRequest.prompt의 @Size 상한 */
+  static final int MAX_PROMPT_CHARS = 20_000;
+
+  private static final String[] WORDS = {
+      "the", "cluster", "latency", "token", "request", "queue", "model", "deploy", "summarize", "incident",
+      "replica", "budget", "throughput", "cache", "prefix", "timeline", "handoff", "kernel", "batch", "pod"
+  };
+
+  private final ObjectMapper mapper;
+  private final String model;
+  private final List<ObjectNode> replay;
+  private final Random random;
+  private final int medianChars;
+  private final double sigma;
+  private final int maxChars;
+  private int next;
+
+  private PromptSource(ObjectMapper mapper, String model, List<ObjectNode> replay, long seed,
+      int medianChars, double sigma, int maxChars) {
+    this.mapper = mapper;
+    this.model = model;
+    this.replay = replay;
+    this.random = new Random(seed);
+    this.medianChars = medianChars;
+    this.sigma = sigma;
+    this.maxChars = Math.min(maxChars, MAX_PROMPT_CHARS);
+  }
+
+  static PromptSource synthetic(ObjectMapper mapper, String model, long seed, int medianChars, double sigma, int maxChars) {
+    if (medianChars <= 0 || sigma < 0 || maxChars <= 0) {
+      throw new IllegalArgumentException("medianChars/maxChars must be positive and sigma non-negative");
+    }
+    return new PromptSource(mapper, model, null, seed, medianChars, sigma, maxChars);
+  }
+
+  static PromptSource replay(ObjectMapper mapper, String model, Path file) {
+    List<ObjectNode> lines = new ArrayList<>();
+    try {
+      for (String line : Files.readAllLines(file)) {
+        if (line.isBlank()) {
+          continue;
+        }
+        lines.add(toRequest(mapper, model, mapper.readTree(line)));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (lines.isEmpty()) {
+      throw new IllegalArgumentException("no requests in " + file);
+    }
+    return new PromptSource(mapper, model, lines, 0, 1, 0, MAX_PROMPT_CHARS);
+  }
+
+  String description() {
+    return replay != null
+        ? "replay(" + replay.size() + " lines)"
+        : "synthetic(median=" + medianChars + " sigma=" + sigma + " max=" + maxChars + ")";
+  }
+
+  /** 다음 요청 본문 (InferenceRequest JSON) */
+  byte[] next() {
+    try {
+      if (replay != null) {
+        ObjectNode request = replay.get(next);
+        next = (next + 1) % replay.size();
+        return mapper.writeValueAsBytes(request);
+      }
+      ObjectNode request = mapper.createObjectNode();
+      request.put("prompt", syntheticPrompt(sampleLength()));
+      request.put("model", model);
+      return mapper.writeValueAsBytes(request);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private int sampleLength() {
+    double length = Math.exp(Math.log(medianChars) + sigma * random.nextGaussian());
+    return (int) Math.max(1, Math.min(maxChars, Math.round(length)));
+  }
+
+  private String syntheticPrompt(int chars) {
+    StringBuilder sb = new StringBuilder(chars + 16);
+    while (sb.length() < chars) {
+      if (!sb.isEmpty()) {
+        sb.append(' ');
+      }
+      sb.append(WORDS[random.nextInt(WORDS.length)]);
+    }
+    sb.setLength(chars);
+    return sb.toString();
+  }
+
+  private static ObjectNode toRequest(ObjectMapper mapper, String model, JsonNode line) {
+    if (!line.isObject()) {
+      throw new IllegalArgumentException("expected a JSON object per line: " + line);
+    }
+    ObjectNode request;
+    if (line.hasNonNull("prompt")) {
+      request = ((ObjectNode) line).deepCopy();
+    } else {
+      String text = (line.path("title").asText("") + "\n\n" + line.path("body").asText("")).strip();
+      if (text.isEmpty()) {
+        throw new IllegalArgumentException("line has no prompt/title/body: " + line);
+      }
+      request = mapper.createObjectNode();
+      request.put("prompt", text);
+    }
+    String prompt = request.get("prompt").asText();
+    if (prompt.length() > MAX_PROMPT_CHARS) {
+      request.put("prompt", prompt.substring(0, MAX_PROMPT_CHARS));
+    }
+    if (!request.hasNonNull("model")) {
+      request.put("model", model);
+    }
+    return request;
+  }
+}
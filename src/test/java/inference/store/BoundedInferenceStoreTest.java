@@ -0,0 +1,142 @@
+package inference.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import inference.testsupport.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class BoundedInferenceStoreTest {
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void rejectedEntriesExpireBeforeSucceededEntries() {
+    BoundedInferenceStore store = new BoundedInferenceStore(clock, registry, 100, 1_000_000, 10_000, 10_000, 10_000, 1_000);
+    store.save(response("ok", Status.SUCCEEDED));
+    store.save(response("rej", Status.REJECTED));
+
+    clock.advance(Duration.ofMillis(1_500));
+    assertThat(store.find("rej")).isEmpty();
+    assertThat(store.find("ok")).isPresent();
+
+    // 다음 save에서 sweep되어 실제로 제거된다
+    store.save(response("other", Status.QUEUED));
+    assertThat(store.size()).isEqualTo(2);
+    assertThat(registry.get("inference.store.expirations").tag("class", "rejected").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void updatingStatusMovesEntryToNewTtlClass() {
+    BoundedInferenceStore store = new BoundedInferenceStore(clock, registry, 100, 1_000_000, 1_000, 10_000, 10_000, 1_000);
+    InferenceResponse r = response("job", Status.QUEUED);
+    store.save(r);
+
+    clock.advance(Duration.ofMillis(500));
+    store.transition("job", Status.QUEUED, r.toBuilder().status(Status.SUCCEEDED).build());
+
+    clock.advance(Duration.ofMillis(1_000));
+    store.save(response("other", Status.QUEUED));
+    assertThat(store.find("job")).isPresent();
+  }
+
+  @Test
+  void evictsSoonestExpiringTerminalEntryWhenOverMaxEntries() {
+    BoundedInferenceStore store = new BoundedInferenceStore(clock, registry, 2, 1_000_000, 10_000, 10_000, 10_000, 1_000);
+    store.save(response("running", Status.RUNNING));
+    store.save(response("ok", Status.SUCCEEDED));
+    store.save(response("rej", Status.REJECTED));
+
+    assertThat(store.size()).isEqualTo(2);
+    assertThat(store.find("rej")).isEmpty();
+    assertThat(store.find("running")).isPresent();
+    assertThat(registry.get("inference.store.evictions").tag("reason", "max_entries").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void evictsWhenOverMaxBytes() {
+    BoundedInferenceStore store = new BoundedInferenceStore(clock, registry, 100, 2_000, 10_000, 10_000, 10_000, 1_000);
+    for (int i = 0; i < 20; i++) {
+      store.save(response("job-" + i, Status.SUCCEEDED).toBuilder().output("x".repeat(200)).build());
+    }
+    assertThat(store.estimatedBytes()).isLessThanOrEqualTo(2_000);
+    assertThat(store.find("job-19")).isPresent();
+    assertThat(store.find("job-0")).isEmpty();
+  }
+
+  @Test
+  void repeatedWritesToLiveEntryDoNotGrowExpiryQueues() {
+    BoundedInferenceStore store = new BoundedInferenceStore(clock, registry, 100, 4_000, 600_000, 600_000, 600_000, 1_000);
+    store.save(response("other", Status.RUNNING));
+    InferenceResponse running = response("long-lived", Status.RUNNING);
+    for (int i = 0; i < 10_000; i++) {
+      store.save(running);
+    }
+
+    // 만료되려면 한참 남은 엔트리의 이전 노드들이 큐에 쌓여 있지 않다
+    assertThat(store.expiryNodes()).isLessThanOrEqualTo(100);
+    assertThat(store.estimatedBytes()).isLessThanOrEqualTo(4_000);
+    assertThat(store.find("long-lived")).isPresent();
+    assertThat(store.find("other")).isPresent();
+    assertThat(registry.get("inference.store.evictions").tag("reason", "max_bytes").counter().count()).isZero();
+  }
+
+  @Test
+  void saveIfAbsentKeepsDuplicateAndReplacesOthers() {
+    BoundedInferenceStore store = new BoundedInferenceStore(clock, registry, 100, 1_000_000, 10_000, 10_000, 10_000, 1_000);
+    InferenceResponse first = response("rid", Status.RUNNING);
+    assertThat(store.saveIfAbsent(first, prev -> true)).isEmpty();
+
+    InferenceResponse retry = response("rid", Status.QUEUED);
+    assertThat(store.saveIfAbsent(retry, prev -> prev.getStatus() != Status.REJECTED)).containsSame(first);
+    assertThat(store.find("rid")).containsSame(first);
+
+    // 조건을 만족하지 않으면(예: 거절된 작업) 새 엔트리로 교체
+    assertThat(store.saveIfAbsent(retry, prev -> false)).isEmpty();
+    assertThat(store.find("rid")).containsSame(retry);
+    assertThat(store.size()).isEqualTo(1);
+  }
+
+  @Test
+  void transitionBumpsVersionAndOnlyAppliesFromExpectedStatus() {
+    BoundedInferenceStore store = new BoundedInferenceStore(clock, registry, 100, 1_000_000, 10_000, 10_000, 10_000, 1_000);
+    InferenceResponse queued = response("job", Status.QUEUED);
+    store.save(queued);
+
+    InferenceResponse running = store.transition("job", Status.QUEUED,
+        queued.toBuilder().status(Status.RUNNING).build()).orElseThrow();
+    assertThat(running.getVersion()).isEqualTo(2);
+    assertThat(store.find("job")).containsSame(running);
+
+    // 이미 RUNNING이므로 QUEUED에서 출발하는 전이(예: 늦게 온 거절)는 반영되지 않는다
+    assertThat(store.transition("job", Status.QUEUED, queued.toBuilder().status(Status.REJECTED).build())).isEmpty();
+    assertThat(store.transition("missing", Status.QUEUED, response("missing", Status.RUNNING))).isEmpty();
+    assertThat(store.find("job")).containsSame(running);
+  }
+
+  @Test
+  void illegalTransitionsAreRejected() {
+    BoundedInferenceStore store = new BoundedInferenceStore(clock, registry, 100, 1_000_000, 10_000, 10_000, 10_000, 1_000);
+    store.save(response("job", Status.SUCCEEDED));
+
+    assertThatThrownBy(() -> store.transition("job", Status.SUCCEEDED, response("job", Status.RUNNING)))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> store.transition("job", Status.RUNNING, response("job", Status.QUEUED)))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> store.transition("job", Status.SUCCEEDED, response("job", Status.CANCELLED)))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> store.transition("job", Status.QUEUED, response("other", Status.RUNNING)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(store.find("job")).get().extracting(InferenceResponse::getStatus).isEqualTo(Status.SUCCEEDED);
+  }
+
+  private InferenceResponse response(String requestId, Status status) {
+    return InferenceResponse.queued(requestId, clock.instant()).toBuilder().status(status).build();
+  }
+}
@@ -0,0 +1,142 @@
+package inference.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import inference.store.SegmentLogInferenceStore.SyncMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 여러 스레드가 같은 작업들의 전이를 경쟁시키고, 동시에 reader가 스냅샷 불변식을 확인한다.
+ */
+class InferenceStoreTransitionStressTest {
+
+  private static final int JOBS = 300;
+  private static final int WRITERS = 8;
+
+  @TempDir Path dir;
+
+  enum Kind { MEMORY, BOUNDED, LOG }
+
+  @ParameterizedTest
+  @EnumSource(Kind.class)
+  void racingTransitionsHaveExactlyOneWinnerAndReadersNeverSeeTornState(Kind kind) throws Exception {
+    InferenceStore store = open(kind);
+    Clock clock = Clock.systemUTC();
+    for (int j = 0; j < JOBS; j++) {
+      store.save(InferenceResponse.queued("job-" + j, Instant.now(clock)));
+    }
+
+    AtomicIntegerArray runningWins = new AtomicIntegerArray(JOBS);
+    AtomicIntegerArray terminalWins = new AtomicIntegerArray(JOBS);
+    ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+    AtomicBoolean writersDone = new AtomicBoolean();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 1);
+    try {
+      Future<?> reader = pool.submit(() -> {
+        long[] lastVersion = new long[JOBS];
+        start.await();
+        while (!writersDone.get()) {
+          int j = ThreadLocalRandom.current().nextInt(JOBS);
+          InferenceResponse r = store.find("job-" + j).orElseThrow();
+          if (r.getVersion() < lastVersion[j]) {
+            violations.add("version went back: " + r.getRequestId());
+          }
+          lastVersion[j] = r.getVersion();
+          boolean consistent = switch (r.getStatus()) {
+            case QUEUED -> r.getVersion() == 1 && r.getStartedAt() == null;
+            case RUNNING -> r.getVersion() == 2 && r.getStartedAt() != null && r.getCompletedAt() == null;
+            case SUCCEEDED -> r.getVersion() == 3 && r.getCompletedAt() != null && r.getOutput() != null;
+            case FAILED -> r.getVersion() == 3 && r.getCompletedAt() != null && r.getError() != null;
+            case REJECTED, CANCELLED -> false;
+          };
+          if (!consistent) {
+            violations.add("torn snapshot: " + r.getRequestId() + " " + r.getStatus() + " v" + r.getVersion());
+          }
+        }
+        return null;
+      });
+
+      List<Future<?>> writers = new ArrayList<>();
+      for (int w = 0; w < WRITERS; w++) {
+        boolean succeed = w % 2 == 0;
+        writers.add(pool.submit(() -> {
+          start.await();
+          for (int j = 0; j < JOBS; j++) {
+            String id = "job-" + j;
+            InferenceResponse current = store.find(id).orElseThrow();
+            if (current.getStatus() == Status.QUEUED) {
+              InferenceResponse running = current.toBuilder().status(Status.RUNNING).startedAt(Instant.now(clock)).build();
+              if (store.transition(id, Status.QUEUED, running).isPresent()) {
+                runningWins.incrementAndGet(j);
+              }
+              current = store.find(id).orElseThrow();
+            }
+            if (current.getStatus() == Status.RUNNING) {
+              InferenceResponse done = current.toBuilder()
+                  .status(succeed ? Status.SUCCEEDED : Status.FAILED)
+                  .output(succeed ? "ok" : null)
+                  .error(succeed ? null : "timeout")
+                  .completedAt(Instant.now(clock))
+                  .build();
+              if (store.transition(id, Status.RUNNING, done).isPresent()) {
+                terminalWins.incrementAndGet(j);
+              }
+            }
+          }
+          return null;
+        }));
+      }
+
+      start.countDown();
+      for (Future<?> f : writers) {
+        f.get(30, TimeUnit.SECONDS);
+      }
+      writersDone.set(true);
+      reader.get(30, TimeUnit.SECONDS);
+
+      assertThat(violations).isEmpty();
+      for (int j = 0; j < JOBS; j++) {
+        assertThat(runningWins.get(j)).as("running winners of job-%d", j).isEqualTo(1);
+        assertThat(terminalWins.get(j)).as("terminal winners of job-%d", j).isEqualTo(1);
+        InferenceResponse last = store.find("job-" + j).orElseThrow();
+        assertThat(last.getVersion()).isEqualTo(3);
+        assertThat(last.getStatus()).isIn(Status.SUCCEEDED, Status.FAILED);
+      }
+    } finally {
+      pool.shutdownNow();
+      if (store instanceof AutoCloseable c) {
+        c.close();
+      }
+    }
+  }
+
+  private InferenceStore open(Kind kind) {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    return switch (kind) {
+      case MEMORY -> new InMemoryInferenceStore();
+      case BOUNDED -> new BoundedInferenceStore(Clock.systemUTC(), registry, 10_000, 64L << 20, 60_000, 60_000, 60_000, 60_000);
+      case LOG -> new SegmentLogInferenceStore(dir, 1 << 20, SyncMode.NONE, 10, 0, 0.5,
+          60_000, 60_000, 60_000, 60_000, Clock.systemUTC(), registry);
+    };
+  }
+}
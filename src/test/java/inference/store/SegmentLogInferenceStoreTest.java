@@ -0,0 +1,196 @@
+package inference.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import inference.store.SegmentLogInferenceStore.SyncMode;
+import inference.testsupport.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SegmentLogInferenceStoreTest {
+
+  @TempDir Path dir;
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void stateSurvivesRestartAndInFlightJobsAreFailed() {
+    try (SegmentLogInferenceStore store = open(1 << 20)) {
+      store.save(response("done", Status.SUCCEEDED).toBuilder()
+          .output("ok: 안녕")
+          .latencyMs(12L)
+          .cached(true)
+          .prefixHitRatio(0.5)
+          .build());
+      InferenceResponse queued = response("running", Status.QUEUED);
+      store.save(queued);
+      InferenceResponse running = store.transition("running", Status.QUEUED,
+          queued.toBuilder().status(Status.RUNNING).build()).orElseThrow();
+      assertThat(running.getVersion()).isEqualTo(2);
+      assertThat(store.transition("running", Status.QUEUED, queued)).isEmpty();
+    }
+
+    try (SegmentLogInferenceStore store = open(1 << 20)) {
+      InferenceResponse done = store.find("done").orElseThrow();
+      assertThat(done.getStatus()).isEqualTo(Status.SUCCEEDED);
+      assertThat(done.getOutput()).isEqualTo("ok: 안녕");
+      assertThat(done.getLatencyMs()).isEqualTo(12L);
+      assertThat(done.getCached()).isTrue();
+      assertThat(done.getPrefixHitRatio()).isEqualTo(0.5);
+      assertThat(done.getReceivedAt()).isEqualTo(clock.instant());
+
+      InferenceResponse running = store.find("running").orElseThrow();
+      assertThat(running.getStatus()).isEqualTo(Status.FAILED);
+      assertThat(running.getError()).isEqualTo(SegmentLogInferenceStore.RESTARTED_ERROR);
+      assertThat(running.getVersion()).isEqualTo(3);
+      assertThat(store.find("missing")).isEmpty();
+    }
+  }
+
+  @Test
+  void segmentsRollAndCompactionDropsSupersededRecords() {
+    try (SegmentLogInferenceStore store = open(4096)) {
+      for (int round = 0; round < 20; round++) {
+        for (int i = 0; i < 10; i++) {
+          store.save(response("job-" + i, round == 19 ? Status.SUCCEEDED : Status.RUNNING));
+        }
+      }
+      int before = store.segmentCount();
+      assertThat(before).isGreaterThan(3);
+
+      assertThat(store.compact()).isPositive();
+      assertThat(store.segmentCount()).isLessThan(before);
+      assertThat(registry.get("inference.store.log.compactions").counter().count()).isPositive();
+      for (int i = 0; i < 10; i++) {
+        assertThat(store.find("job-" + i)).get().extracting(InferenceResponse::getStatus).isEqualTo(Status.SUCCEEDED);
+      }
+    }
+
+    try (SegmentLogInferenceStore store = open(4096)) {
+      assertThat(store.size()).isEqualTo(10);
+      for (int i = 0; i < 10; i++) {
+        assertThat(store.find("job-" + i)).get().extracting(InferenceResponse::getStatus).isEqualTo(Status.SUCCEEDED);
+      }
+    }
+  }
+
+  @Test
+  void expiredEntriesAreHiddenThenDroppedByCompaction() {
+    try (SegmentLogInferenceStore store = open(4096)) {
+      for (int i = 0; i < 60; i++) {
+        store.save(response("rejected-" + i, Status.REJECTED));
+      }
+      InferenceResponse queued = response("long", Status.QUEUED);
+      store.save(queued);
+      int before = store.segmentCount();
+      assertThat(before).isGreaterThan(1);
+
+      clock.advance(Duration.ofSeconds(61));
+      // 만료된 REJECTED는 바로 안 보이고, 같은 requestId로 다시 접수할 수 있다
+      assertThat(store.find("rejected-0")).isEmpty();
+      assertThat(store.saveIfAbsent(response("rejected-0", Status.QUEUED), prev -> true)).isEmpty();
+      assertThat(store.find("rejected-0")).get().extracting(InferenceResponse::getStatus).isEqualTo(Status.QUEUED);
+      // in-flight TTL(600s)은 아직 남았다: 전이 시각이 기준이므로 RUNNING으로 넘어가면 TTL이 다시 시작된다
+      store.transition("long", Status.QUEUED, queued.toBuilder().status(Status.RUNNING).startedAt(clock.instant()).build())
+          .orElseThrow();
+
+      assertThat(store.compact()).isPositive();
+      assertThat(store.segmentCount()).isLessThan(before);
+      assertThat(store.size()).isEqualTo(2);
+      assertThat(registry.get("inference.store.expirations").tag("class", "rejected").counter().count())
+          .isEqualTo(59);
+
+      clock.advance(Duration.ofSeconds(599));
+      assertThat(store.find("long")).isPresent();
+      clock.advance(Duration.ofSeconds(1));
+      assertThat(store.find("long")).isEmpty();
+      assertThat(store.transition("long", Status.RUNNING, queued.toBuilder().status(Status.SUCCEEDED).build())).isEmpty();
+    }
+
+    // 꺼져 있는 동안 만료된 in-flight 작업은 FAILED(server_restarted)로 되살리지 않는다
+    try (SegmentLogInferenceStore store = open(4096)) {
+      assertThat(store.find("long")).isEmpty();
+      assertThat(store.find("rejected-0")).isEmpty();
+      assertThat(store.size()).isZero();
+    }
+  }
+
+  @Test
+  void tornTailIsDiscardedOnRecovery() throws Exception {
+    try (SegmentLogInferenceStore store = open(1 << 16)) {
+      store.save(response("a", Status.SUCCEEDED));
+      store.save(response("b", Status.SUCCEEDED));
+    }
+    // 마지막 레코드의 payload 일부를 망가뜨린다 (쓰다가 죽은 상황)
+    Path segment;
+    try (Stream<Path> files = Files.list(dir)) {
+      segment = files.findFirst().orElseThrow();
+    }
+    int firstLen;
+    try (RandomAccessFile raf = new RandomAccessFile(segment.toFile(), "rw")) {
+      firstLen = raf.readInt();
+      raf.seek(8L + firstLen + 8 + 3);
+      raf.writeByte(0x7F);
+    }
+
+    try (SegmentLogInferenceStore store = open(1 << 16)) {
+      assertThat(store.find("a")).isPresent();
+      assertThat(store.find("b")).isEmpty();
+      store.save(response("c", Status.SUCCEEDED));
+    }
+    try (SegmentLogInferenceStore store = open(1 << 16)) {
+      assertThat(store.find("a")).isPresent();
+      assertThat(store.find("c")).isPresent();
+    }
+  }
+
+  @Test
+  void concurrentWritersShareGroupCommits() throws Exception {
+    int writers = 8;
+    int perWriter = 200;
+    try (SegmentLogInferenceStore store = open(1 << 20)) {
+      ExecutorService pool = Executors.newFixedThreadPool(writers);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int w = 0; w < writers; w++) {
+        int writer = w;
+        futures.add(pool.submit(() -> {
+          for (int i = 0; i < perWriter; i++) {
+            store.save(response("w" + writer + "-" + i, Status.SUCCEEDED));
+          }
+        }));
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
+      pool.shutdown();
+
+      assertThat(store.size()).isEqualTo(writers * perWriter);
+      double fsyncs = registry.get("inference.store.log.fsyncs").counter().count();
+      assertThat(fsyncs).isLessThan(writers * perWriter);
+    }
+  }
+
+  private SegmentLogInferenceStore open(int segmentBytes) {
+    return new SegmentLogInferenceStore(dir, segmentBytes, SyncMode.GROUP, 10, 0, 0.5,
+        600_000, 600_000, 600_000, 60_000, clock, registry);
+  }
+
+  private InferenceResponse response(String requestId, Status status) {
+    return InferenceResponse.queued(requestId, clock.instant()).toBuilder().status(status).build();
+  }
+}
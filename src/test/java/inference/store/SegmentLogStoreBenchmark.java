@@ -0,0 +1,103 @@
+package inference.store;
+
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import inference.store.SegmentLogInferenceStore.SyncMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * segment 로그 저장소의 쓰기 처리량 / 재기동(인덱스 재구성) 시간 측정. JUnit 테스트가 아니다(수동 실행).
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -Xmx3g -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *   inference.store.SegmentLogStoreBenchmark [entries=10000000] [threads=4] [syncMode=periodic] [dir=target/store-bench]
+ * </pre>
+ *
+ * 요청 하나의 실제 수명(QUEUED → RUNNING → SUCCEEDED)처럼 entries/3개의 requestId에 상태를 3번씩 쓴다.
+ */
+public final class SegmentLogStoreBenchmark {
+
+  private SegmentLogStoreBenchmark() {}
+
+  public static void main(String[] args) throws Exception {
+    long entries = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+    int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+    SyncMode syncMode = args.length > 2 ? SyncMode.valueOf(args[2].toUpperCase()) : SyncMode.PERIODIC;
+    Path dir = Path.of(args.length > 3 ? args[3] : "target/store-bench");
+    deleteDir(dir);
+
+    Clock clock = Clock.systemUTC();
+    long jobs = entries / 3;
+    long startNs = System.nanoTime();
+    try (SegmentLogInferenceStore store = open(dir, syncMode, clock)) {
+      List<Thread> workers = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int worker = t;
+        Thread th = new Thread(() -> {
+          for (long j = worker; j < jobs; j += threads) {
+            InferenceResponse r = InferenceResponse.queued("job-" + j, Instant.now(clock));
+            store.save(r);
+            r = store.transition(r.getRequestId(), Status.QUEUED,
+                r.toBuilder().status(Status.RUNNING).startedAt(Instant.now(clock)).build()).orElseThrow();
+            store.transition(r.getRequestId(), Status.RUNNING, r.toBuilder()
+                .status(Status.SUCCEEDED)
+                .output("ok: benchmark prompt " + j)
+                .completedAt(Instant.now(clock))
+                .latencyMs(1L)
+                .build());
+          }
+        });
+        workers.add(th);
+        th.start();
+      }
+      for (Thread th : workers) {
+        th.join();
+      }
+    }
+    double writeSec = (System.nanoTime() - startNs) / 1e9;
+    long writes = jobs * 3;
+    System.out.printf("write: records=%d threads=%d syncMode=%s elapsed=%.1fs throughput=%.0f records/s diskBytes=%d%n",
+        writes, threads, syncMode, writeSec, writes / writeSec, dirBytes(dir));
+
+    System.gc();
+    long recoverStart = System.nanoTime();
+    try (SegmentLogInferenceStore store = open(dir, SyncMode.NONE, clock)) {
+      long recoverMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - recoverStart);
+      System.out.printf("recovery: records=%d entries=%d segments=%d elapsed=%dms (%.0f records/s)%n",
+          writes, store.size(), store.segmentCount(), recoverMs, writes / (recoverMs / 1000.0));
+    }
+    deleteDir(dir);
+  }
+
+  private static SegmentLogInferenceStore open(Path dir, SyncMode syncMode, Clock clock) {
+    return new SegmentLogInferenceStore(dir, 256 << 20, syncMode, 10, 0, 0.5,
+        600_000, 600_000, 600_000, 600_000, clock, new SimpleMeterRegistry());
+  }
+
+  private static long dirBytes(Path dir) throws Exception {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.mapToLong(p -> p.toFile().length()).sum();
+    }
+  }
+
+  private static void deleteDir(Path dir) throws Exception {
+    if (!Files.exists(dir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path p : files.toList()) {
+        Files.delete(p);
+      }
+    }
+    Files.delete(dir);
+  }
+}
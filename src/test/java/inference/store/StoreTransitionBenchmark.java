@@ -0,0 +1,121 @@
+package inference.store;
+
+import inference.model.InferenceResponse;
+import inference.model.InferenceResponse.Status;
+import inference.store.SegmentLogInferenceStore.SyncMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 작업 한 건의 수명(save QUEUED → RUNNING → SUCCEEDED)을 store별로 돌려 보는 처리량 측정. JUnit 테스트가 아니다(수동 실행).
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *   inference.store.StoreTransitionBenchmark [jobs=1000000] [threads=1,4,16] [dir=target/transition-bench]
+ * </pre>
+ *
+ * save: 전이마다 새 스냅샷을 조건 없이 덮어쓴다(이전 mutate-then-save 경로의 비용).
+ * transition: 같은 스냅샷을 {@link InferenceStore#transition}으로 CAS 교체한다.
+ */
+public final class StoreTransitionBenchmark {
+
+  private StoreTransitionBenchmark() {}
+
+  public static void main(String[] args) throws Exception {
+    int jobs = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    int[] threadCounts = Stream.of((args.length > 1 ? args[1] : "1,4,16").split(","))
+        .mapToInt(Integer::parseInt)
+        .toArray();
+    Path dir = Path.of(args.length > 2 ? args[2] : "target/transition-bench");
+
+    for (String kind : List.of("memory", "bounded", "log")) {
+      for (int threads : threadCounts) {
+        for (boolean cas : new boolean[] {false, true}) {
+          // 1회 워밍업 후 측정
+          run(kind, dir, jobs / 10, threads, cas);
+          double opsPerSec = run(kind, dir, jobs, threads, cas);
+          System.out.printf("store=%-7s threads=%-3d path=%-10s transitions/s=%.0f%n",
+              kind, threads, cas ? "transition" : "save", opsPerSec);
+        }
+      }
+    }
+  }
+
+  private static double run(String kind, Path dir, int jobs, int threads, boolean cas) throws Exception {
+    deleteDir(dir);
+    Clock clock = Clock.systemUTC();
+    InferenceStore store = open(kind, dir, clock);
+    try {
+      List<Thread> workers = new ArrayList<>();
+      long startNs = System.nanoTime();
+      for (int t = 0; t < threads; t++) {
+        int worker = t;
+        Thread th = new Thread(() -> {
+          for (int j = worker; j < jobs; j += threads) {
+            InferenceResponse queued = InferenceResponse.queued("job-" + j, Instant.now(clock));
+            store.save(queued);
+            InferenceResponse running = queued.toBuilder().status(Status.RUNNING).startedAt(Instant.now(clock)).build();
+            if (cas) {
+              running = store.transition(queued.getRequestId(), Status.QUEUED, running).orElseThrow();
+            } else {
+              store.save(running);
+            }
+            InferenceResponse done = running.toBuilder()
+                .status(Status.SUCCEEDED)
+                .output("ok: benchmark prompt")
+                .completedAt(Instant.now(clock))
+                .latencyMs(1L)
+                .build();
+            if (cas) {
+              store.transition(queued.getRequestId(), Status.RUNNING, done).orElseThrow();
+            } else {
+              store.save(done);
+            }
+          }
+        });
+        workers.add(th);
+        th.start();
+      }
+      for (Thread th : workers) {
+        th.join();
+      }
+      double sec = (System.nanoTime() - startNs) / 1e9;
+      return 2L * jobs / sec;
+    } finally {
+      if (store instanceof AutoCloseable c) {
+        c.close();
+      }
+      deleteDir(dir);
+    }
+  }
+
+  private static InferenceStore open(String kind, Path dir, Clock clock) {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    return switch (kind) {
+      case "memory" -> new InMemoryInferenceStore();
+      case "bounded" -> new BoundedInferenceStore(clock, registry, 10_000_000, 4L << 30, 600_000, 600_000, 600_000, 600_000);
+      case "log" -> new SegmentLogInferenceStore(dir, 256 << 20, SyncMode.NONE, 10, 0, 0.5,
+          600_000, 600_000, 600_000, 600_000, clock, registry);
+      default -> throw new IllegalArgumentException("unknown store: " + kind);
+    };
+  }
+
+  private static void deleteDir(Path dir) throws Exception {
+    if (!Files.exists(dir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path p : files.toList()) {
+        Files.delete(p);
+      }
+    }
+    Files.delete(dir);
+  }
+}
@@ -0,0 +1,56 @@
+package inference.tokenizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ApproximateBpeTokenizerTest {
+
+  private final ApproximateBpeTokenizer tokenizer = new ApproximateBpeTokenizer();
+
+  @Test
+  void emptyTextHasNoTokens() {
+    assertThat(tokenizer.countTokens(null)).isZero();
+    assertThat(tokenizer.countTokens("")).isZero();
+  }
+
+  @Test
+  void shortWordsMergeWithTheirLeadingSpace() {
+    assertThat(tokenizer.countTokens("hello world")).isEqualTo(2);
+    assertThat(tokenizer.countTokens("the cat sat on the mat.")).isEqualTo(7);
+  }
+
+  @Test
+  void longWordsDigitsAndPunctuationSplit() {
+    // 6자 + 14자 → 1 + ceil(14/4)
+    assertThat(tokenizer.countTokens("internationalization")).isEqualTo(5);
+    assertThat(tokenizer.countTokens("1234567")).isEqualTo(3);
+    assertThat(tokenizer.countTokens("!!!!")).isEqualTo(2);
+  }
+
+  @Test
+  void nonAsciiCountsUtf8Bytes() {
+    // 한글 음절 3바이트 x 5 = 15바이트 → 8
+    assertThat(tokenizer.countTokens("안녕하세요")).isEqualTo(8);
+    // surrogate pair는 4바이트 한 글자
+    assertThat(tokenizer.countTokens("😀")).isEqualTo(2);
+  }
+
+  @Test
+  void englishProseIsRoughlyFourCharactersPerToken() {
+    String prose = "Kubernetes schedules pods onto nodes based on resource requests, and the horizontal "
+        + "pod autoscaler adds replicas when the observed metric stays above its target for a while. ";
+    int tokens = tokenizer.countTokens(prose);
+
+    assertThat((double) prose.length() / tokens).isBetween(3.5, 6.0);
+  }
+
+  @Test
+  void costGrowsWithPromptLength() {
+    String sentence = "Summarize the incident timeline for the on-call handoff. ";
+    int shortTokens = tokenizer.countTokens(sentence);
+    int longTokens = tokenizer.countTokens(sentence.repeat(20_000 / sentence.length()));
+
+    assertThat(longTokens).isGreaterThan(300 * shortTokens);
+  }
+}
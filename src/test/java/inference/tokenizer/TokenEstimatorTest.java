@@ -0,0 +1,40 @@
+package inference.tokenizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import inference.model.InferenceRequest;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TokenEstimatorTest {
+
+  private final TokenEstimator estimator = new TokenEstimator(new ApproximateBpeTokenizer(), 256, 1024);
+
+  @Test
+  void usesDefaultMaxOutputWithoutParameter() {
+    TokenEstimate estimate = estimator.estimate(request("hello world", null));
+
+    assertThat(estimate.promptTokens()).isEqualTo(2);
+    assertThat(estimate.maxOutputTokens()).isEqualTo(256);
+    assertThat(estimate.total()).isEqualTo(258);
+  }
+
+  @Test
+  void honorsMaxTokensParameterUpToTheCap() {
+    assertThat(estimator.estimate(request("hi", Map.of("max_tokens", 32))).maxOutputTokens()).isEqualTo(32);
+    assertThat(estimator.estimate(request("hi", Map.of("maxTokens", "64"))).maxOutputTokens()).isEqualTo(64);
+    assertThat(estimator.estimate(request("hi", Map.of("max_tokens", 1_000_000))).maxOutputTokens()).isEqualTo(1024);
+  }
+
+  @Test
+  void invalidMaxTokensFallsBackToDefault() {
+    assertThat(estimator.estimate(request("hi", Map.of("max_tokens", "lots"))).maxOutputTokens()).isEqualTo(256);
+  }
+
+  private static InferenceRequest request(String prompt, Map<String, Object> parameters) {
+    InferenceRequest request = new InferenceRequest();
+    request.setPrompt(prompt);
+    request.setParameters(parameters);
+    return request;
+  }
+}